@@ -1,6 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +19,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
 
 @Service
@@ -28,27 +36,87 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getAllBookingsCurrentUser(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookingsCurrentUser(long userId, BookingState state, Integer limit, String cursor) {
+        Map<String, Object> parameters = pageParameters(state, limit, cursor);
+        return get(pageQuery("", parameters), userId, parameters);
+    }
+
+
+    public ResponseEntity<Object> add(long userId, String idempotencyKey, BookItemRequestDto requestDto) {
+        return postIdempotent("", userId, idempotencyKey, requestDto);
+    }
+
+    public ResponseEntity<Object> addBatch(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
     }
 
+    public ResponseEntity<Object> addRecurring(long userId, RecurringBookingRequestDto requestDto) {
+        return post("/recurring", userId, requestDto);
+    }
 
-    public ResponseEntity<Object> add(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public ResponseEntity<Object> getRecurring(long userId) {
+        return get("/recurring", userId);
     }
 
     public ResponseEntity<Object> getById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approve(Integer userId, Integer bookingId, Boolean approved) {
+    public ResponseEntity<Object> approve(Integer userId, Integer bookingId, Boolean approved, Boolean rejectOverlapping) {
+        Map<String, Object> parameters = Map.of("approved", approved, "rejectOverlapping", rejectOverlapping);
+        return patch("/" + bookingId + "?approved={approved}&rejectOverlapping={rejectOverlapping}",
+                userId.longValue(), parameters, null);
+    }
+
+    public ResponseEntity<Object> approveAll(Integer userId, List<Integer> bookingIds, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId.longValue(), parameters, null);
+        return patch("/bulk?approved={approved}", userId.longValue(), parameters, bookingIds);
+    }
+
+    public ResponseEntity<Object> cancel(Integer userId, Integer bookingId) {
+        return patch("/" + bookingId + "/cancel", userId.longValue());
+    }
+
+    public ResponseEntity<Object> getAllBookingsItemsUser(Integer userId, BookingState state, Integer limit, String cursor) {
+        Map<String, Object> parameters = pageParameters(state, limit, cursor);
+        return get(pageQuery("/owner", parameters), userId.longValue(), parameters);
+    }
+
+    public ResponseEntity<Object> getBookerSummary(Integer userId) {
+        return get("/summary", userId.longValue());
+    }
+
+    public ResponseEntity<Object> getOwnerSummary(Integer userId) {
+        return get("/owner/summary", userId.longValue());
+    }
+
+    public ResponseEntity<Object> getOwnerTimeline(Integer userId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/owner/timeline?from={from}&to={to}", userId.longValue(), parameters);
+    }
+
+    public void exportOwnerBookings(Integer userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId.longValue(), response);
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, Integer limit, String cursor) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state.name());
+        if (limit != null) {
+            parameters.put("limit", limit);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
-    public ResponseEntity<Object> getAllBookingsItemsUser(Integer userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner", userId.longValue(), parameters);
+    private static String pageQuery(String path, Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", path + "?", ""));
     }
 }
\ No newline at end of file
@@ -1,16 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
+import ru.practicum.shareit.client.BaseClient;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 
@@ -26,18 +38,60 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Object> add(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
+                                      @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                      @Size(max = 255) String idempotencyKey,
                                       @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Получен запрос на создание бронирования с данными: {}, userId={}", requestDto, userId);
-        return bookingClient.add(userId, requestDto);
+        return bookingClient.add(userId, idempotencyKey, requestDto);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBatch(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
+                                           @RequestBody @NotEmpty(message = "Пакет бронирований не может быть пустым")
+                                           List<BookItemRequestDto> requestDtos) {
+        log.info("Получен запрос на пакетное создание бронирований, размер пакета = {}, userId={}",
+                requestDtos.size(), userId);
+        return bookingClient.addBatch(userId, requestDtos);
+    }
+
+    @PostMapping("/recurring")
+    public ResponseEntity<Object> addRecurring(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
+                                               @RequestBody @Valid RecurringBookingRequestDto requestDto) {
+        log.info("Получен запрос на создание повторяющегося бронирования с данными: {}, userId={}", requestDto, userId);
+        return bookingClient.addRecurring(userId, requestDto);
+    }
+
+    @GetMapping("/recurring")
+    public ResponseEntity<Object> getRecurring(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId) {
+        log.info("Получен запрос на просмотр повторяющихся бронирований, userId={}", userId);
+        return bookingClient.getRecurring(userId);
     }
 
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
                                           @PathVariable @Positive Integer bookingId,
-                                          @RequestParam Boolean approved) {
-        log.info("Получен запроса на обновление статуса брони с данными: userId = {}, bookingId = {}, approved = {}",
-                userId, bookingId, approved);
-        return bookingClient.approve(userId, bookingId, approved);
+                                          @RequestParam Boolean approved,
+                                          @RequestParam(defaultValue = "false") Boolean rejectOverlapping) {
+        log.info("Получен запроса на обновление статуса брони с данными: userId = {}, bookingId = {}, approved = {}, " +
+                "rejectOverlapping = {}", userId, bookingId, approved, rejectOverlapping);
+        return bookingClient.approve(userId, bookingId, approved, rejectOverlapping);
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> approveAll(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
+                                             @RequestParam Boolean approved,
+                                             @RequestBody @NotEmpty(message = "Список бронирований не может быть пустым")
+                                             List<@NotNull @Positive Integer> bookingIds) {
+        log.info("Получен запрос на обновление статуса бронирований с данными: userId = {}, bookingIds = {}, " +
+                "approved = {}", userId, bookingIds, approved);
+        return bookingClient.approveAll(userId, bookingIds, approved);
+    }
+
+    @PatchMapping("/{bookingId}/cancel")
+    public ResponseEntity<Object> cancel(@RequestHeader (USER_ID_IN_HEADER) @Positive Integer userId,
+                                         @PathVariable @Positive Integer bookingId) {
+        log.info("Получен запрос на отмену бронирования с данными: userId = {}, bookingId = {}", userId, bookingId);
+        return bookingClient.cancel(userId, bookingId);
     }
 
     @GetMapping("/{bookingId}")
@@ -49,22 +103,55 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getAllBookingsCurrentUser(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
-                                                            @RequestParam(name = "state", defaultValue = "all") String stateParam) {
-        log.info("Получен запрос на получение всех бронирований пользователя с данными: userId = {}, stateParam = {}",
-                userId, stateParam);
+                                                            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                            @RequestParam(required = false) @Positive @Max(1000) Integer limit,
+                                                            @RequestParam(required = false) @Size(max = 255) String cursor) {
+        log.info("Получен запрос на получение всех бронирований пользователя с данными: userId = {}, stateParam = {}, " +
+                "limit = {}, cursor = {}", userId, stateParam, limit, cursor);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Неизвестный статус: " + stateParam));
         log.info("Get booking with state {}, userId={}", stateParam, userId);
-        return bookingClient.getAllBookingsCurrentUser(userId, state);
+        return bookingClient.getAllBookingsCurrentUser(userId, state, limit, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllBookingsItemsUser(@RequestHeader(USER_ID_IN_HEADER) Integer userId,
-                                                          @RequestParam(name = "state", defaultValue = "ALL") String stateParam) {
-        log.info("Получен запрос на получение бронирований всех вещей пользователя с данными: userId = {}, stateParam = {}",
-                userId, stateParam);
+                                                          @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                          @RequestParam(required = false) @Positive @Max(1000) Integer limit,
+                                                          @RequestParam(required = false) @Size(max = 255) String cursor) {
+        log.info("Получен запрос на получение бронирований всех вещей пользователя с данными: userId = {}, stateParam = {}, " +
+                "limit = {}, cursor = {}", userId, stateParam, limit, cursor);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Неизвестный статус: " + stateParam));
-        return bookingClient.getAllBookingsItemsUser(userId, state);
+        return bookingClient.getAllBookingsItemsUser(userId, state, limit, cursor);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookerSummary(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId) {
+        log.info("Получен запрос на сводку бронирований пользователя с id = {}", userId);
+        return bookingClient.getBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId) {
+        log.info("Получен запрос на сводку бронирований вещей пользователя с id = {}", userId);
+        return bookingClient.getOwnerSummary(userId);
+    }
+
+    @GetMapping("/owner/timeline")
+    public ResponseEntity<Object> getOwnerTimeline(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        log.info("Получен запрос на шкалу бронирований вещей пользователя с id = {} с {} по {}", userId, from, to);
+        return bookingClient.getOwnerTimeline(userId, from, to);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Получен запрос на выгрузку бронирований вещей пользователя с id = {}", userId);
+        bookingClient.exportOwnerBookings(userId, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringBookingRequestDto {
+
+    @NotNull(message = "Предмет бронирования не может быть пустым")
+    private Integer itemId;
+
+    @NotNull(message = "Дата начала первого повторения не может быть пустой")
+    @Future(message = "Дата начала первого повторения должна быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime start;
+
+    @NotNull(message = "Дата окончания первого повторения не может быть пустой")
+    @Future(message = "Дата окончания первого повторения должна быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime end;
+
+    @NotNull(message = "Шаг повторения не может быть пустым")
+    @Positive(message = "Шаг повторения должен быть положительным")
+    private Integer periodDays;
+
+    @NotNull(message = "Количество повторений не может быть пустым")
+    @Positive(message = "Количество повторений должно быть положительным")
+    private Integer occurrences;
+}
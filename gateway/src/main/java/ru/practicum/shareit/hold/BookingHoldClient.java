@@ -0,0 +1,35 @@
+package ru.practicum.shareit.hold;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+
+@Service
+public class BookingHoldClient extends BaseClient {
+
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public BookingHoldClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> hold(Integer userId, Integer itemId, BookingHoldRequestDto bookingHoldRequestDto) {
+        return post("/" + itemId + "/holds", userId, bookingHoldRequestDto);
+    }
+
+    public ResponseEntity<Object> release(Integer userId, Integer itemId, String holdId) {
+        return delete("/" + itemId + "/holds/" + holdId, userId);
+    }
+}
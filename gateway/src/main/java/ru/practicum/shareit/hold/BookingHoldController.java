@@ -0,0 +1,41 @@
+package ru.practicum.shareit.hold;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+
+@Controller
+@RequestMapping(path = "/items/{itemId}/holds")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class BookingHoldController {
+
+    private final BookingHoldClient bookingHoldClient;
+    private static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+
+    @PostMapping
+    public ResponseEntity<Object> hold(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                       @PathVariable @Positive Integer itemId,
+                                       @RequestBody @Valid BookingHoldRequestDto bookingHoldRequestDto) {
+        log.info("Получен запрос на удержание периода с данными: {}, userId = {}, itemId = {}",
+                bookingHoldRequestDto, userId, itemId);
+        return bookingHoldClient.hold(userId, itemId, bookingHoldRequestDto);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Object> release(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                          @PathVariable @Positive Integer itemId,
+                                          @PathVariable @Size(max = 36) String holdId) {
+        log.info("Получен запрос на снятие удержания: userId = {}, itemId = {}, holdId = {}",
+                userId, itemId, holdId);
+        return bookingHoldClient.release(userId, itemId, holdId);
+    }
+}
@@ -12,6 +12,8 @@ import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -29,8 +31,8 @@ public class ItemClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> create(Integer userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<Object> create(Integer userId, String idempotencyKey, ItemDto itemDto) {
+        return postIdempotent("", userId, idempotencyKey, itemDto);
     }
 
     public ResponseEntity<Object> update(Integer userId, Integer itemId, UpdateItemDto updateItemDto) {
@@ -49,9 +51,24 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", Long.valueOf(userId), parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", parameters);
+    public ResponseEntity<Object> searchItems(String text, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            Map<String, Object> parameters = Map.of("text", text);
+            return get("/search?text={text}", parameters);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("to", to);
+        return get("/search?text={text}&from={from}&to={to}", parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
     }
 
     public ResponseEntity<Object> createComment(Integer userId, Integer itemId, CommentRequestDto commentRequestDto) {
@@ -3,16 +3,21 @@ package ru.practicum.shareit.item;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 
+import java.time.LocalDateTime;
+
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -25,9 +30,11 @@ public class ItemController {
 
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                         @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                         @Size(max = 255) String idempotencyKey,
                                          @RequestBody @Valid ItemDto itemDto) {
         log.info("Получен запрос на создание новой вещи с данными: {}, userId = {}", itemDto, userId);
-        return itemClient.create(userId, itemDto);
+        return itemClient.create(userId, idempotencyKey, itemDto);
     }
 
     @PatchMapping("/{itemId}")
@@ -53,10 +60,24 @@ public class ItemController {
         return itemClient.getItemsForUser(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable @Positive Integer itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        log.info("Получен запрос на календарь доступности вещи {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam (required = false) String text) {
-        log.info("Получен запрос на поиск вещей по подстроке: {}", text);
-        return itemClient.searchItems(text);
+    public ResponseEntity<Object> searchItems(@RequestParam (required = false) String text,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос на поиск вещей по подстроке: {} с {} по {}", text, from, to);
+        return itemClient.searchItems(text, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
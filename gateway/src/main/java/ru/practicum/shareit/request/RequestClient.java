@@ -24,8 +24,8 @@ public class RequestClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> create(Integer userId, ItemRequestDto itemRequestDto) {
-        return post("", userId, itemRequestDto);
+    public ResponseEntity<Object> create(Integer userId, String idempotencyKey, ItemRequestDto itemRequestDto) {
+        return postIdempotent("", userId, idempotencyKey, itemRequestDto);
     }
 
     public ResponseEntity<Object> getAllOwn(Integer userId) {
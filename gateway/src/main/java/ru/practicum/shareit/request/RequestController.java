@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 
 @Controller
 @RequestMapping(path = "/requests")
@@ -21,8 +23,10 @@ public class RequestController {
 
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                         @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                         @Size(max = 255) String idempotencyKey,
                                          @RequestBody @Valid ItemRequestDto itemRequestDto) {
-        return requestClient.create(userId, itemRequestDto);
+        return requestClient.create(userId, idempotencyKey, itemRequestDto);
     }
 
     @GetMapping
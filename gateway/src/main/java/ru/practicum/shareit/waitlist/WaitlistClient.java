@@ -0,0 +1,35 @@
+package ru.practicum.shareit.waitlist;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+@Service
+public class WaitlistClient extends BaseClient {
+
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public WaitlistClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> join(Integer userId, Integer itemId, WaitlistRequestDto waitlistRequestDto) {
+        return post("/" + itemId + "/waitlist", userId, waitlistRequestDto);
+    }
+
+    public ResponseEntity<Object> leave(Integer userId, Integer itemId, Integer entryId) {
+        return delete("/" + itemId + "/waitlist/" + entryId, userId);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.waitlist;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+@Controller
+@RequestMapping(path = "/items/{itemId}/waitlist")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class WaitlistController {
+
+    private final WaitlistClient waitlistClient;
+    private static final String USER_ID_IN_HEADER = "X-Sharer-User-Id";
+
+    @PostMapping
+    public ResponseEntity<Object> join(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                       @PathVariable @Positive Integer itemId,
+                                       @RequestBody @Valid WaitlistRequestDto waitlistRequestDto) {
+        log.info("Получен запрос на постановку в лист ожидания с данными: {}, userId = {}, itemId = {}",
+                waitlistRequestDto, userId, itemId);
+        return waitlistClient.join(userId, itemId, waitlistRequestDto);
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Object> leave(@RequestHeader(USER_ID_IN_HEADER) @Positive Integer userId,
+                                        @PathVariable @Positive Integer itemId,
+                                        @PathVariable @Positive Integer entryId) {
+        log.info("Получен запрос на удаление записи из листа ожидания: userId = {}, itemId = {}, entryId = {}",
+                userId, itemId, entryId);
+        return waitlistClient.leave(userId, itemId, entryId);
+    }
+}
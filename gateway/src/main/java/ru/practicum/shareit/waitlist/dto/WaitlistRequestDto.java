@@ -0,0 +1,28 @@
+package ru.practicum.shareit.waitlist.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistRequestDto {
+
+    @NotNull(message = "Дата начала периода не может быть пустой")
+    @Future(message = "Дата начала периода должна быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime start;
+
+    @NotNull(message = "Дата окончания периода не может быть пустой")
+    @Future(message = "Дата окончания периода должна быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime end;
+}
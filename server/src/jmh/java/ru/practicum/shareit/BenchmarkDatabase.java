@@ -0,0 +1,40 @@
+package ru.practicum.shareit;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Подключение к базе данных для JMH бенчмарков.
+ * <p>
+ * По умолчанию используется H2 в памяти. Для замеров на PostgreSQL параметры
+ * подключения передаются системными свойствами:
+ * </p>
+ * <pre>
+ * mvn -pl server -Pjmh test-compile exec:exec \
+ *     -Djmh.args="-f 1 -jvmArgs -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/shareit"
+ * </pre>
+ *
+ * <p><b>Поддерживаемые свойства:</b></p>
+ * <ul>
+ *   <li><b>bench.jdbc.url</b> - адрес базы данных</li>
+ *   <li><b>bench.jdbc.user</b> - имя пользователя</li>
+ *   <li><b>bench.jdbc.password</b> - пароль</li>
+ * </ul>
+ */
+public final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    public static Connection open() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"),
+                System.getProperty("bench.jdbc.user", "sa"),
+                System.getProperty("bench.jdbc.password", ""));
+    }
+
+    public static boolean isPostgres(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.BenchmarkDatabase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+/**
+ * Сравнение проверки пересечения периода через {@link BookingConflictIndex}
+ * и через SQL запрос на пересечение к таблице бронирований.
+ * <p>
+ * У одного предмета создаётся {@code bookingsPerItem} непересекающихся бронирований
+ * длиной в час с интервалом в два часа. Проверяемые периоды выбираются случайно,
+ * примерно половина из них пересекается с существующими бронированиями.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingConflictIndexBenchmark {
+
+    private static final int ITEM_ID = 1;
+    private static final int PROBES = 1024;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"10000", "100000"})
+    private int bookingsPerItem;
+
+    private BookingConflictIndex conflictIndex;
+    private Connection connection;
+    private PreparedStatement overlapQuery;
+    private LocalDateTime[] probeStarts;
+    private LocalDateTime[] probeEnds;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<BookingInterval> intervals = new ArrayList<>(bookingsPerItem);
+        for (int i = 0; i < bookingsPerItem; i++) {
+            LocalDateTime start = BASE.plusHours(2L * i);
+            intervals.add(new BookingInterval(i + 1, start, start.plusHours(1)));
+        }
+
+        BookingRepository repository = Mockito.mock(BookingRepository.class);
+        Mockito.when(repository.findActiveIntervalsByItemId(anyInt(), any(), any())).thenReturn(intervals);
+        conflictIndex = new BookingConflictIndex(repository, Duration.ofDays(1), 1);
+        conflictIndex.overlaps(ITEM_ID, BASE, BASE);
+
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_bookings");
+            statement.execute("CREATE TABLE bench_bookings (id integer PRIMARY KEY, item_id integer NOT NULL, " +
+                    "start_date timestamp NOT NULL, end_date timestamp NOT NULL, status varchar(15) NOT NULL)");
+            statement.execute("CREATE INDEX bench_bookings_item_status_dates " +
+                    "ON bench_bookings (item_id, status, start_date, end_date)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_bookings (id, item_id, start_date, end_date, status) VALUES (?, ?, ?, ?, ?)")) {
+            for (BookingInterval interval : intervals) {
+                insert.setInt(1, interval.id());
+                insert.setInt(2, ITEM_ID);
+                insert.setTimestamp(3, Timestamp.valueOf(interval.start()));
+                insert.setTimestamp(4, Timestamp.valueOf(interval.end()));
+                insert.setString(5, interval.id() % 2 == 0 ? "APPROVED" : "WAITING");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        overlapQuery = connection.prepareStatement("SELECT 1 FROM bench_bookings " +
+                "WHERE item_id = ? AND status IN ('WAITING', 'APPROVED') " +
+                "AND start_date < ? AND end_date > ? LIMIT 1");
+
+        Random random = new Random(42);
+        probeStarts = new LocalDateTime[PROBES];
+        probeEnds = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(bookingsPerItem * 120));
+            probeStarts[i] = start;
+            probeEnds[i] = start.plusMinutes(30);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        overlapQuery.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_bookings");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean inMemoryIndex() {
+        int i = nextProbe();
+        return conflictIndex.overlaps(ITEM_ID, probeStarts[i], probeEnds[i]);
+    }
+
+    @Benchmark
+    public boolean sqlOverlapQuery() throws SQLException {
+        int i = nextProbe();
+        overlapQuery.setInt(1, ITEM_ID);
+        overlapQuery.setTimestamp(2, Timestamp.valueOf(probeEnds[i]));
+        overlapQuery.setTimestamp(3, Timestamp.valueOf(probeStarts[i]));
+        try (ResultSet resultSet = overlapQuery.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    private int nextProbe() {
+        probe = (probe + 1) & (PROBES - 1);
+        return probe;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.BenchmarkDatabase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пропускная способность подтверждённых бронирований при конкуренции 64 потоков за один предмет.
+ * <p>
+ * Сравниваются две стратегии защиты от пересечения периодов:
+ * </p>
+ * <ul>
+ *   <li><b>ROW_LOCK</b> - блокировка строки предмета (SELECT ... FOR UPDATE), проверка пересечения
+ *       и вставка, как в профиле H2</li>
+ *   <li><b>EXCLUSION_CONSTRAINT</b> - вставка без предварительной проверки, пересечения отсекает
+ *       exclusion constraint PostgreSQL (только для PostgreSQL, см. {@link BenchmarkDatabase})</li>
+ * </ul>
+ * <p>
+ * Каждый поток бронирует случайный часовой слот предмета, поэтому часть операций
+ * заканчивается конфликтом. Оба исхода считаются выполненной операцией.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+public class BookingContentionBenchmark {
+
+    private static final int HOT_ITEM_ID = 1;
+    private static final int SLOTS = 1_000_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"ROW_LOCK", "EXCLUSION_CONSTRAINT"})
+    private String strategy;
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.open(); Statement statement = connection.createStatement()) {
+            boolean postgres = BenchmarkDatabase.isPostgres(connection);
+            if ("EXCLUSION_CONSTRAINT".equals(strategy) && !postgres) {
+                throw new IllegalStateException("Стратегия EXCLUSION_CONSTRAINT требует PostgreSQL");
+            }
+            statement.execute("DROP TABLE IF EXISTS bench_bookings");
+            statement.execute("DROP TABLE IF EXISTS bench_items");
+            statement.execute("CREATE TABLE bench_items (item_id integer PRIMARY KEY)");
+            statement.execute("INSERT INTO bench_items (item_id) VALUES (" + HOT_ITEM_ID + ")");
+            statement.execute("CREATE TABLE bench_bookings (id integer PRIMARY KEY, item_id integer NOT NULL, " +
+                    "start_date timestamp NOT NULL, end_date timestamp NOT NULL, status varchar(15) NOT NULL)");
+            statement.execute("CREATE INDEX bench_bookings_item_status_dates " +
+                    "ON bench_bookings (item_id, status, start_date, end_date)");
+            if (postgres) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+                statement.execute("ALTER TABLE bench_bookings ADD CONSTRAINT bench_ex_overlap " +
+                        "EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&) " +
+                        "WHERE (status = 'APPROVED')");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.open(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_bookings");
+            statement.execute("DROP TABLE bench_items");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Booker {
+
+        private Connection connection;
+        private PreparedStatement lockItem;
+        private PreparedStatement overlap;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            connection = BenchmarkDatabase.open();
+            connection.setAutoCommit(false);
+            lockItem = connection.prepareStatement("SELECT item_id FROM bench_items WHERE item_id = ? FOR UPDATE");
+            overlap = connection.prepareStatement("SELECT 1 FROM bench_bookings " +
+                    "WHERE item_id = ? AND status = 'APPROVED' AND start_date < ? AND end_date > ? LIMIT 1");
+            insert = connection.prepareStatement("INSERT INTO bench_bookings " +
+                    "(id, item_id, start_date, end_date, status) VALUES (?, ?, ?, ?, 'APPROVED')");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean bookHotItem(Booker booker) throws SQLException {
+        LocalDateTime start = BASE.plusHours(ThreadLocalRandom.current().nextInt(SLOTS));
+        Timestamp from = Timestamp.valueOf(start);
+        Timestamp to = Timestamp.valueOf(start.plusHours(1));
+        try {
+            boolean booked = "ROW_LOCK".equals(strategy)
+                    ? bookWithRowLock(booker, from, to)
+                    : bookWithConstraint(booker, from, to);
+            booker.connection.commit();
+            return booked;
+        } catch (SQLException e) {
+            booker.connection.rollback();
+            if ("23P01".equals(e.getSQLState())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean bookWithRowLock(Booker booker, Timestamp from, Timestamp to) throws SQLException {
+        booker.lockItem.setInt(1, HOT_ITEM_ID);
+        try (ResultSet ignored = booker.lockItem.executeQuery()) {
+            booker.overlap.setInt(1, HOT_ITEM_ID);
+            booker.overlap.setTimestamp(2, to);
+            booker.overlap.setTimestamp(3, from);
+            try (ResultSet resultSet = booker.overlap.executeQuery()) {
+                if (resultSet.next()) {
+                    return false;
+                }
+            }
+            return bookWithConstraint(booker, from, to);
+        }
+    }
+
+    private boolean bookWithConstraint(Booker booker, Timestamp from, Timestamp to) throws SQLException {
+        booker.insert.setInt(1, ids.incrementAndGet());
+        booker.insert.setInt(2, HOT_ITEM_ID);
+        booker.insert.setTimestamp(3, from);
+        booker.insert.setTimestamp(4, to);
+        booker.insert.executeUpdate();
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.mapper.BookingMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение выборки страницы бронирований сущностями и конструкторным выражением.
+ * <p>
+ * Одна операция - ответ на страницу из {@value #PAGE_SIZE} бронирований: от запроса до списка
+ * {@code BookingDto}, как в {@link BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)}.
+ * Контекст приложения поднимается с профилем {@code test} на H2. Выделенная память на операцию
+ * выводится профилировщиком {@code gc} в строке {@code gc.alloc.rate.norm}:
+ * </p>
+ * <pre>
+ * mvn -pl server -Pjmh test-compile exec:exec -Djmh.args="-f 1 -prof gc BookingProjectionBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingProjectionBenchmark {
+
+    private static final int PAGE_SIZE = 1_000;
+    private static final int ITEMS = 100;
+
+    /**
+     * Запрос списка бронирований арендатора сущностями, как до перехода на {@link BookingView}.
+     */
+    private static final String ENTITY_QUERY = "SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.booker.id = :userId " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC";
+
+    private ConfigurableApplicationContext context;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private BookingRepository bookingRepository;
+    private BookingMapper bookingMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Integer bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN");
+        jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        populate();
+
+        List<BookingDto> entities = entities();
+        if (entities.size() != PAGE_SIZE || !entities.equals(projection())) {
+            throw new IllegalStateException("Сущности и проекция возвращают разные страницы");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE booker_id = :bookerId", Map.of("bookerId", bookerId));
+        jdbcTemplate.update("DELETE FROM items WHERE name LIKE 'benchmark-view-item-%'", Map.of());
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'benchmark-view-%'", Map.of());
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery(ENTITY_QUERY, Booking.class)
+                .setParameter("userId", bookerId)
+                .setParameter("afterStart", BookingCursor.FIRST.start())
+                .setParameter("afterId", BookingCursor.FIRST.key())
+                .setMaxResults(PAGE_SIZE)
+                .getResultList().stream()
+                .map(bookingMapper::mapToDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> projection() {
+        return readOnly.execute(status -> bookingRepository
+                .findAllByBookerId(bookerId, BookingCursor.FIRST.start(), BookingCursor.FIRST.key(),
+                        Limit.of(PAGE_SIZE)).stream()
+                .map(bookingMapper::mapToDtoFromView)
+                .toList());
+    }
+
+    private void populate() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'benchmark-view-owner@example.com'), " +
+                "('booker', 'benchmark-view-booker@example.com')", Map.of());
+        Integer ownerId = userId("benchmark-view-owner@example.com");
+        bookerId = userId("benchmark-view-booker@example.com");
+        MapSqlParameterSource[] items = new MapSqlParameterSource[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            items[i] = new MapSqlParameterSource()
+                    .addValue("name", "benchmark-view-item-" + i)
+                    .addValue("ownerId", ownerId);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES (:name, 'benchmark', TRUE, :ownerId)", items);
+        List<Integer> itemIds = jdbcTemplate.queryForList("SELECT item_id FROM items " +
+                "WHERE name LIKE 'benchmark-view-item-%' ORDER BY item_id", Map.of(), Integer.class);
+        LocalDateTime start = LocalDateTime.now().withNano(0).minusDays(PAGE_SIZE);
+        MapSqlParameterSource[] bookings = new MapSqlParameterSource[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bookings[i] = new MapSqlParameterSource()
+                    .addValue("start", Timestamp.valueOf(start.plusDays(i)))
+                    .addValue("end", Timestamp.valueOf(start.plusDays(i).plusHours(12)))
+                    .addValue("itemId", itemIds.get(i % ITEMS))
+                    .addValue("bookerId", bookerId);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (:start, :end, :itemId, :bookerId, 'APPROVED')", bookings);
+    }
+
+    private Integer userId(String email) {
+        return jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE email = :email",
+                Map.of("email", email), Integer.class);
+    }
+}
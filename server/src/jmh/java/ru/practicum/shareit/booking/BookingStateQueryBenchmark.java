@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import ru.practicum.shareit.BenchmarkDatabase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Сравнение запроса с цепочкой OR по состоянию и отдельных запросов на каждое состояние.
+ * <p>
+ * Таблицы {@code bench_items} и {@code bench_bookings} получают индексы bookings и items из
+ * {@code schema.sql} и из {@code schema-h2.sql} или {@code schema-postgresql.sql}. Перед замером
+ * оба запроса сверяются по результату, их планы выводятся в лог прогона:
+ * </p>
+ * <pre>
+ * mvn -pl server -Pjmh test-compile exec:exec -Djmh.args="-f 1 BookingStateQueryBenchmark"
+ * </pre>
+ * <p>
+ * Размер таблицы задаётся параметром {@code bookings}, например {@code -p bookings=100000}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BookingStateQueryBenchmark {
+
+    private static final int ITEMS = 10_000;
+    private static final int BOOKERS = 1_000;
+    private static final int OWNERS = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String OR_CHAIN = "AND (:state = 'ALL' OR " +
+            "(:state = 'CURRENT' AND b.start_date <= :now AND b.end_date >= :now) OR " +
+            "(:state = 'PAST' AND b.end_date < :now) OR " +
+            "(:state = 'FUTURE' AND b.start_date > :now) OR " +
+            "(:state = 'WAITING' AND b.status = 'WAITING') OR " +
+            "(:state = 'REJECTED' AND b.status = 'REJECTED')) ";
+
+    private static final Map<String, String> STATE_FILTERS = Map.of(
+            "ALL", "",
+            "CURRENT", "AND b.end_date >= :now AND b.start_date <= :now ",
+            "PAST", "AND b.end_date < :now ",
+            "FUTURE", "AND b.start_date > :now ",
+            "WAITING", "AND b.status = :status ",
+            "REJECTED", "AND b.status = :status ");
+
+    private static final String BOOKER_FROM = "SELECT b.id FROM bench_bookings b WHERE b.booker_id = :userId ";
+    private static final String OWNER_FROM = "SELECT b.id FROM bench_bookings b " +
+            "JOIN bench_items i ON i.item_id = b.item_id WHERE i.owner_id = :userId ";
+    private static final String ORDER = "ORDER BY b.start_date DESC";
+
+    @Param({"1000000"})
+    private int bookings;
+
+    @Param({"booker", "owner"})
+    private String role;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private Connection connection;
+    private PreparedStatement orChain;
+    private PreparedStatement perState;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = BenchmarkDatabase.open();
+        boolean postgres = BenchmarkDatabase.isPostgres(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_bookings");
+            statement.execute("DROP TABLE IF EXISTS bench_items");
+            statement.execute("CREATE TABLE bench_items (item_id integer PRIMARY KEY, owner_id integer NOT NULL)");
+            statement.execute("CREATE TABLE bench_bookings (id integer PRIMARY KEY, " +
+                    "start_date timestamp NOT NULL, end_date timestamp NOT NULL, item_id integer NOT NULL, " +
+                    "booker_id integer NOT NULL, status varchar(15) NOT NULL)");
+        }
+        populate();
+        createIndexes(postgres);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(postgres ? "ANALYZE bench_bookings, bench_items" : "ANALYZE");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", 1)
+                .addValue("state", state)
+                .addValue("status", state)
+                .addValue("now", Timestamp.valueOf(now));
+        String from = role.equals("booker") ? BOOKER_FROM : OWNER_FROM;
+        orChain = prepare(from + OR_CHAIN + ORDER, params);
+        perState = prepare(from + STATE_FILTERS.get(state) + ORDER, params);
+
+        List<Integer> expected = ids(orChain);
+        if (!expected.equals(ids(perState))) {
+            throw new IllegalStateException("Запросы " + role + " " + state + " возвращают разные бронирования");
+        }
+        System.out.printf("%n%s %s, строк: %d%nПлан с цепочкой OR:%n%s%nПлан по состоянию:%n%s%n", role, state,
+                expected.size(), explain(from + OR_CHAIN + ORDER, params),
+                explain(from + STATE_FILTERS.get(state) + ORDER, params));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_bookings");
+            statement.execute("DROP TABLE bench_items");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Integer> orChain() throws SQLException {
+        return ids(orChain);
+    }
+
+    @Benchmark
+    public List<Integer> perState() throws SQLException {
+        return ids(perState);
+    }
+
+    private void populate() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_items (item_id, owner_id) VALUES (?, ?)")) {
+            for (int i = 0; i < ITEMS; i++) {
+                insert.setInt(1, i + 1);
+                insert.setInt(2, i % OWNERS + 1);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        LocalDateTime base = now.minusDays(3L * (bookings / ITEMS) / 2);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_bookings " +
+                "(id, start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < bookings; i++) {
+                LocalDateTime start = base.plusDays(3L * (i / ITEMS));
+                int kind = (i / BOOKERS) % 10;
+                insert.setInt(1, i + 1);
+                insert.setTimestamp(2, Timestamp.valueOf(start));
+                insert.setTimestamp(3, Timestamp.valueOf(start.plusDays(2)));
+                insert.setInt(4, i % ITEMS + 1);
+                insert.setInt(5, i % BOOKERS + 1);
+                insert.setString(6, kind < 7 ? "APPROVED" : kind < 9 ? "WAITING" : "REJECTED");
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == bookings - 1) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Переносит индексы bookings и items из схемы на таблицы бенчмарка.
+     */
+    private void createIndexes(boolean postgres) throws SQLException {
+        List<String> statements = Stream.concat(indexStatements("schema.sql"),
+                        indexStatements(postgres ? "schema-postgresql.sql" : "schema-h2.sql"))
+                .filter(line -> line.contains(" ON bookings ") || line.contains(" ON items "))
+                .map(line -> line.replace(";", "")
+                        .replace(" idx_", " bench_idx_")
+                        .replace(" ON bookings ", " ON bench_bookings ")
+                        .replace(" ON items ", " ON bench_items "))
+                .toList();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private Stream<String> indexStatements(String resource) {
+        try {
+            return new ClassPathResource(resource).getContentAsString(StandardCharsets.UTF_8).lines()
+                    .filter(line -> line.startsWith("CREATE INDEX"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PreparedStatement prepare(String sql, MapSqlParameterSource params) throws SQLException {
+        ParsedSql parsed = NamedParameterUtils.parseSqlStatement(sql);
+        PreparedStatement statement = connection.prepareStatement(
+                NamedParameterUtils.substituteNamedParameters(parsed, params));
+        Object[] values = NamedParameterUtils.buildValueArray(parsed, params, null);
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        return statement;
+    }
+
+    private String explain(String sql, MapSqlParameterSource params) throws SQLException {
+        try (PreparedStatement statement = prepare("EXPLAIN " + sql, params);
+             ResultSet resultSet = statement.executeQuery()) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+
+    private static List<Integer> ids(PreparedStatement statement) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
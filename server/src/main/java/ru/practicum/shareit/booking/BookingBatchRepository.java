@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * Дополнение репозитория бронирований для пакетной записи через JDBC.
+ * <p>
+ * Бронирования используют генерацию идентификаторов IDENTITY, из-за чего Hibernate
+ * не объединяет их вставку в JDBC batch и выполняет отдельный INSERT на каждую сущность.
+ * Этот фрагмент вставляет список бронирований одним пакетом.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingBatchRepositoryImpl
+ * @see BookingRepository
+ * @since 2025
+ */
+public interface BookingBatchRepository {
+
+    /**
+     * Вставляет бронирования одним JDBC batch и присваивает им сгенерированные идентификаторы.
+     * <p>
+     * У каждого бронирования должны быть заполнены период, предмет, автор и статус.
+     * Сущности не попадают в контекст персистентности.
+     * </p>
+     *
+     * @param bookings список новых бронирований без идентификаторов, не должен быть null
+     * @return тот же список бронирований с присвоенными идентификаторами и версией
+     */
+    List<Booking> insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация пакетной записи бронирований через {@link NamedParameterJdbcTemplate}.
+ * <p>
+ * Подключается к {@link BookingRepository} как фрагмент Spring Data и выполняется
+ * в транзакции вызывающего сервиса. Записанные пакетом бронирования минуют события JPA,
+ * поэтому добавляются в {@link CurrentBookingIndex} явно.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingBatchRepository
+ * @since 2025
+ */
+@RequiredArgsConstructor
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+
+    private static final String INSERT_BOOKING = "INSERT INTO bookings " +
+            "(start_date, end_date, item_id, booker_id, status, version) " +
+            "VALUES (:start, :end, :itemId, :bookerId, :status, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectProvider<CurrentBookingIndex> currentBookings;
+
+    @Override
+    public List<Booking> insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        SqlParameterSource[] parameters = bookings.stream()
+                .map(booking -> new MapSqlParameterSource()
+                        .addValue("start", booking.getStart())
+                        .addValue("end", booking.getEnd())
+                        .addValue("itemId", booking.getItem().getId())
+                        .addValue("bookerId", booking.getBooker().getId())
+                        .addValue("status", booking.getStatus().name()))
+                .toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_BOOKING, parameters, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            booking.setId(((Number) keys.get(i).values().iterator().next()).intValue());
+            booking.setVersion(0);
+            currentBookings.ifAvailable(index -> index.track(booking));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,526 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory индекс занятых периодов предметов для проверки пересечений бронирований.
+ * <p>
+ * Для каждого предмета хранит периоды активных бронирований (WAITING и APPROVED)
+ * в отсортированных по началу массивах примитивов и отвечает на вопрос
+ * «пересекается ли период [start, end) с уже существующими бронированиями» за O(log n)
+ * без обращения к базе данных.
+ * </p>
+ * <p>
+ * Индекс хранится на каждом экземпляре сервера отдельно и не видит изменений, сделанных
+ * другими экземплярами, до перечитывания периодов. Поэтому источником истины остаётся база данных:
+ * создание бронирования блокирует строку предмета и вызывает {@link #refresh(Integer)}, после чего
+ * проверка и вставка выполняются по зафиксированным данным всех экземпляров. Остальные чтения
+ * (календарь, удержания, лист ожидания) могут видеть данные не старше {@code shareit.booking.conflict-index.ttl}.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Периоды предмета загружаются лениво из {@link BookingRepository} при первом обращении, загрузка
+ *       выполняется вне блокировок карты, параллельные обращения ожидают одну загрузку</li>
+ *   <li>Загружаются только периоды, которые ещё не закончились; периоды предмета перечитываются
+ *       по истечении TTL, при этом закончившиеся периоды отбрасываются</li>
+ *   <li>Количество предметов в индексе ограничено, при переполнении вытесняются устаревшие,
+ *       а затем произвольные предметы</li>
+ *   <li>Проверка и вставка периода выполняются атомарно под монитором периодов предмета</li>
+ *   <li>Периоды, добавленные в ещё не зафиксированных транзакциях, сохраняются при перечитывании:
+ *       запрос к базе данных их не видит</li>
+ *   <li>При откате транзакции периоды предмета сбрасываются и перечитываются из базы данных</li>
+ *   <li>По {@link BookingReleasedEvent} периоды предмета сбрасываются сейчас и после завершения
+ *       транзакции, опубликовавшей событие</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingServiceImpl
+ * @see BookingRepository#findActiveIntervalsByItemId(Integer, java.util.Collection, LocalDateTime)
+ * @since 2025
+ */
+@Slf4j
+@Component
+public class BookingConflictIndex {
+
+    /**
+     * Статусы бронирований, занимающих предмет на период бронирования.
+     */
+    static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    /**
+     * Репозиторий для ленивой загрузки периодов бронирований предмета.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Время жизни загруженных периодов предмета в наносекундах.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Максимальное количество предметов в индексе.
+     */
+    private final int maxItems;
+
+    /**
+     * Периоды активных бронирований по идентификатору предмета; незавершённая загрузка
+     * представлена незавершённым {@link CompletableFuture}.
+     */
+    private final ConcurrentMap<Integer, CompletableFuture<ItemIntervals>> intervalsByItem = new ConcurrentHashMap<>();
+
+    /**
+     * Периоды, добавленные в незафиксированных транзакциях, по предмету и бронированию.
+     */
+    private final ConcurrentMap<Integer, Map<Integer, BookingInterval>> uncommitted = new ConcurrentHashMap<>();
+
+    public BookingConflictIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.conflict-index.ttl:PT1M}") Duration ttl,
+                                @Value("${shareit.booking.conflict-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Проверяет, пересекается ли период [start, end) с активными бронированиями предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param start дата и время начала периода
+     * @param end дата и время окончания периода
+     * @return true если период пересекается хотя бы с одним активным бронированием
+     */
+    public boolean overlaps(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsOf(itemId);
+        synchronized (intervals) {
+            return intervals.overlaps(toEpochMilli(start), toEpochMilli(end));
+        }
+    }
+
+    /**
+     * Возвращает свободные периоды предмета внутри окна [from, to).
+     * <p>
+     * Периоды вычисляются слиянием отсортированных по началу периодов бронирований:
+     * двоичный поиск по префиксным максимумам окончаний находит первый период,
+     * заканчивающийся после {@code from}, далее просматриваются только периоды,
+     * начинающиеся раньше {@code to}. Границы округляются до миллисекунд, как и в индексе.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param from начало окна
+     * @param to окончание окна, не включительно
+     * @return свободные периоды в порядке возрастания даты начала
+     */
+    public List<FreeInterval> freeIntervals(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = intervalsOf(itemId);
+        long[] gaps;
+        synchronized (intervals) {
+            gaps = intervals.gaps(toEpochMilli(from), toEpochMilli(to));
+        }
+        List<FreeInterval> free = new ArrayList<>(gaps.length / 2);
+        for (int i = 0; i < gaps.length; i += 2) {
+            free.add(new FreeInterval(toDateTime(gaps[i]), toDateTime(gaps[i + 1])));
+        }
+        return free;
+    }
+
+    /**
+     * Добавляет период бронирования предмета, если он не пересекается с другими.
+     * <p>
+     * Проверка и вставка выполняются атомарно. Если бронирование уже есть в индексе,
+     * его период заменяется новым, а пересечение с самим собой не учитывается.
+     * До завершения транзакции период сохраняется и при перечитывании периодов предмета.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param bookingId идентификатор бронирования
+     * @param start дата и время начала бронирования
+     * @param end дата и время окончания бронирования
+     * @return true если период добавлен, false если он пересекается с другим бронированием
+     */
+    public boolean tryAdd(Integer itemId, Integer bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsOf(itemId);
+        long startMilli = toEpochMilli(start);
+        long endMilli = toEpochMilli(end);
+        synchronized (intervals) {
+            int index = intervals.indexOf(bookingId);
+            long oldStart = index >= 0 ? intervals.starts[index] : 0;
+            long oldEnd = index >= 0 ? intervals.ends[index] : 0;
+            if (index >= 0) {
+                intervals.removeAt(index);
+            }
+            if (intervals.overlaps(startMilli, endMilli)) {
+                if (index >= 0) {
+                    intervals.insert(bookingId, oldStart, oldEnd);
+                }
+                log.debug("Период бронирования {} пересекается с бронированиями вещи {}", bookingId, itemId);
+                return false;
+            }
+            intervals.insert(bookingId, startMilli, endMilli);
+        }
+        trackUncommitted(itemId, new BookingInterval(bookingId, start, end));
+        return true;
+    }
+
+    /**
+     * Удаляет период бронирования предмета из индекса.
+     * <p>
+     * Вызывается, когда бронирование перестаёт занимать предмет (например, при отклонении).
+     * После завершения транзакции периоды предмета перечитываются: до фиксации параллельное
+     * перечитывание ещё видит бронирование активным.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param bookingId идентификатор бронирования
+     */
+    public void remove(Integer itemId, Integer bookingId) {
+        Map<Integer, BookingInterval> pending = uncommitted.get(itemId);
+        if (pending != null) {
+            pending.remove(bookingId);
+        }
+        CompletableFuture<ItemIntervals> entry = intervalsByItem.get(itemId);
+        if (entry != null && entry.isDone() && !entry.isCompletedExceptionally()) {
+            ItemIntervals intervals = entry.join();
+            synchronized (intervals) {
+                int index = intervals.indexOf(bookingId);
+                if (index >= 0) {
+                    intervals.removeAt(index);
+                }
+            }
+        }
+        invalidateAfterCompletion(itemId);
+    }
+
+    /**
+     * Перечитывает периоды предмета из базы данных.
+     * <p>
+     * Вызывается под блокировкой строки предмета перед проверкой и добавлением новых бронирований:
+     * блокировка не даёт другим экземплярам сервера изменить бронирования предмета до фиксации
+     * транзакции, поэтому перечитанные периоды точны.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     */
+    public void refresh(Integer itemId) {
+        CompletableFuture<ItemIntervals> own = new CompletableFuture<>();
+        intervalsByItem.put(itemId, own);
+        evictIfFull();
+        loadInto(itemId, own);
+    }
+
+    /**
+     * Сбрасывает периоды предмета, при следующем обращении они будут перечитаны из базы данных.
+     *
+     * @param itemId идентификатор предмета
+     */
+    public void invalidate(Integer itemId) {
+        intervalsByItem.remove(itemId);
+    }
+
+    /**
+     * Сбрасывает периоды предмета сейчас и повторно после завершения текущей транзакции.
+     * <p>
+     * Используется после массовых изменений статусов в базе данных, когда изменённые
+     * бронирования неизвестны поимённо. Повторный сброс не даёт закрепиться в индексе
+     * периодам, перечитанным параллельным запросом до фиксации транзакции.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     */
+    public void invalidateOnCompletion(Integer itemId) {
+        invalidate(itemId);
+        invalidateAfterCompletion(itemId);
+    }
+
+    /**
+     * Сбрасывает периоды предмета, период которого освободился.
+     * <p>
+     * Событие обрабатывается синхронно в транзакции, которая его опубликовала, поэтому
+     * повторный сброс выполняется после её завершения.
+     * </p>
+     *
+     * @param event событие освобождения периода предмета
+     */
+    @EventListener
+    public void onBookingReleased(BookingReleasedEvent event) {
+        invalidateOnCompletion(event.itemId());
+    }
+
+    private ItemIntervals intervalsOf(Integer itemId) {
+        while (true) {
+            CompletableFuture<ItemIntervals> entry = intervalsByItem.get(itemId);
+            if (entry == null) {
+                CompletableFuture<ItemIntervals> own = new CompletableFuture<>();
+                entry = intervalsByItem.putIfAbsent(itemId, own);
+                if (entry == null) {
+                    evictIfFull();
+                    return loadInto(itemId, own);
+                }
+            }
+            ItemIntervals intervals;
+            try {
+                intervals = entry.join();
+            } catch (CompletionException e) {
+                intervalsByItem.remove(itemId, entry);
+                continue;
+            }
+            if (!intervals.isExpired(ttlNanos)) {
+                return intervals;
+            }
+            intervalsByItem.remove(itemId, entry);
+        }
+    }
+
+    private ItemIntervals loadInto(Integer itemId, CompletableFuture<ItemIntervals> own) {
+        try {
+            ItemIntervals intervals = load(itemId);
+            own.complete(intervals);
+            return intervals;
+        } catch (RuntimeException e) {
+            intervalsByItem.remove(itemId, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ItemIntervals load(Integer itemId) {
+        List<BookingInterval> bookings = new ArrayList<>(bookingRepository.findActiveIntervalsByItemId(itemId,
+                ACTIVE_STATUSES, LocalDateTime.now()));
+        Map<Integer, BookingInterval> pending = uncommitted.get(itemId);
+        if (pending != null) {
+            Set<Integer> loaded = bookings.stream().map(BookingInterval::id).collect(Collectors.toSet());
+            pending.values().stream()
+                    .filter(booking -> !loaded.contains(booking.id()))
+                    .forEach(bookings::add);
+        }
+        log.debug("Загружены периоды бронирований вещи {} в индекс конфликтов, количество: {}", itemId, bookings.size());
+        return ItemIntervals.of(bookings);
+    }
+
+    /**
+     * Вытесняет предметы, если их больше допустимого: сначала устаревшие, затем произвольные.
+     */
+    private void evictIfFull() {
+        if (intervalsByItem.size() <= maxItems) {
+            return;
+        }
+        intervalsByItem.values().removeIf(entry -> entry.isDone()
+                && (entry.isCompletedExceptionally() || entry.join().isExpired(ttlNanos)));
+        Iterator<CompletableFuture<ItemIntervals>> iterator = intervalsByItem.values().iterator();
+        while (intervalsByItem.size() > maxItems && iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void trackUncommitted(Integer itemId, BookingInterval booking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        uncommitted.computeIfAbsent(itemId, id -> new ConcurrentHashMap<>()).put(booking.id(), booking);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                uncommitted.computeIfPresent(itemId, (id, pending) -> {
+                    pending.remove(booking.id(), booking);
+                    return pending.isEmpty() ? null : pending;
+                });
+                if (status != STATUS_COMMITTED) {
+                    invalidate(itemId);
+                }
+            }
+        });
+    }
+
+    private void invalidateAfterCompletion(Integer itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(itemId);
+            }
+        });
+    }
+
+    static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    /**
+     * Периоды бронирований одного предмета.
+     * <p>
+     * Хранятся в параллельных массивах, отсортированных по началу периода.
+     * Массив {@code maxEnds} содержит префиксный максимум окончаний, что позволяет
+     * проверять пересечение бинарным поиском даже для пересекающихся между собой периодов.
+     * Вставка и удаление выполняются за O(n).
+     * </p>
+     */
+    static final class ItemIntervals {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final long loadedAt = System.nanoTime();
+        private int size;
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private long[] starts = new long[INITIAL_CAPACITY];
+        private long[] ends = new long[INITIAL_CAPACITY];
+        private long[] maxEnds = new long[INITIAL_CAPACITY];
+
+        static ItemIntervals of(List<BookingInterval> bookings) {
+            ItemIntervals intervals = new ItemIntervals();
+            intervals.ensureCapacity(bookings.size());
+            bookings.stream()
+                    .sorted(Comparator.comparing(BookingInterval::start))
+                    .forEach(booking -> {
+                        int i = intervals.size++;
+                        intervals.ids[i] = booking.id();
+                        intervals.starts[i] = toEpochMilli(booking.start());
+                        intervals.ends[i] = toEpochMilli(booking.end());
+                    });
+            intervals.recomputeMaxEnds(0);
+            return intervals;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - loadedAt > ttlNanos;
+        }
+
+        boolean overlaps(long start, long end) {
+            int candidates = firstStartNotBefore(end);
+            return candidates > 0 && maxEnds[candidates - 1] > start;
+        }
+
+        long[] gaps(long from, long to) {
+            int first = firstMaxEndAfter(from);
+            long[] gaps = new long[2 * (size - first + 1)];
+            int count = 0;
+            long cursor = from;
+            for (int i = first; i < size && starts[i] < to; i++) {
+                if (starts[i] > cursor) {
+                    gaps[count++] = cursor;
+                    gaps[count++] = starts[i];
+                }
+                cursor = Math.max(cursor, ends[i]);
+            }
+            if (cursor < to) {
+                gaps[count++] = cursor;
+                gaps[count++] = to;
+            }
+            return Arrays.copyOf(gaps, count);
+        }
+
+        int indexOf(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void insert(int id, long start, long end) {
+            ensureCapacity(size + 1);
+            int position = firstStartNotBefore(start);
+            int tail = size - position;
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(starts, position, starts, position + 1, tail);
+            System.arraycopy(ends, position, ends, position + 1, tail);
+            ids[position] = id;
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+            recomputeMaxEnds(position);
+        }
+
+        void removeAt(int index) {
+            int tail = size - index - 1;
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(starts, index + 1, starts, index, tail);
+            System.arraycopy(ends, index + 1, ends, index, tail);
+            size--;
+            recomputeMaxEnds(index);
+        }
+
+        private int firstStartNotBefore(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int firstMaxEndAfter(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (maxEnds[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void recomputeMaxEnds(int from) {
+            long max = from > 0 ? maxEnds[from - 1] : Long.MIN_VALUE;
+            for (int i = from; i < size; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            maxEnds = Arrays.copyOf(maxEnds, newCapacity);
+        }
+    }
+}
@@ -1,11 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingTimelineDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
 import ru.practicum.shareit.util.AppHeaders;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 /**
  * REST контроллер для управления бронированиями в системе шеринга.
@@ -21,10 +38,16 @@ import java.util.List;
  * <p><b>Поддерживаемые операции:</b></p>
  * <ul>
  *   <li>Создание нового бронирования</li>
+ *   <li>Пакетное создание бронирований с частичным успехом</li>
+ *   <li>Создание повторяющегося бронирования</li>
  *   <li>Подтверждение/отклонение бронирования владельцем</li>
+ *   <li>Массовое подтверждение/отклонение бронирований владельцем</li>
  *   <li>Получение информации о конкретном бронировании</li>
  *   <li>Получение списка бронирований пользователя как арендатора</li>
  *   <li>Получение списка бронирований предметов пользователя как владельца</li>
+ *   <li>Постраничная выдача списков бронирований по позиции из заголовка {@code X-Next-Cursor}</li>
+ *   <li>Получение количества бронирований арендатора и владельца по состояниям</li>
+ *   <li>Потоковая выгрузка истории бронирований владельца в формате NDJSON</li>
  * </ul>
  *
  * @author MaksimLM17
@@ -43,6 +66,16 @@ public class BookingController {
      */
     private final BookingService bookingService;
 
+    /**
+     * Сервис повторяющихся бронирований.
+     */
+    private final RecurringBookingService recurringBookingService;
+
+    /**
+     * Сериализатор строк выгрузки бронирований.
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Создает новое бронирование.
      * <p>
@@ -75,6 +108,101 @@ public class BookingController {
     public BookingDto add(@RequestBody BookingRequestDto bookingRequestDto, @RequestHeader(AppHeaders.USER_ID) Integer userId) {
         return bookingService.add(bookingRequestDto, userId);
     }
+
+    /**
+     * Создает пакет бронирований.
+     * <p>
+     * Принимает JSON массив с данными бронирований. Корректные элементы сохраняются,
+     * для остальных возвращается ошибка, при этом сам запрос завершается успешно.
+     * Максимальный размер пакета задаётся свойством {@code shareit.booking.batch.max-size}.
+     * </p>
+     *
+     * @param bookingRequestDtos элементы пакета, не должен быть null или пустым
+     * @param userId идентификатор пользователя-арендатора из заголовка, не должен быть null
+     * @return результаты по каждому элементу в порядке запроса
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     * @throws ru.practicum.shareit.exception.BadRequestException если пакет пуст или слишком велик
+     *
+     * @apiNote <b>HTTP запрос:</b> POST /bookings/batch
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример ответа:</b>
+     * <pre>
+     * [
+     *   { "index": 0, "status": 201, "booking": { "id": 456, ... } },
+     *   { "index": 1, "status": 409, "error": "Вещь с id 123 уже забронирована на указанный период" }
+     * ]
+     * </pre>
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#addBatch(List, Integer)
+     */
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBatch(@RequestBody List<BookingRequestDto> bookingRequestDtos,
+                                                @RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return bookingService.addBatch(bookingRequestDtos, userId);
+    }
+
+    /**
+     * Создает повторяющееся бронирование.
+     * <p>
+     * Правило сохраняется один раз. Повторения, начинающиеся в пределах окна
+     * {@code shareit.booking.recurring.window}, сразу становятся бронированиями в статусе WAITING,
+     * остальные разворачиваются фоновой задачей по мере приближения окна.
+     * </p>
+     *
+     * @param recurringBookingRequestDto первый период, шаг в днях и количество повторений
+     * @param userId идентификатор пользователя-арендатора из заголовка, не должен быть null
+     * @return RecurringBookingDto созданное правило и бронирования развёрнутых повторений
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если правило некорректно
+     * @throws ru.practicum.shareit.exception.ConflictException если повторение в окне пересекается
+     *         с другим бронированием предмета
+     *
+     * @apiNote <b>HTTP запрос:</b> POST /bookings/recurring
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример тела запроса:</b>
+     * <pre>
+     * {
+     *   "itemId": 123,
+     *   "start": "2024-01-20T10:00:00",
+     *   "end": "2024-01-20T18:00:00",
+     *   "periodDays": 7,
+     *   "occurrences": 13
+     * }
+     * </pre>
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see RecurringBookingService#add(RecurringBookingRequestDto, Integer)
+     */
+    @PostMapping("/recurring")
+    public RecurringBookingDto addRecurring(@RequestBody RecurringBookingRequestDto recurringBookingRequestDto,
+                                            @RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return recurringBookingService.add(recurringBookingRequestDto, userId);
+    }
+
+    /**
+     * Возвращает повторяющиеся бронирования текущего пользователя.
+     * <p>
+     * Для каждого правила показывает, сколько повторений развёрнуто и сколько пропущено,
+     * а также начало последнего пропущенного повторения. Так автор узнаёт о повторениях,
+     * которые отображались в списке бронирований виртуально, но не стали бронированиями.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-арендатора из заголовка, не должен быть null
+     * @return список правил, начиная с последнего созданного
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/recurring
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see RecurringBookingService#getAllForBooker(Integer)
+     */
+    @GetMapping("/recurring")
+    public List<RecurringBookingDto> getRecurring(@RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return recurringBookingService.getAllForBooker(userId);
+    }
+
     /**
      * Подтверждает или отклоняет бронирование.
      * <p>
@@ -85,10 +213,13 @@ public class BookingController {
      * @param bookingId идентификатор бронирования для обработки, не должен быть null
      * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
      * @param approved true для подтверждения, false для отклонения
-     * @return BookingDto обновленное бронирование с новым статусом
+     * @param rejectOverlapping true для автоматического отклонения ожидающих бронирований,
+     *         пересекающихся с подтверждаемым, по умолчанию false
+     * @return BookingDto обновленное бронирование с новым статусом; при {@code rejectOverlapping=true}
+     *         количество отклонённых бронирований передаётся в заголовке {@code X-Rejected-Overlapping-Count}
      * @throws ru.practicum.shareit.exception.NotFoundException если бронирование не найдено
      * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является владельцем
-     *         или бронирование уже обработано
+     * @throws ru.practicum.shareit.exception.ConflictException если бронирование уже обработано
      *
      * @apiNote <b>HTTP запрос:</b> PATCH /bookings/{bookingId}?approved={true|false}
      * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
@@ -99,15 +230,85 @@ public class BookingController {
      *
      * // Отклонение бронирования
      * PATCH /bookings/456?approved=false
+     *
+     * // Подтверждение с отклонением пересекающихся ожидающих бронирований
+     * PATCH /bookings/456?approved=true&amp;rejectOverlapping=true
      * </pre>
      * @apiNote <b>HTTP статус ответа:</b> 200 OK
      *
      * @see BookingService#approve(Integer, Integer, boolean)
      */
     @PatchMapping("/{bookingId}")
-    public BookingDto approve(@PathVariable Integer bookingId, @RequestHeader(AppHeaders.USER_ID) Integer userId,
-                              @RequestParam Boolean approved) {
-        return bookingService.approve(bookingId, userId, approved);
+    public ResponseEntity<BookingDto> approve(@PathVariable Integer bookingId,
+                                              @RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                              @RequestParam Boolean approved,
+                                              @RequestParam(defaultValue = "false") boolean rejectOverlapping) {
+        if (!rejectOverlapping) {
+            return ResponseEntity.ok(bookingService.approve(bookingId, userId, approved));
+        }
+        BookingApprovalDto approval = bookingService.approve(bookingId, userId, approved, true);
+        return ResponseEntity.ok()
+                .header(AppHeaders.REJECTED_OVERLAPPING_COUNT, String.valueOf(approval.getRejectedOverlapping()))
+                .body(approval.getBooking());
+    }
+
+    /**
+     * Подтверждает или отклоняет набор бронирований.
+     * <p>
+     * Принимает JSON массив идентификаторов бронирований. Все бронирования должны относиться
+     * к предметам пользователя и находиться в статусе {@link ru.practicum.shareit.booking.Status#WAITING}.
+     * Набор обрабатывается целиком: при ошибке ни одно бронирование не изменяется.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований для обработки, не должен быть null или пустым
+     * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
+     * @param approved true для подтверждения, false для отклонения
+     * @return список обновленных бронирований
+     * @throws ru.practicum.shareit.exception.NotFoundException если хотя бы одно бронирование не найдено
+     * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является владельцем
+     * @throws ru.practicum.shareit.exception.ConflictException если хотя бы одно бронирование уже обработано
+     *
+     * @apiNote <b>HTTP запрос:</b> PATCH /bookings/bulk?approved={true|false}
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример тела запроса:</b>
+     * <pre>
+     * [456, 457, 460]
+     * </pre>
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#approveAll(List, Integer, boolean)
+     */
+    @PatchMapping("/bulk")
+    public List<BookingDto> approveAll(@RequestBody List<Integer> bookingIds,
+                                       @RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                       @RequestParam Boolean approved) {
+        return bookingService.approveAll(bookingIds, userId, approved);
+    }
+
+    /**
+     * Отменяет бронирование его автором.
+     * <p>
+     * Отменить можно ожидающее бронирование, а подтверждённое - только до даты начала.
+     * Освобождённый период сразу доступен для новых бронирований.
+     * </p>
+     *
+     * @param bookingId идентификатор отменяемого бронирования, не должен быть null
+     * @param userId идентификатор автора бронирования из заголовка, не должен быть null
+     * @return BookingDto отменённое бронирование со статусом CANCELLED
+     * @throws ru.practicum.shareit.exception.NotFoundException если бронирование не найдено
+     * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является автором бронирования
+     * @throws ru.practicum.shareit.exception.ConflictException если бронирование нельзя отменить в текущем статусе
+     *
+     * @apiNote <b>HTTP запрос:</b> PATCH /bookings/{bookingId}/cancel
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#cancel(Integer, Integer)
+     */
+    @PatchMapping("/{bookingId}/cancel")
+    public BookingDto cancel(@PathVariable Integer bookingId,
+                             @RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return bookingService.cancel(bookingId, userId);
     }
     /**
      * Возвращает бронирование по идентификатору.
@@ -159,18 +360,29 @@ public class BookingController {
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
      *
+     * <p>
+     * Список выдаётся страницами. Если следующая страница существует, её позиция
+     * возвращается в заголовке {@code X-Next-Cursor} и передаётся в параметре {@code cursor}.
+     * </p>
+     *
      * @param userId идентификатор пользователя-арендатора из заголовка, не должен быть null
      * @param state состояние для фильтрации, по умолчанию "ALL"
-     * @return список BookingDto с бронированиями пользователя
+     * @param limit размер страницы, по умолчанию {@code shareit.booking.page.default-limit}
+     * @param cursor позиция из заголовка {@code X-Next-Cursor} предыдущей страницы
+     * @return страница BookingDto с бронированиями пользователя
      * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
-     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние
+     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние,
+     *         размер страницы или позиция
      *
-     * @apiNote <b>HTTP запрос:</b> GET /bookings?state={state}
+     * @apiNote <b>HTTP запрос:</b> GET /bookings?state={state}&amp;limit={limit}&amp;cursor={cursor}
      * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
      * @apiNote <b>Поддерживаемые состояния:</b>
      * <ul>
      *   <li><b>ALL</b> - все бронирования (по умолчанию)</li>
-     *   <li><b>CURRENT</b> - текущие бронирования</li>
+     *   <li><b>CURRENT</b> - текущие бронирования. Выдаются из набора в памяти экземпляра сервера:
+     *   бронирования, созданные на других экземплярах, появляются в ответе после очередной сверки,
+     *   то есть с задержкой до одного периода {@code shareit.booking.current.reconcile-cron}
+     *   (по умолчанию одна минута)</li>
      *   <li><b>PAST</b> - завершенные бронирования</li>
      *   <li><b>FUTURE</b> - будущие бронирования</li>
      *   <li><b>WAITING</b> - ожидающие подтверждения</li>
@@ -182,15 +394,18 @@ public class BookingController {
      * GET /bookings?state=CURRENT      // текущие бронирования
      * GET /bookings?state=PAST         // завершенные бронирования
      * GET /bookings?state=FUTURE       // будущие бронирования
+     * GET /bookings?limit=50&amp;cursor=MjAyNS0wMS0yMFQxMDowMHw0NTY // следующая страница
      * </pre>
      * @apiNote <b>HTTP статус ответа:</b> 200 OK
      *
-     * @see BookingService#getAllBookingsCurrentUser(Integer, String)
+     * @see BookingService#getAllBookingsCurrentUser(Integer, String, Integer, String)
      */
     @GetMapping
-    public List<BookingDto> getAllBookingsCurrentUser(@RequestHeader(AppHeaders.USER_ID) Integer userId,
-                                                      @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsCurrentUser(userId, state.toUpperCase());
+    public ResponseEntity<List<BookingDto>> getAllBookingsCurrentUser(@RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                                                      @RequestParam(defaultValue = "ALL") String state,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getAllBookingsCurrentUser(userId, state.toUpperCase(), limit, cursor));
     }
 
     /**
@@ -200,13 +415,20 @@ public class BookingController {
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
      *
+     * <p>
+     * Список выдаётся страницами, как в {@link #getAllBookingsCurrentUser}.
+     * </p>
+     *
      * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
      * @param state состояние для фильтрации, по умолчанию "ALL"
-     * @return список BookingDto с бронированиями предметов пользователя
+     * @param limit размер страницы, по умолчанию {@code shareit.booking.page.default-limit}
+     * @param cursor позиция из заголовка {@code X-Next-Cursor} предыдущей страницы
+     * @return страница BookingDto с бронированиями предметов пользователя
      * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
-     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние
+     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние,
+     *         размер страницы или позиция
      *
-     * @apiNote <b>HTTP запрос:</b> GET /bookings/owner?state={state}
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/owner?state={state}&amp;limit={limit}&amp;cursor={cursor}
      * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
      * @apiNote <b>Поддерживаемые состояния:</b> те же, что и для {@link #getAllBookingsCurrentUser}
      * @apiNote <b>Примеры запросов:</b>
@@ -217,11 +439,152 @@ public class BookingController {
      * </pre>
      * @apiNote <b>HTTP статус ответа:</b> 200 OK
      *
-     * @see BookingService#getAllBookingsItemsUser(Integer, String)
+     * @see BookingService#getAllBookingsItemsUser(Integer, String, Integer, String)
      */
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsItemsUser(@RequestHeader(AppHeaders.USER_ID) Integer userId,
-                                                    @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsItemsUser(userId, state.toUpperCase());
+    public ResponseEntity<List<BookingDto>> getAllBookingsItemsUser(@RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getAllBookingsItemsUser(userId, state.toUpperCase(), limit, cursor));
+    }
+
+    /**
+     * Возвращает количество бронирований пользователя в каждом состоянии.
+     *
+     * @param userId идентификатор пользователя-арендатора из заголовка, не должен быть null
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/summary
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#getBookerSummary(Integer)
+     */
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookerSummary(@RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return bookingService.getBookerSummary(userId);
+    }
+
+    /**
+     * Возвращает количество бронирований предметов пользователя в каждом состоянии.
+     * <p>
+     * Заменяет шесть запросов списков {@code GET /bookings/owner?state=...}, когда нужны только счётчики.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/owner/summary
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#getOwnerSummary(Integer)
+     */
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        return bookingService.getOwnerSummary(userId);
+    }
+
+    /**
+     * Возвращает временную шкалу бронирований всех предметов пользователя за период.
+     * <p>
+     * Бронирования передаются колонками: элемент с одним индексом во всех списках
+     * описывает одно бронирование.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
+     * @param from начало окна в формате ISO
+     * @param to окончание окна в формате ISO
+     * @return BookingTimelineDto бронирования, пересекающиеся с окном
+     * @throws ru.practicum.shareit.exception.BadRequestException если окно пустое или шире допустимого
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/owner/timeline?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример ответа:</b>
+     * <pre>
+     * {
+     *   "from": "2024-01-01T00:00:00",
+     *   "to": "2024-02-01T00:00:00",
+     *   "itemIds": [3, 3, 8],
+     *   "starts": ["2024-01-05T10:00:00", "2024-01-20T10:00:00", "2024-01-07T09:00:00"],
+     *   "ends": ["2024-01-06T10:00:00", "2024-01-22T18:00:00", "2024-01-09T09:00:00"],
+     *   "statuses": ["APPROVED", "WAITING", "APPROVED"],
+     *   "bookerIds": [12, 40, 12]
+     * }
+     * </pre>
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#getOwnerTimeline(Integer, LocalDateTime, LocalDateTime)
+     */
+    @GetMapping("/owner/timeline")
+    public BookingTimelineDto getOwnerTimeline(@RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return bookingService.getOwnerTimeline(userId, from, to);
+    }
+
+    /**
+     * Выгружает всю историю бронирований предметов пользователя в формате NDJSON.
+     * <p>
+     * Каждое бронирование записывается в ответ отдельной строкой JSON сразу после чтения
+     * из базы данных, поэтому размер истории не ограничен памятью сервера.
+     * Если пользователь не найден, ответ не начинается и возвращается ошибка в формате JSON.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца из заголовка, не должен быть null
+     * @param response HTTP ответ, в который записываются строки
+     * @throws IOException если не удалось записать ответ
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /bookings/owner/export
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример ответа:</b>
+     * <pre>
+     * {"id":457,"item":{...},"start":"2024-01-25T10:00:00","end":"2024-01-27T18:00:00",...}
+     * {"id":456,"item":{...},"start":"2024-01-20T10:00:00","end":"2024-01-22T18:00:00",...}
+     * </pre>
+     * @apiNote <b>HTTP статус ответа:</b> 200 OK
+     *
+     * @see BookingService#exportOwnerBookings(Integer, java.util.function.Consumer)
+     */
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                    HttpServletResponse response) throws IOException {
+        bookingService.exportOwnerBookings(userId, booking -> writeLine(response, booking));
+        prepareExport(response);
+    }
+
+    private void writeLine(HttpServletResponse response, BookingDto booking) {
+        try {
+            prepareExport(response);
+            OutputStream out = response.getOutputStream();
+            out.write(objectMapper.writeValueAsBytes(booking));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Тип ответа задаётся только перед первой строкой: иначе ошибка до начала выгрузки
+    // не сможет быть записана в формате JSON.
+    private void prepareExport(HttpServletResponse response) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(AppHeaders.NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
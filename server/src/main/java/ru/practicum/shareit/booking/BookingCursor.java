@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, упорядоченном по (start_date, id) в порядке убывания.
+ * <p>
+ * Следующая страница начинается с первого бронирования строго после позиции, поэтому
+ * запрос страницы читает по индексу только строки самой страницы, независимо от её номера.
+ * Клиенту позиция передаётся в непрозрачном виде, см. {@link #encode()}.
+ * </p>
+ *
+ * @param start дата и время начала последнего бронирования страницы
+ * @param key идентификатор последнего бронирования страницы; для виртуального повторения
+ *            повторяющегося бронирования - идентификатор правила со знаком минус
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)
+ * @see BookingServiceImpl#getAllBookingsItemsUser(Integer, String, Integer, String)
+ * @since 2025
+ */
+public record BookingCursor(LocalDateTime start, int key) {
+
+    /**
+     * Позиция перед первой страницей, предшествующая любому бронированию.
+     */
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Integer.MAX_VALUE);
+
+    /**
+     * Проверяет, находится ли элемент списка после позиции.
+     *
+     * @param elementStart дата и время начала элемента
+     * @param elementKey ключ элемента
+     * @return true, если элемент относится к следующим страницам
+     */
+    public boolean precedes(LocalDateTime elementStart, int elementKey) {
+        int byStart = elementStart.compareTo(start);
+        return byStart < 0 || byStart == 0 && elementKey < key;
+    }
+
+    /**
+     * Кодирует позицию для передачи клиенту.
+     *
+     * @return позиция в виде строки Base64 URL без дополнения
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "|" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает позицию из строки, полученной от клиента.
+     *
+     * @param cursor позиция, выданная {@link #encode()}, или null для первой страницы
+     * @return позиция
+     * @throws BadRequestException если строка не является позицией списка бронирований
+     */
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new BadRequestException("Некорректная позиция списка бронирований: " + cursor);
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректная позиция списка бронирований: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Облегчённое представление просроченного ожидающего бронирования.
+ * <p>
+ * Содержит идентификатор бронирования, идентификатор предмета для сброса индекса конфликтов
+ * и дату начала, которая вместе с идентификатором служит ключом постраничного обхода.
+ * </p>
+ *
+ * @param id идентификатор бронирования
+ * @param itemId идентификатор бронируемого предмета
+ * @param start дата и время начала бронирования
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#findWaitingStartedBefore(LocalDateTime, LocalDateTime, Integer, org.springframework.data.domain.Limit)
+ * @since 2025
+ */
+public record BookingExpiryCandidate(Integer id, Integer itemId, LocalDateTime start) {
+}
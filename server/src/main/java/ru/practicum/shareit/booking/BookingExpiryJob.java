@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Фоновое отклонение ожидающих бронирований, начало которых уже наступило.
+ * <p>
+ * Бронирование, которое владелец не подтвердил до даты начала, уже не может состояться,
+ * но без очистки остаётся в статусе WAITING и попадает в выборки ожидающих бронирований.
+ * Задача переводит такие бронирования в статус REJECTED.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Бронирования обходятся порциями по ключу (start_date, id) без OFFSET</li>
+ *   <li>Каждая порция отклоняется в отдельной короткой транзакции, поэтому блокировки строк
+ *       {@code bookings} удерживаются не дольше обработки одной порции</li>
+ *   <li>Перед отклонением бронирования порции захватываются {@code SELECT ... FOR UPDATE SKIP LOCKED}:
+ *       при запуске на нескольких экземплярах сервера каждое бронирование отклоняет только
+ *       захвативший его экземпляр, строки, занятые другим экземпляром, пропускаются</li>
+ *   <li>UPDATE повторно проверяет статус, бронирования, подтверждённые после выборки, не изменяются</li>
+ *   <li>Для каждого предмета захваченных бронирований публикуется {@link BookingReleasedEvent},
+ *       по которому {@link BookingConflictIndex} сбрасывает периоды предмета. Индексы других
+ *       экземпляров сверяются с базой данных под блокировкой строки предмета при следующем
+ *       бронировании и по истечении TTL</li>
+ *   <li>Количество отклонённых бронирований и длительность запуска публикуются в метриках</li>
+ * </ul>
+ *
+ * <p><b>Настройки:</b></p>
+ * <ul>
+ *   <li>{@code shareit.booking.expiry.cron} - расписание запуска, значение {@code -} отключает задачу</li>
+ *   <li>{@code shareit.booking.expiry.chunk-size} - размер порции</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#findWaitingStartedBefore(LocalDateTime, LocalDateTime, Integer, Limit)
+ * @see BookingRepository#lockWaitingStartedBefore(java.util.Collection, LocalDateTime)
+ * @see BookingRepository#rejectWaitingStartedBefore(java.util.Collection, LocalDateTime)
+ * @since 2025
+ */
+@Slf4j
+@Component
+public class BookingExpiryJob {
+
+    /**
+     * Начальная позиция обхода, предшествующая любому бронированию.
+     */
+    private static final LocalDateTime KEYSET_ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter rejectedCounter;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным: " + chunkSize);
+        }
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.rejectedCounter = Counter.builder("shareit.booking.expiry.rejected")
+                .description("Ожидающие бронирования, отклонённые после наступления даты начала")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("shareit.booking.expiry.rows.per.run")
+                .description("Количество бронирований, отклонённых за один запуск")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.expiry.duration")
+                .description("Длительность запуска отклонения просроченных бронирований")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отклоняет все ожидающие бронирования, начало которых наступило до момента запуска.
+     *
+     * @return количество отклонённых бронирований
+     */
+    @Scheduled(cron = "${shareit.booking.expiry.cron:0 */5 * * * *}")
+    public int expireStale() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime afterStart = KEYSET_ORIGIN;
+            Integer afterId = 0;
+            int rejected = 0;
+            int chunks = 0;
+            List<BookingExpiryCandidate> chunk;
+            do {
+                chunk = bookingRepository.findWaitingStartedBefore(now, afterStart, afterId, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                rejected += rejectChunk(chunk, now);
+                chunks++;
+                BookingExpiryCandidate last = chunk.getLast();
+                afterStart = last.start();
+                afterId = last.id();
+            } while (chunk.size() == chunkSize);
+            rejectedCounter.increment(rejected);
+            rowsPerRun.record(rejected);
+            if (rejected > 0) {
+                log.info("Отклонено просроченных ожидающих бронирований: {}, порций: {}", rejected, chunks);
+            }
+            return rejected;
+        });
+    }
+
+    private int rejectChunk(List<BookingExpiryCandidate> chunk, LocalDateTime now) {
+        Integer rejected = transactionTemplate.execute(status -> {
+            Set<Integer> claimed = new HashSet<>(bookingRepository.lockWaitingStartedBefore(
+                    chunk.stream().map(BookingExpiryCandidate::id).toList(), now));
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            int updated = bookingRepository.rejectWaitingStartedBefore(claimed, now);
+            chunk.stream()
+                    .filter(candidate -> claimed.contains(candidate.id()))
+                    .map(BookingExpiryCandidate::itemId)
+                    .distinct()
+                    .forEach(itemId -> eventPublisher.publishEvent(new BookingReleasedEvent(itemId)));
+            return updated;
+        });
+        log.debug("Отклонена порция просроченных бронирований: {} из {}", rejected, chunk.size());
+        return rejected == null ? 0 : rejected;
+    }
+}
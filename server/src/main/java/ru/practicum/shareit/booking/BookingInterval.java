@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Облегчённое представление бронирования для индекса конфликтов.
+ * <p>
+ * Содержит только идентификатор и границы периода бронирования,
+ * без загрузки связанных сущностей предмета и пользователя.
+ * </p>
+ *
+ * @param id идентификатор бронирования
+ * @param start дата и время начала бронирования
+ * @param end дата и время окончания бронирования
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingConflictIndex
+ * @see BookingRepository#findActiveIntervalsByItemId(Integer, java.util.Collection, LocalDateTime)
+ * @since 2025
+ */
+public record BookingInterval(Integer id, LocalDateTime start, LocalDateTime end) {
+}
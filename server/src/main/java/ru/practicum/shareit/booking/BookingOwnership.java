@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Облегчённое представление бронирования для проверки прав владельца.
+ * <p>
+ * Содержит идентификатор бронирования, идентификатор владельца предмета и статус,
+ * чтобы проверить набор бронирований одним запросом без загрузки сущностей.
+ * </p>
+ *
+ * @param id идентификатор бронирования
+ * @param ownerId идентификатор владельца бронируемого предмета
+ * @param status текущий статус бронирования
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#findOwnershipByIdIn(java.util.Collection)
+ * @since 2025
+ */
+public record BookingOwnership(Integer id, Integer ownerId, Status status) {
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Событие освобождения периода предмета.
+ * <p>
+ * Публикуется, когда бронирование перестаёт занимать предмет: при отклонении владельцем,
+ * отмене автором или автоматическом отклонении просроченного ожидающего бронирования.
+ * Индекс конфликтов сбрасывает периоды предмета при публикации события, лист ожидания
+ * получает событие после фиксации транзакции, изменившей статус.
+ * </p>
+ *
+ * @param itemId идентификатор предмета, период которого освободился
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingConflictIndex#onBookingReleased(BookingReleasedEvent)
+ * @see ru.practicum.shareit.waitlist.WaitlistServiceImpl#onBookingReleased(BookingReleasedEvent)
+ * @since 2025
+ */
+public record BookingReleasedEvent(Integer itemId) {
+}
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.CommentRequestDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 /**
  * Репозиторий для работы с сущностями бронирований в базе данных.
  * <p>
@@ -20,84 +28,401 @@ import java.util.List;
  * <p><b>Особенности реализации:</b></p>
  * <ul>
  *   <li>Использует JPQL запросы для сложных операций фильтрации</li>
- *   <li>Поддерживает все состояния бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)</li>
+ *   <li>Поддерживает все состояния бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED),
+ *       каждое состояние выбирается отдельным запросом по своему индексу</li>
  *   <li>Обеспечивает оптимизированные запросы для работы с временными интервалами</li>
  *   <li>Предоставляет методы для проверки возможности оставления комментариев</li>
+ *   <li>Поддерживает пакетную вставку бронирований через {@link BookingBatchRepository}</li>
+ *   <li>Запросы списков бронирований выбирают {@link BookingView} конструкторным выражением:
+ *       только нужные {@code BookingDto} столбцы, без управляемых сущностей</li>
+ *   <li>Остальные запросы, результат которых преобразуется в {@code BookingDto}, загружают предмет
+ *       и автора бронирования через JOIN FETCH: иначе каждая строка порождает ещё два SELECT
+ *       ленивых связей</li>
  * </ul>
  *
  * @author MaksimLM17
  * @version 1.0
  * @see Booking
+ * @see BookingView
  * @see Status
  * @see JpaRepository
+ * @see BookingBatchRepository
  * @see BookingServiceImpl
  * @since 2025
  */
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingBatchRepository {
 
     /**
-     * Находит все бронирования пользователя с фильтрацией по состоянию.
+     * Агрегаты состояний CURRENT, PAST, FUTURE, WAITING и REJECTED для запросов сводки.
      * <p>
-     * Используется для получения списка бронирований, где пользователь является арендатором.
-     * Результаты сортируются по дате начала в порядке убывания (последние бронирования first).
+     * Параметр {@code :now} приводится к типу явно: в списке выборки Hibernate не выводит
+     * тип параметра из сравнения и для H2 формирует приведение без точности.
+     * </p>
+     */
+    String STATE_FILTERS = "COUNT(b) FILTER (WHERE b.start <= CAST(:now AS LocalDateTime) " +
+            "AND b.end >= CAST(:now AS LocalDateTime)), " +
+            "COUNT(b) FILTER (WHERE b.end < CAST(:now AS LocalDateTime)), " +
+            "COUNT(b) FILTER (WHERE b.start > CAST(:now AS LocalDateTime)), " +
+            "COUNT(b) FILTER (WHERE b.status = 'WAITING'), " +
+            "COUNT(b) FILTER (WHERE b.status = 'REJECTED')";
+
+    /**
+     * Находит все бронирования пользователя-арендатора (состояние ALL).
+     * <p>
+     * Запросы по состояниям разделены, чтобы каждый из них мог использовать свой индекс:
+     * условие вида {@code :state = 'ALL' OR ...} не позволяет планировщику выбрать индекс
+     * и приводит к чтению всех бронирований пользователя. Все запросы по состояниям
+     * сортируют результат по (start_date, id) в порядке убывания и возвращают страницу
+     * бронирований строго после позиции (afterStart, afterId), поэтому время запроса
+     * не зависит от номера страницы.
      * </p>
      *
      * @param userId идентификатор пользователя-арендатора, не должен быть null
-     * @param state состояние для фильтрации, не должен быть null
-     * @return список бронирований пользователя, удовлетворяющих условиям фильтрации
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return список бронирований пользователя
      *
-     * @apiNote <b>Поддерживаемые состояния:</b>
-     * <ul>
-     *   <li><b>ALL</b> - все бронирования пользователя</li>
-     *   <li><b>CURRENT</b> - текущие бронирования (начались, но еще не закончились)</li>
-     *   <li><b>PAST</b> - завершенные бронирования</li>
-     *   <li><b>FUTURE</b> - будущие бронирования</li>
-     *   <li><b>WAITING</b> - ожидающие подтверждения</li>
-     *   <li><b>REJECTED</b> - отклоненные бронирования</li>
-     * </ul>
-     * @see BookingServiceImpl#getAllBookingsCurrentUser(Integer, String)
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_booker_start (booker_id, start_date, id)}
+     * @see BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)
      */
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :userId " +
-            "AND (:state = 'ALL' OR " +
-            "(:state = 'CURRENT' AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP) OR " +
-            "(:state = 'PAST' AND b.end < CURRENT_TIMESTAMP) OR " +
-            "(:state = 'FUTURE' AND b.start > CURRENT_TIMESTAMP) OR " +
-            "(:state = 'WAITING' AND b.status = 'WAITING') OR " +
-            "(:state = 'REJECTED' AND b.status = 'REJECTED')) " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllBookingsByUserId(@Param("userId") Integer userId, @Param("state") String state);
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE u.id = :userId " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findAllByBookerId(@Param("userId") Integer userId,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") Integer afterId,
+                                        Limit limit);
+
+    /**
+     * Находит ключи бронирований, которые не закончились к моменту {@code now}
+     * и начинаются не позже {@code horizon}.
+     * <p>
+     * Используется для сверки набора текущих бронирований {@link CurrentBookingIndex}.
+     * </p>
+     *
+     * @param now момент сверки
+     * @param horizon окончание окна упреждения
+     * @return ключи текущих и скоро начинающихся бронирований
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_end_start (end_date, start_date)}
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.CurrentBookingKey(b.id, b.start, b.end, b.booker.id, " +
+            "i.owner.id) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE b.end >= :now " +
+            "AND b.start <= :horizon")
+    List<CurrentBookingKey> findCurrentKeys(@Param("now") LocalDateTime now,
+                                            @Param("horizon") LocalDateTime horizon);
+
+    /**
+     * Находит завершенные бронирования пользователя-арендатора (состояние PAST).
+     *
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @param now момент времени, относительно которого определяется состояние
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования, закончившиеся раньше указанного момента
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_booker_start (booker_id, start_date, id)},
+     * условие на окончание проверяется при обходе индекса
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE u.id = :userId " +
+            "AND b.end < :now " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findPastByBookerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now,
+                                         @Param("afterStart") LocalDateTime afterStart,
+                                         @Param("afterId") Integer afterId,
+                                         Limit limit);
+
+    /**
+     * Находит будущие бронирования пользователя-арендатора (состояние FUTURE).
+     *
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @param now момент времени, относительно которого определяется состояние
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования, начинающиеся позже указанного момента
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_booker_start (booker_id, start_date, id)}
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE u.id = :userId " +
+            "AND b.start > :now " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findFutureByBookerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now,
+                                           @Param("afterStart") LocalDateTime afterStart,
+                                           @Param("afterId") Integer afterId,
+                                           Limit limit);
+
+    /**
+     * Находит бронирования пользователя-арендатора в указанном статусе (состояния WAITING и REJECTED).
+     *
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @param status статус бронирования
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования пользователя в указанном статусе
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_booker_start (booker_id, start_date, id)},
+     * статус проверяется при обходе индекса
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE u.id = :userId " +
+            "AND b.status = :status " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByBookerIdAndStatus(@Param("userId") Integer userId, @Param("status") Status status,
+                                              @Param("afterStart") LocalDateTime afterStart,
+                                              @Param("afterId") Integer afterId,
+                                              Limit limit);
+
     /**
-     * Находит все бронирования предметов пользователя с фильтрацией по состоянию.
+     * Находит все бронирования предметов пользователя-владельца (состояние ALL).
      * <p>
-     * Используется для получения списка бронирований, где пользователь является владельцем предметов.
-     * Результаты сортируются по дате начала в порядке убывания.
+     * Предметы владельца находятся по индексу {@code idx_items_owner}, бронирования каждого предмета -
+     * по индексам с ведущим столбцом {@code item_id}. Как и для арендатора, на каждое состояние
+     * приходится отдельный запрос, результат сортируется по дате начала в порядке убывания.
      * </p>
      *
      * @param userId идентификатор пользователя-владельца, не должен быть null
-     * @param state состояние для фильтрации, не должен быть null
-     * @return список бронирований предметов пользователя, удовлетворяющих условиям фильтрации
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return список бронирований предметов пользователя
      *
-     * @apiNote <b>Особенности запроса:</b>
-     * <ul>
-     *   <li>Использует JOIN с таблицей items для фильтрации по владельцу</li>
-     *   <li>Возвращает бронирования всех предметов, принадлежащих пользователю</li>
-     *   <li>Поддерживает те же состояния, что и {@link #getAllBookingsByUserId}</li>
-     * </ul>
-     * @see BookingServiceImpl#getAllBookingsItemsUser(Integer, String)
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     * @see BookingServiceImpl#getAllBookingsItemsUser(Integer, String, Integer, String)
      */
-    @Query("SELECT b FROM Booking b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE i.owner.id = :userId " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findAllByOwnerId(@Param("userId") Integer userId,
+                                       @Param("afterStart") LocalDateTime afterStart,
+                                       @Param("afterId") Integer afterId,
+                                       Limit limit);
+
+    /**
+     * Находит бронирования по идентификаторам для страницы текущих бронирований.
+     *
+     * @param ids идентификаторы бронирований
+     * @return найденные бронирования в порядке убывания (start_date, id)
+     *
+     * @apiNote <b>Индекс:</b> первичный ключ {@code bookings}
+     * @see CurrentBookingIndex#findByBooker(Integer, LocalDateTime, BookingCursor, int)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE b.id IN :ids " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Находит завершенные бронирования предметов пользователя-владельца (состояние PAST).
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param now момент времени, относительно которого определяется состояние
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования, закончившиеся раньше указанного момента
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE i.owner.id = :userId " +
+            "AND b.end < :now " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findPastByOwnerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") Integer afterId,
+                                        Limit limit);
+
+    /**
+     * Находит будущие бронирования предметов пользователя-владельца (состояние FUTURE).
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param now момент времени, относительно которого определяется состояние
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования, начинающиеся позже указанного момента
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE i.owner.id = :userId " +
+            "AND b.start > :now " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findFutureByOwnerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now,
+                                          @Param("afterStart") LocalDateTime afterStart,
+                                          @Param("afterId") Integer afterId,
+                                          Limit limit);
+
+    /**
+     * Находит бронирования предметов пользователя-владельца в указанном статусе
+     * (состояния WAITING и REJECTED).
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param status статус бронирования
+     * @param afterStart дата начала последнего бронирования предыдущей страницы
+     * @param afterId идентификатор последнего бронирования предыдущей страницы
+     * @param limit максимальное количество бронирований
+     * @return бронирования предметов пользователя в указанном статусе
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE i.owner.id = :userId " +
+            "AND b.status = :status " +
+            "AND (b.start, b.id) < (:afterStart, :afterId) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findByOwnerIdAndStatus(@Param("userId") Integer userId, @Param("status") Status status,
+                                             @Param("afterStart") LocalDateTime afterStart,
+                                             @Param("afterId") Integer afterId,
+                                             Limit limit);
+
+    /**
+     * Выбирает все бронирования предметов пользователя-владельца для выгрузки истории.
+     * <p>
+     * Строки читаются курсором порциями по 500 и не накапливаются в контексте персистентности,
+     * поэтому память не зависит от размера истории. Поток нужно закрыть и прочитать
+     * внутри транзакции: PostgreSQL держит курсор на стороне сервера только при выключенном
+     * автокоммите.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @return поток бронирований предметов пользователя в порядке убывания даты начала
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     * @see BookingServiceImpl#exportOwnerBookings(Integer, java.util.function.Consumer)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE i.owner.id = :userId " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingView> streamAllByOwnerId(@Param("userId") Integer userId);
+
+    /**
+     * Находит бронирования всех предметов пользователя-владельца, пересекающиеся с окном.
+     * <p>
+     * Бронирование попадает в окно, если начинается раньше {@code to} и заканчивается
+     * позже {@code from}. Выбираются только столбцы временной шкалы.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param from начало окна
+     * @param to окончание окна
+     * @return строки временной шкалы в порядке (item_id, start_date, id)
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}:
+     * условие на окончание проверяется по индексу без чтения строк
+     * @see BookingServiceImpl#getOwnerTimeline(Integer, LocalDateTime, LocalDateTime)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingTimelineRow(i.id, b.start, b.end, b.status, " +
+            "b.booker.id) " +
+            "FROM Booking b " +
             "JOIN b.item i " +
             "WHERE i.owner.id = :userId " +
-            "AND (:state = 'ALL' OR " +
-            "(:state = 'CURRENT' AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP) OR " +
-            "(:state = 'PAST' AND b.end < CURRENT_TIMESTAMP) OR " +
-            "(:state = 'FUTURE' AND b.start > CURRENT_TIMESTAMP) OR " +
-            "(:state = 'WAITING' AND b.status = 'WAITING') OR " +
-            "(:state = 'REJECTED' AND b.status = 'REJECTED')) " +
-            "ORDER BY b.start DESC")
-    List<Booking> getAllBookingsItemsUser(@Param("userId") Integer userId, @Param("state") String state);
+            "AND b.start < :to " +
+            "AND b.end > :from " +
+            "ORDER BY i.id, b.start, b.id")
+    List<BookingTimelineRow> findTimelineByOwnerId(@Param("userId") Integer userId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    /**
+     * Подсчитывает бронирования пользователя-арендатора во всех состояниях одним запросом.
+     * <p>
+     * Условия состояний совпадают с условиями запросов списков, поэтому каждое значение
+     * равно длине соответствующего списка без учёта постраничной выдачи.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @param now момент времени, относительно которого определяются состояния
+     * @return количество бронирований в каждом состоянии
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * SELECT COUNT(*),
+     *        COUNT(*) FILTER (WHERE start_date &lt;= :now AND end_date &gt;= :now),
+     *        COUNT(*) FILTER (WHERE end_date &lt; :now), ...
+     * FROM bookings WHERE booker_id = :userId
+     * </pre>
+     * @see BookingServiceImpl#getBookerSummary(Integer)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingStateCounts(COUNT(b), " + STATE_FILTERS + ") " +
+            "FROM Booking b " +
+            "WHERE b.booker.id = :userId")
+    BookingStateCounts countStatesByBookerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Подсчитывает бронирования предметов пользователя-владельца во всех состояниях одним запросом.
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param now момент времени, относительно которого определяются состояния
+     * @return количество бронирований в каждом состоянии
+     *
+     * @see #countStatesByBookerId(Integer, LocalDateTime)
+     * @see BookingServiceImpl#getOwnerSummary(Integer)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingStateCounts(COUNT(b), " + STATE_FILTERS + ") " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = :userId")
+    BookingStateCounts countStatesByOwnerId(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+
     /**
      * Находит последнее завершенное бронирование для указанного предмета.
      * <p>
@@ -128,9 +453,13 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
      * }
      * </pre>
      *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_status_end (item_id, status, end_date)}
+     *
      * @see ru.practicum.shareit.item.ItemServiceImpl#getById(Integer, Integer)
      */
     @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
             "WHERE b.item.id = :itemId " +
             "AND b.status = :status " +
             "AND b.end < :currentTime " +
@@ -169,9 +498,13 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
      * }
      * </pre>
      *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_start (item_id, start_date, id, end_date)}
+     *
      * @see ru.practicum.shareit.item.ItemServiceImpl#getById(Integer, Integer)
      */
     @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
             "WHERE b.item.id = :itemId " +
             "AND b.status = :status " +
             "AND b.start > :currentTime " +
@@ -213,6 +546,8 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
      * }
      * </pre>
      *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_status_end (item_id, status, end_date)}
+     *
      * @see ru.practicum.shareit.item.ItemServiceImpl#createComment(CommentRequestDto, Integer, Integer)
      * */
     @Query("SELECT COUNT(b) > 0 FROM Booking b " +
@@ -225,4 +560,303 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             @Param("itemId") Integer itemId,
             @Param("status") Status status,
             @Param("currentTime") LocalDateTime currentTime);
-}
\ No newline at end of file
+
+    /**
+     * Находит периоды незакончившихся бронирований предмета с указанными статусами.
+     * <p>
+     * Используется для ленивой загрузки индекса конфликтов бронирований.
+     * Возвращает только идентификатор и границы периода, без загрузки сущностей.
+     * Закончившиеся бронирования не могут пересечься с новыми и в индекс не загружаются.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param statuses статусы, занимающие предмет (обычно WAITING и APPROVED)
+     * @param now текущий момент
+     * @return список периодов бронирований предмета, заканчивающихся позже {@code now}
+     *
+     * @see BookingConflictIndex
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingInterval(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.end > :now")
+    List<BookingInterval> findActiveIntervalsByItemId(@Param("itemId") Integer itemId,
+                                                      @Param("statuses") Collection<Status> statuses,
+                                                      @Param("now") LocalDateTime now);
+
+    /**
+     * Меняет статус ожидающего бронирования, если пользователь является владельцем предмета.
+     * <p>
+     * Проверка статуса, проверка прав владельца и изменение выполняются одним условным UPDATE,
+     * поэтому из двух параллельных подтверждений/отклонений одного бронирования успешно
+     * только первое. Версия бронирования увеличивается для согласованности с оптимистической блокировкой.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования, не должен быть null
+     * @param ownerId идентификатор предполагаемого владельца предмета, не должен быть null
+     * @param status новый статус бронирования (APPROVED или REJECTED)
+     * @return количество изменённых строк: 1 при успехе, 0 если бронирование не найдено,
+     *         пользователь не владелец или бронирование уже обработано
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * UPDATE bookings SET status = :status, version = version + 1
+     * WHERE id = :bookingId AND status = 'WAITING'
+     *   AND item_id IN (SELECT item_id FROM items WHERE owner_id = :ownerId)
+     * </pre>
+     *
+     * @see BookingServiceImpl#approve(Integer, Integer, boolean)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("bookingId") Integer bookingId,
+                              @Param("ownerId") Integer ownerId,
+                              @Param("status") Status status);
+
+    /**
+     * Находит бронирование, доступное пользователю, одним запросом.
+     * <p>
+     * Права доступа проверяются в условии запроса: бронирование возвращается, только если
+     * пользователь является его автором или владельцем предмета. Пустой результат не
+     * различает отсутствующее бронирование и чужое, причину выясняет вызывающий код.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования, не должен быть null
+     * @param userId идентификатор пользователя, запрашивающего бронирование
+     * @return Optional с бронированием, если оно найдено и доступно пользователю
+     *
+     * @apiNote <b>Индекс:</b> первичный ключ {@code bookings}
+     * @see BookingServiceImpl#getById(Integer, Integer)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, u.id, u.name, u.email) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "JOIN b.booker u " +
+            "WHERE b.id = :bookingId " +
+            "AND (u.id = :userId OR i.owner.id = :userId)")
+    Optional<BookingView> findViewByIdAndParticipant(@Param("bookingId") Integer bookingId,
+                                                     @Param("userId") Integer userId);
+
+    /**
+     * Находит бронирование вместе с предметом и автором бронирования одним запросом.
+     *
+     * @param bookingId идентификатор бронирования, не должен быть null
+     * @return Optional с бронированием, если оно найдено
+     */
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(@Param("bookingId") Integer bookingId);
+
+    /**
+     * Возвращает владельцев предметов и статусы для набора бронирований одним запросом.
+     *
+     * @param bookingIds идентификаторы бронирований, не должен быть null
+     * @return проекции найденных бронирований, отсутствующие идентификаторы не возвращаются
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * SELECT b.id, i.owner_id, b.status FROM bookings b
+     * JOIN items i ON i.item_id = b.item_id
+     * WHERE b.id IN (:bookingIds)
+     * </pre>
+     *
+     * @see BookingServiceImpl#approveAll(List, Integer, boolean)
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingOwnership(b.id, i.owner.id, b.status) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE b.id IN :bookingIds")
+    List<BookingOwnership> findOwnershipByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    /**
+     * Меняет статус набора ожидающих бронирований предметов владельца одним UPDATE.
+     * <p>
+     * Условия совпадают с {@link #updateStatusIfWaiting(Integer, Integer, Status)}:
+     * изменяются только бронирования в статусе WAITING на предметы указанного владельца.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований, не должен быть null
+     * @param ownerId идентификатор владельца предметов, не должен быть null
+     * @param status новый статус бронирований (APPROVED или REJECTED)
+     * @return количество изменённых строк
+     *
+     * @see BookingServiceImpl#approveAll(List, Integer, boolean)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("bookingIds") Collection<Integer> bookingIds,
+                              @Param("ownerId") Integer ownerId,
+                              @Param("status") Status status);
+
+    /**
+     * Находит бронирования вместе с предметами и авторами бронирований одним запросом.
+     *
+     * @param bookingIds идентификаторы бронирований, не должен быть null
+     * @return список бронирований, отсортированный по идентификатору
+     */
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN :bookingIds " +
+            "ORDER BY b.id")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    /**
+     * Отклоняет ожидающие бронирования предмета, пересекающиеся с указанным периодом, одним UPDATE.
+     * <p>
+     * Периоды считаются полуинтервалами [start, end). Бронирование с идентификатором
+     * {@code bookingId} не изменяется. Запрос обслуживается индексом
+     * {@code idx_bookings_item_status_end (item_id, status, end_date)}.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param bookingId идентификатор подтверждённого бронирования, не должен быть null
+     * @param start дата и время начала подтверждённого периода
+     * @param end дата и время окончания подтверждённого периода
+     * @return количество отклонённых бронирований
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * UPDATE bookings SET status = 'REJECTED', version = version + 1
+     * WHERE item_id = :itemId AND status = 'WAITING' AND id &lt;&gt; :bookingId
+     *   AND start_date &lt; :end AND end_date &gt; :start
+     * </pre>
+     *
+     * @see BookingServiceImpl#approve(Integer, Integer, boolean, boolean)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'REJECTED', b.version = b.version + 1 " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status = 'WAITING' " +
+            "AND b.id <> :bookingId " +
+            "AND b.start < :end " +
+            "AND b.end > :start")
+    int rejectOverlappingWaiting(@Param("itemId") Integer itemId,
+                                 @Param("bookingId") Integer bookingId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    /**
+     * Отменяет бронирование, если пользователь является его автором и бронирование ещё можно отменить.
+     * <p>
+     * Отменить можно ожидающее бронирование, а подтверждённое - только до даты начала.
+     * Проверка статуса, даты начала и прав автора выполняются одним условным UPDATE,
+     * поэтому отмена не может перезаписать параллельное подтверждение или отклонение.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования, не должен быть null
+     * @param bookerId идентификатор предполагаемого автора бронирования, не должен быть null
+     * @param now текущий момент времени для проверки начала подтверждённого бронирования
+     * @return количество изменённых строк: 1 при успехе, 0 если бронирование не найдено,
+     *         пользователь не автор или бронирование нельзя отменить
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * UPDATE bookings SET status = 'CANCELLED', version = version + 1
+     * WHERE id = :bookingId AND booker_id = :bookerId
+     *   AND (status = 'WAITING' OR (status = 'APPROVED' AND start_date &gt; :now))
+     * </pre>
+     *
+     * @see BookingServiceImpl#cancel(Integer, Integer)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'CANCELLED', b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.booker.id = :bookerId " +
+            "AND (b.status = 'WAITING' OR (b.status = 'APPROVED' AND b.start > :now))")
+    int cancelIfActive(@Param("bookingId") Integer bookingId,
+                       @Param("bookerId") Integer bookerId,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Находит порцию ожидающих бронирований, начало которых уже наступило.
+     * <p>
+     * Обход выполняется по ключу (start_date, id) начиная строго после переданной позиции,
+     * поэтому каждая следующая порция читается с индекса
+     * {@code idx_bookings_status_start (status, start_date, id)} из {@code schema-h2.sql} без OFFSET. В PostgreSQL
+     * вместо него используется частичный индекс
+     * {@code idx_bookings_waiting_start (start_date, id) WHERE status = 'WAITING'}, содержащий
+     * только ожидающие бронирования.
+     * </p>
+     *
+     * @param now момент времени, до которого бронирование считается просроченным
+     * @param afterStart дата начала последнего бронирования предыдущей порции
+     * @param afterId идентификатор последнего бронирования предыдущей порции
+     * @param limit максимальный размер порции
+     * @return порция бронирований, отсортированная по дате начала и идентификатору
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * SELECT id, item_id, start_date FROM bookings
+     * WHERE status = 'WAITING' AND start_date &lt; :now
+     *   AND (start_date &gt; :afterStart OR (start_date = :afterStart AND id &gt; :afterId))
+     * ORDER BY start_date, id LIMIT :limit
+     * </pre>
+     *
+     * @see BookingExpiryJob
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.BookingExpiryCandidate(b.id, b.item.id, b.start) " +
+            "FROM Booking b " +
+            "WHERE b.status = 'WAITING' " +
+            "AND b.start < :now " +
+            "AND (b.start > :afterStart OR (b.start = :afterStart AND b.id > :afterId)) " +
+            "ORDER BY b.start, b.id")
+    List<BookingExpiryCandidate> findWaitingStartedBefore(@Param("now") LocalDateTime now,
+                                                          @Param("afterStart") LocalDateTime afterStart,
+                                                          @Param("afterId") Integer afterId,
+                                                          Limit limit);
+
+    /**
+     * Захватывает ожидающие бронирования из набора, начало которых уже наступило, блокировкой строк.
+     * <p>
+     * Строки, уже заблокированные другой транзакцией, пропускаются без ожидания, поэтому
+     * задачи отклонения на нескольких экземплярах сервера делят порцию между собой:
+     * каждое бронирование захватывает и отклоняет ровно один экземпляр.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований порции, не должен быть null
+     * @param now момент времени, до которого бронирование считается просроченным
+     * @return идентификаторы захваченных бронирований
+     *
+     * @apiNote Должен вызываться в транзакции, блокировки удерживаются до её завершения.
+     *
+     * @see BookingExpiryJob
+     */
+    @Query(value = "SELECT id FROM bookings " +
+            "WHERE id IN (:bookingIds) " +
+            "AND status = 'WAITING' " +
+            "AND start_date < :now " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockWaitingStartedBefore(@Param("bookingIds") Collection<Integer> bookingIds,
+                                           @Param("now") LocalDateTime now);
+
+    /**
+     * Отклоняет ожидающие бронирования из набора, начало которых уже наступило, одним UPDATE.
+     * <p>
+     * Условие на статус повторяется, поэтому бронирования, подтверждённые или отменённые
+     * после выборки порции, не изменяются.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований порции, не должен быть null
+     * @param now момент времени, до которого бронирование считается просроченным
+     * @return количество отклонённых бронирований
+     *
+     * @see BookingExpiryJob
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'REJECTED', b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = 'WAITING' " +
+            "AND b.start < :now")
+    int rejectWaitingStartedBefore(@Param("bookingIds") Collection<Integer> bookingIds,
+                                   @Param("now") LocalDateTime now);
+}
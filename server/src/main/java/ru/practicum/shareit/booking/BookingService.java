@@ -1,9 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingTimelineDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 /**
  * Сервис для управления бронированиями в системе шеринга.
  * <p>
@@ -48,6 +55,7 @@ public interface BookingService {
      * - Предмет должен быть доступен для бронирования
      * - Даты бронирования должны быть корректными (начало раньше окончания, в будущем)
      * - Пользователь должен существовать в системе
+     * - Период не должен пересекаться с ожидающими и подтверждёнными бронированиями предмета
      * </p>
      *
      * @param bookingRequestDto DTO с данными для создания бронирования, не должен быть null
@@ -55,11 +63,32 @@ public interface BookingService {
      * @return BookingDto созданное бронирование с присвоенным идентификатором и статусом WAITING
      * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
      * @throws ru.practicum.shareit.exception.BadRequestException если нарушены бизнес-правила
+     * @throws ru.practicum.shareit.exception.ConflictException если период пересекается
+     *         с ожидающим или подтверждённым бронированием предмета
      *
      * @see BookingRequestDto
      * @see BookingDto
      */
     BookingDto add(BookingRequestDto bookingRequestDto, Integer userId);
+
+    /**
+     * Создает пакет бронирований от имени одного пользователя.
+     * <p>
+     * Каждый элемент проверяется по тем же правилам, что и при одиночном создании.
+     * Пакет обрабатывается с частичным успехом: корректные элементы сохраняются,
+     * для некорректных возвращается описание ошибки.
+     * </p>
+     *
+     * @param bookingRequestDtos элементы пакета, не должен быть null или пустым
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @return результаты по каждому элементу в порядке запроса
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     * @throws ru.practicum.shareit.exception.BadRequestException если пакет пуст
+     *         или превышает допустимый размер
+     *
+     * @see BookingBatchResultDto
+     */
+    List<BookingBatchResultDto> addBatch(List<BookingRequestDto> bookingRequestDtos, Integer userId);
     /**
      * Подтверждает или отклоняет бронирование.
      * <p>
@@ -74,11 +103,71 @@ public interface BookingService {
      * @return BookingDto обновленное бронирование с новым статусом
      * @throws ru.practicum.shareit.exception.NotFoundException если бронирование или пользователь не найдены
      * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является владельцем
-     *         или бронирование уже обработано
+     * @throws ru.practicum.shareit.exception.ConflictException если бронирование уже обработано,
+     *         в том числе параллельным запросом другой сессии владельца
      *
      * @see BookingDto
      */
     BookingDto approve(Integer bookingId, Integer userId, boolean approved);
+
+    /**
+     * Подтверждает или отклоняет бронирование с возможностью отклонить пересекающиеся ожидающие бронирования.
+     * <p>
+     * Если бронирование подтверждается и {@code rejectOverlapping} равен true, ожидающие бронирования
+     * того же предмета с пересекающимся периодом отклоняются в той же транзакции.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования для обработки, не должен быть null
+     * @param userId идентификатор пользователя, обрабатывающего бронирование, не должен быть null
+     * @param approved true для подтверждения (APPROVED), false для отклонения (REJECTED)
+     * @param rejectOverlapping true для отклонения пересекающихся ожидающих бронирований
+     * @return обновленное бронирование и количество отклонённых пересекающихся бронирований
+     * @throws ru.practicum.shareit.exception.NotFoundException если бронирование не найдено
+     * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является владельцем
+     * @throws ru.practicum.shareit.exception.ConflictException если бронирование уже обработано
+     *
+     * @see BookingApprovalDto
+     */
+    BookingApprovalDto approve(Integer bookingId, Integer userId, boolean approved, boolean rejectOverlapping);
+
+    /**
+     * Подтверждает или отклоняет набор бронирований.
+     * <p>
+     * Все бронирования должны относиться к предметам пользователя и находиться в статусе WAITING.
+     * Набор обрабатывается целиком: при любой ошибке статусы не изменяются.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований для обработки, не должен быть null или пустым
+     * @param userId идентификатор пользователя, обрабатывающего бронирования, не должен быть null
+     * @param approved true для подтверждения (APPROVED), false для отклонения (REJECTED)
+     * @return список обновленных бронирований
+     * @throws ru.practicum.shareit.exception.NotFoundException если хотя бы одно бронирование не найдено
+     * @throws ru.practicum.shareit.exception.BadRequestException если набор пуст, слишком велик
+     *         или пользователь не является владельцем хотя бы одного предмета
+     * @throws ru.practicum.shareit.exception.ConflictException если хотя бы одно бронирование уже обработано
+     *
+     * @see BookingDto
+     */
+    List<BookingDto> approveAll(List<Integer> bookingIds, Integer userId, boolean approved);
+
+    /**
+     * Отменяет бронирование его автором.
+     * <p>
+     * Отменить можно бронирование в статусе WAITING, а в статусе APPROVED - только до даты начала.
+     * Период отменённого бронирования сразу становится доступным для новых бронирований.
+     * </p>
+     *
+     * @param bookingId идентификатор отменяемого бронирования, не должен быть null
+     * @param userId идентификатор пользователя, отменяющего бронирование, не должен быть null
+     * @return BookingDto отменённое бронирование
+     * @throws ru.practicum.shareit.exception.NotFoundException если бронирование не найдено
+     * @throws ru.practicum.shareit.exception.BadRequestException если пользователь не является автором бронирования
+     * @throws ru.practicum.shareit.exception.ConflictException если бронирование уже отменено, отклонено
+     *         или подтверждённое бронирование уже началось
+     *
+     * @see BookingDto
+     */
+    BookingDto cancel(Integer bookingId, Integer userId);
     /**
      * Возвращает бронирование по идентификатору.
      * <p>
@@ -102,15 +191,24 @@ public interface BookingService {
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
      *
+     * <p>
+     * Список выдаётся страницами, каждая следующая страница запрашивается
+     * с позицией, полученной вместе с предыдущей.
+     * </p>
+     *
      * @param userId идентификатор пользователя-арендатора, не должен быть null
      * @param state состояние для фильтрации (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
-     * @return список BookingDto с бронированиями пользователя, отсортированный по дате начала (убывание)
+     * @param limit размер страницы или null для размера по умолчанию
+     * @param cursor непрозрачная позиция следующей страницы или null для первой страницы
+     * @return BookingPageDto страница бронирований, отсортированных по дате начала (убывание),
+     *         и позиция следующей страницы
      * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
-     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние
+     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние,
+     *         размер страницы или позиция
      *
-     * @see BookingDto
+     * @see BookingPageDto
      */
-    List<BookingDto> getAllBookingsCurrentUser(Integer userId, String state);
+    BookingPageDto getAllBookingsCurrentUser(Integer userId, String state, Integer limit, String cursor);
     /**
      * Возвращает список бронирований предметов пользователя с фильтрацией по состоянию.
      * <p>
@@ -118,13 +216,74 @@ public interface BookingService {
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
      *
+     * <p>
+     * Список выдаётся страницами, как в {@link #getAllBookingsCurrentUser(Integer, String, Integer, String)}.
+     * </p>
+     *
      * @param userId идентификатор пользователя-владельца, не должен быть null
      * @param state состояние для фильтрации (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
-     * @return список BookingDto с бронированиями предметов пользователя, отсортированный по дате начала (убывание)
+     * @param limit размер страницы или null для размера по умолчанию
+     * @param cursor непрозрачная позиция следующей страницы или null для первой страницы
+     * @return BookingPageDto страница бронирований предметов пользователя, отсортированных по дате начала
+     *         (убывание), и позиция следующей страницы
      * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
-     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние
+     * @throws ru.practicum.shareit.exception.BadRequestException если указано некорректное состояние,
+     *         размер страницы или позиция
      *
-     * @see BookingDto
+     * @see BookingPageDto
+     */
+    BookingPageDto getAllBookingsItemsUser(Integer userId, String state, Integer limit, String cursor);
+
+    /**
+     * Возвращает количество бронирований пользователя-арендатора в каждом состоянии.
+     * <p>
+     * Значения совпадают с длиной списков {@link #getAllBookingsCurrentUser(Integer, String, Integer, String)}
+     * для каждого состояния, включая неразвёрнутые повторения повторяющихся бронирований.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-арендатора, не должен быть null
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     */
+    BookingSummaryDto getBookerSummary(Integer userId);
+
+    /**
+     * Возвращает количество бронирований предметов пользователя-владельца в каждом состоянии.
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     *
+     * @see #getAllBookingsItemsUser(Integer, String, Integer, String)
+     */
+    BookingSummaryDto getOwnerSummary(Integer userId);
+
+    /**
+     * Передаёт все бронирования предметов пользователя-владельца по одному.
+     * <p>
+     * В отличие от {@link #getAllBookingsItemsUser(Integer, String, Integer, String)} не собирает
+     * результат в список: каждое бронирование передаётся получателю сразу после чтения строки.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param consumer получатель бронирований в порядке убывания даты начала
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     */
+    void exportOwnerBookings(Integer userId, Consumer<BookingDto> consumer);
+
+    /**
+     * Возвращает временную шкалу бронирований всех предметов пользователя-владельца в окне.
+     * <p>
+     * В отличие от {@link #getAllBookingsItemsUser(Integer, String, Integer, String)} отбирает
+     * бронирования по периоду на стороне сервера и возвращает их в колоночном виде.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца, не должен быть null
+     * @param from начало окна
+     * @param to окончание окна, должно быть позже начала
+     * @return BookingTimelineDto бронирования, пересекающиеся с окном
+     * @throws ru.practicum.shareit.exception.BadRequestException если окно пустое или шире допустимого
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
      */
-    List<BookingDto> getAllBookingsItemsUser(Integer userId, String state);
+    BookingTimelineDto getOwnerTimeline(Integer userId, LocalDateTime from, LocalDateTime to);
 }
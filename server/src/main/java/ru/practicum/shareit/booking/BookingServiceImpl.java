@@ -3,21 +3,50 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingTimelineDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.RecurringBooking;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.BookingHoldIndex;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.mapper.BookingMapper;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 /**
  * Реализация сервиса для управления бронированиями в системе шеринга.
  * <p>
@@ -31,14 +60,21 @@ import java.util.Objects;
  *   <li>Использует Spring Data JPA репозитории для работы с данными</li>
  *   <li>Применяет мапперы для преобразования между DTO и entity</li>
  *   <li>Обеспечивает подробное логирование всех операций</li>
- *   <li>Обрабатывает бизнес-исключения (NotFoundException, BadRequestException)</li>
+ *   <li>Обрабатывает бизнес-исключения (NotFoundException, BadRequestException, ConflictException)</li>
  *   <li>Использует транзакции для гарантии целостности данных</li>
+ *   <li>Проверяет пересечение периодов бронирований через {@link BookingConflictIndex}</li>
+ *   <li>Пересечение ожидающих бронирований исключается блокировкой строки предмета и индексом,
+ *       exclusion constraint PostgreSQL покрывает только подтверждённые бронирования,
+ *       поэтому его нарушение преобразуется в {@link ConflictException} при подтверждении</li>
+ *   <li>Создание бронирований блокирует строку предмета и перечитывает его периоды из базы данных,
+ *       поэтому пересечения проверяются с учётом бронирований всех экземпляров сервера</li>
  * </ul>
  *
  * @author MaksimLM17
  * @version 1.0
  * @see BookingService
  * @see BookingRepository
+ * @see BookingConflictIndex
  * @see BookingMapper
  * @since 2025
  */
@@ -47,6 +83,16 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    /**
+     * SQLSTATE нарушения exclusion constraint в PostgreSQL.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    /**
+     * Состояния, в выборку которых попадают виртуальные повторения повторяющихся бронирований.
+     */
+    private static final Set<String> VIRTUAL_OCCURRENCE_STATES = Set.of("ALL", "FUTURE", "WAITING");
+
     /**
      * Репозиторий для работы с данными предметов.
      */
@@ -67,6 +113,55 @@ public class BookingServiceImpl implements BookingService {
      */
     private final BookingMapper bookingMapper;
 
+    /**
+     * Индекс занятых периодов предметов для проверки пересечений бронирований.
+     */
+    private final BookingConflictIndex conflictIndex;
+
+    /**
+     * Публикация событий освобождения периодов предметов для листа ожидания.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Репозиторий правил повторяющихся бронирований для виртуальных повторений.
+     */
+    private final RecurringBookingRepository recurringBookingRepository;
+
+    /**
+     * Набор текущих бронирований для запросов состояния CURRENT.
+     */
+    private final CurrentBookingIndex currentBookings;
+
+    /**
+     * Временные удержания периодов предметов, проверяемые при создании бронирований.
+     */
+    private final BookingHoldIndex holdIndex;
+
+    /**
+     * Максимальное количество элементов в пакетном запросе на создание бронирований.
+     */
+    @Value("${shareit.booking.batch.max-size:100}")
+    private int batchMaxSize;
+
+    /**
+     * Размер страницы списков бронирований, если клиент его не указал.
+     */
+    @Value("${shareit.booking.page.default-limit:100}")
+    private int pageDefaultLimit;
+
+    /**
+     * Максимальный размер страницы списков бронирований.
+     */
+    @Value("${shareit.booking.page.max-limit:1000}")
+    private int pageMaxLimit;
+
+    /**
+     * Максимальная ширина окна временной шкалы бронирований владельца.
+     */
+    @Value("${shareit.booking.timeline.max-window:P366D}")
+    private Duration timelineMaxWindow;
+
     /**
      * Создает новое бронирование.
      * <p>
@@ -74,6 +169,9 @@ public class BookingServiceImpl implements BookingService {
      * - Пользователь не может бронировать собственные предметы
      * - Предмет должен быть доступен для бронирования
      * - Даты бронирования должны быть корректными
+     * - Период не должен пересекаться с ожидающими и подтверждёнными бронированиями предмета
+     * - Период не должен пересекаться с удержаниями предмета другими пользователями
+     * Удержания пользователя, пересекающиеся с созданным бронированием, снимаются после фиксации транзакции.
      * </p>
      *
      * @param bookingRequestDto DTO с данными для создания бронирования
@@ -81,6 +179,8 @@ public class BookingServiceImpl implements BookingService {
      * @return BookingDto созданное бронирование с присвоенным идентификатором
      * @throws NotFoundException если пользователь или предмет не найдены
      * @throws BadRequestException если нарушены бизнес-правила
+     * @throws ConflictException если период пересекается с другим бронированием предмета
+     *         или удерживается другим пользователем
      *
      * @see BookingService#add(BookingRequestDto, Integer)
      */
@@ -91,40 +191,108 @@ public class BookingServiceImpl implements BookingService {
                 "для вещи с id = {}", userId, bookingRequestDto.getItemId());
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id " + bookingRequestDto.getItemId() + " не найдена!"));
 
-        if (item.getOwner().getId().equals(userId)) {
-            log.error("Попытка забронировать свою вещь!");
-            throw new BadRequestException("Нельзя бронировать свою же вещь");
+        checkCanBook(bookingRequestDto, item, userId);
+        conflictIndex.refresh(item.getId());
+        checkNotHeld(item.getId(), userId, bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+
+        Booking booking = newBooking(bookingRequestDto, item, user);
+        Booking savedBooking = bookingRepository.save(booking);
+        occupy(savedBooking);
+        holdIndex.releaseBooked(item.getId(), userId, savedBooking.getStart(), savedBooking.getEnd());
+        log.info("Вещь с id = {}, забронирована, пользователем с id {}", item.getId(), booking.getBooker().getId());
+        return bookingMapper.mapToDto(savedBooking);
+    }
+
+    /**
+     * Создает пакет бронирований с частичным успехом.
+     * <p>
+     * Пользователь загружается одним запросом, все предметы пакета - одним запросом
+     * с блокировкой строк, после чего периоды предметов перечитываются из базы данных. Каждый элемент проверяется
+     * по тем же правилам, что и в {@link #add(BookingRequestDto, Integer)}, включая пересечение
+     * с существующими бронированиями и с предыдущими элементами пакета.
+     * Прошедшие проверку элементы вставляются одним JDBC batch.
+     * </p>
+     *
+     * @param bookingRequestDtos элементы пакета в порядке обработки
+     * @param userId идентификатор пользователя, создающего бронирования
+     * @return результаты по каждому элементу в порядке запроса
+     * @throws NotFoundException если пользователь не найден
+     * @throws BadRequestException если пакет пуст или превышает допустимый размер
+     *
+     * @see BookingService#addBatch(List, Integer)
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addBatch(List<BookingRequestDto> bookingRequestDtos, Integer userId) {
+        log.debug("Получен запрос на пакетное создание бронирований пользователем с id = {}, размер пакета = {}",
+                userId, bookingRequestDtos == null ? 0 : bookingRequestDtos.size());
+        if (bookingRequestDtos == null || bookingRequestDtos.isEmpty()) {
+            throw new BadRequestException("Пакет бронирований не может быть пустым");
         }
+        if (bookingRequestDtos.size() > batchMaxSize) {
+            log.error("Размер пакета бронирований {} превышает допустимый {}", bookingRequestDtos.size(), batchMaxSize);
+            throw new BadRequestException("Размер пакета бронирований не может превышать " + batchMaxSize);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        Set<Integer> itemIds = bookingRequestDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingRequestDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        items.keySet().forEach(conflictIndex::refresh);
 
-        if (bookingRequestDto.getStart().isAfter(bookingRequestDto.getEnd())) {
-            log.error("Указаны некорректные даты начала и конца бронирования: дата начала = {}, дата конца = {}",
-                    bookingRequestDto.getStart(), bookingRequestDto.getEnd());
-            throw new BadRequestException("Дата начала должна быть раньше даты окончания");
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingRequestDtos.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingRequestDtos.size(); i++) {
+            BookingRequestDto request = bookingRequestDtos.get(i);
+            try {
+                Item item = checkBatchEntry(request, items, userId, accepted);
+                accepted.add(newBooking(request, item, user));
+                acceptedIndexes.add(i);
+            } catch (NotFoundException e) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (BadRequestException e) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.BAD_REQUEST, e.getMessage());
+            } catch (ConflictException e) {
+                results[i] = BookingBatchResultDto.failed(i, HttpStatus.CONFLICT, e.getMessage());
+            }
         }
 
-        Booking booking = bookingMapper.mapToModelFromRequest(bookingRequestDto);
-        // Проверка доступности предмета
-        if (item.isAvailable()) {
-            booking.setItem(item);
-            booking.setBooker(user);
-            booking.setStatus(Status.WAITING);
-            Booking savedBooking = bookingRepository.save(booking);
-            log.info("Вещь с id = {}, забронирована, пользователем с id {}", item.getId(), booking.getBooker().getId());
-            return bookingMapper.mapToDto(savedBooking);
-        } else {
-            log.error("Вещь с id = {}, недоступна для бронирования", item.getId());
-            throw new BadRequestException("Вещь недоступна для бронирования");
+        bookingRepository.insertAll(accepted);
+        List<Integer> lostIds = new ArrayList<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            Booking booking = accepted.get(k);
+            int index = acceptedIndexes.get(k);
+            try {
+                occupy(booking);
+                holdIndex.releaseBooked(booking.getItem().getId(), userId, booking.getStart(), booking.getEnd());
+                results[index] = BookingBatchResultDto.created(index, bookingMapper.mapToDto(booking));
+            } catch (ConflictException e) {
+                lostIds.add(booking.getId());
+                results[index] = BookingBatchResultDto.failed(index, HttpStatus.CONFLICT, e.getMessage());
+            }
         }
+        if (!lostIds.isEmpty()) {
+            bookingRepository.deleteAllByIdInBatch(lostIds);
+        }
+        log.info("Пакетное создание бронирований пользователем с id = {}: создано {}, отклонено {}",
+                userId, accepted.size() - lostIds.size(), bookingRequestDtos.size() - accepted.size() + lostIds.size());
+        return Arrays.asList(results);
     }
     /**
      * Подтверждает или отклоняет бронирование.
      * <p>
-     * Выполняет изменение статуса бронирования владельцем предмета.
-     * Проверяет, что пользователь является владельцем предмета
-     * и бронирование находится в статусе WAITING.
+     * Выполняет изменение статуса бронирования владельцем предмета одним условным UPDATE:
+     * статус меняется только если бронирование находится в статусе WAITING,
+     * а пользователь является владельцем предмета. Если ни одна строка не изменена,
+     * причина определяется дополнительным запросом.
      * </p>
      *
      * @param bookingId идентификатор бронирования для обработки
@@ -132,39 +300,181 @@ public class BookingServiceImpl implements BookingService {
      * @param approved true для подтверждения (APPROVED), false для отклонения (REJECTED)
      * @return BookingDto обновленное бронирование с новым статусом
      * @throws NotFoundException если бронирование не найдено
-     * @throws BadRequestException если пользователь не является владельцем или бронирование уже обработано
+     * @throws BadRequestException если пользователь не является владельцем
+     * @throws ConflictException если бронирование уже обработано (в том числе параллельным запросом)
+     *         или подтверждаемый период пересекается с другим бронированием предмета
      *
      * @see BookingService#approve(Integer, Integer, boolean)
      */
     @Override
     @Transactional
     public BookingDto approve(Integer bookingId, Integer userId, boolean approved) {
-        log.info("Получен запрос на обновление статуса брони с данными: bookingId = {}, userId = {}, approved = {}",
-                bookingId, userId, approved);
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + " не найдено!"));
+        return approve(bookingId, userId, approved, false).getBooking();
+    }
 
-        // Проверка прав доступа - только владелец предмета может менять статус
-        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            throw new BadRequestException("Обновление статуса бронирования доступно только владельцам вещи!");
+    /**
+     * Подтверждает или отклоняет бронирование, при необходимости отклоняя пересекающиеся ожидающие бронирования.
+     * <p>
+     * При подтверждении с {@code rejectOverlapping = true} все бронирования того же предмета
+     * в статусе WAITING, период которых пересекается с подтверждённым, отклоняются
+     * в той же транзакции одним UPDATE. Индекс конфликтов предмета после этого перечитывается.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования для обработки
+     * @param userId идентификатор пользователя, обрабатывающего бронирование
+     * @param approved true для подтверждения (APPROVED), false для отклонения (REJECTED)
+     * @param rejectOverlapping true для отклонения пересекающихся ожидающих бронирований
+     * @return обновленное бронирование и количество отклонённых пересекающихся бронирований
+     * @throws NotFoundException если бронирование не найдено
+     * @throws BadRequestException если пользователь не является владельцем
+     * @throws ConflictException если бронирование уже обработано
+     *
+     * @see BookingService#approve(Integer, Integer, boolean, boolean)
+     */
+    @Override
+    @Transactional
+    public BookingApprovalDto approve(Integer bookingId, Integer userId, boolean approved, boolean rejectOverlapping) {
+        log.info("Получен запрос на обновление статуса брони с данными: bookingId = {}, userId = {}, approved = {}, " +
+                "rejectOverlapping = {}", bookingId, userId, approved, rejectOverlapping);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusIfWaiting(bookingId, userId, status);
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, "Бронирование с id " + bookingId +
+                    " пересекается с подтверждённым бронированием вещи");
         }
-        // Проверка, что бронирование еще не обработано
-        if (booking.getStatus().equals(Status.APPROVED)) {
-            throw new BadRequestException("Нельзя изменить статус уже подтверждённого бронирования");
+        if (updated == 0) {
+            throw explainNotUpdated(bookingId, userId);
         }
-        // Обработка заявки бронирования
+
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + " не найдено!"));
+        int rejectedOverlapping = 0;
         if (approved) {
-            booking.setStatus(Status.APPROVED);
-            bookingRepository.save(booking);
             log.info("Бронирование подтверждено! С данными: bookingId = {}, itemId = {}",
                     booking.getId(), booking.getItem().getId());
+            if (rejectOverlapping) {
+                rejectedOverlapping = rejectOverlappingWaiting(booking);
+            }
         } else {
-            booking.setStatus(Status.REJECTED);
-            bookingRepository.save(booking);
+            release(booking);
             log.info("Бронирование отклонено! С данными: bookingId = {}, itemId = {}",
                     booking.getId(), booking.getItem().getId());
         }
 
+        return new BookingApprovalDto(bookingMapper.mapToDto(booking), rejectedOverlapping);
+    }
+
+    /**
+     * Подтверждает или отклоняет набор бронирований владельцем предметов.
+     * <p>
+     * Выполняется за постоянное число запросов независимо от размера набора:
+     * проверка прав и статусов одним запросом с соединением по предметам,
+     * изменение статусов одним UPDATE и загрузка результата одним запросом с JOIN FETCH.
+     * Операция атомарна: при любой ошибке ни одно бронирование не изменяется.
+     * </p>
+     *
+     * @param bookingIds идентификаторы бронирований для обработки
+     * @param userId идентификатор пользователя, обрабатывающего бронирования
+     * @param approved true для подтверждения (APPROVED), false для отклонения (REJECTED)
+     * @return обновленные бронирования, отсортированные по идентификатору
+     * @throws NotFoundException если хотя бы одно бронирование не найдено
+     * @throws BadRequestException если набор пуст, слишком велик или пользователь
+     *         не является владельцем хотя бы одного предмета
+     * @throws ConflictException если хотя бы одно бронирование уже обработано
+     *
+     * @see BookingService#approveAll(List, Integer, boolean)
+     */
+    @Override
+    @Transactional
+    public List<BookingDto> approveAll(List<Integer> bookingIds, Integer userId, boolean approved) {
+        log.info("Получен запрос на обновление статуса бронирований с данными: bookingIds = {}, userId = {}, " +
+                "approved = {}", bookingIds, userId, approved);
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new BadRequestException("Список бронирований не может быть пустым");
+        }
+        Set<Integer> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.contains(null)) {
+            throw new BadRequestException("Идентификатор бронирования не может быть пустым");
+        }
+        if (ids.size() > batchMaxSize) {
+            log.error("Размер списка бронирований {} превышает допустимый {}", ids.size(), batchMaxSize);
+            throw new BadRequestException("Размер списка бронирований не может превышать " + batchMaxSize);
+        }
+
+        Map<Integer, BookingOwnership> ownership = bookingRepository.findOwnershipByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingOwnership::id, Function.identity()));
+        for (Integer id : ids) {
+            BookingOwnership booking = ownership.get(id);
+            if (booking == null) {
+                throw new NotFoundException("Бронирование с id " + id + " не найдено!");
+            }
+            if (!Objects.equals(booking.ownerId(), userId)) {
+                log.error("Пользователь с id = {} не является владельцем вещи из бронирования с id = {}", userId, id);
+                throw new BadRequestException("Обновление статуса бронирования доступно только владельцам вещи!");
+            }
+            if (booking.status() != Status.WAITING) {
+                throw new ConflictException("Бронирование с id " + id + " уже обработано, текущий статус: " +
+                        booking.status());
+            }
+        }
+
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusIfWaiting(ids, userId, status);
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, "Бронирования " + ids +
+                    " пересекаются с подтверждёнными бронированиями вещей");
+        }
+        if (updated != ids.size()) {
+            log.error("Статус изменён у {} из {} бронирований, набор изменён параллельным запросом",
+                    updated, ids.size());
+            throw new ConflictException("Часть бронирований из списка уже обработана параллельным запросом");
+        }
+
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(ids);
+        if (!approved) {
+            bookings.forEach(this::release);
+        }
+        log.info("Статус {} установлен для {} бронирований пользователем с id = {}", status, bookings.size(), userId);
+        return bookings.stream()
+                .map(bookingMapper::mapToDto)
+                .toList();
+    }
+
+    /**
+     * Отменяет бронирование его автором.
+     * <p>
+     * Выполняет отмену одним условным UPDATE: статус меняется только если пользователь
+     * является автором бронирования, а бронирование ожидает подтверждения или подтверждено,
+     * но ещё не началось. После отмены период удаляется из индекса конфликтов,
+     * поэтому его сразу можно забронировать повторно.
+     * </p>
+     *
+     * @param bookingId идентификатор отменяемого бронирования
+     * @param userId идентификатор пользователя, отменяющего бронирование
+     * @return BookingDto отменённое бронирование
+     * @throws NotFoundException если бронирование не найдено
+     * @throws BadRequestException если пользователь не является автором бронирования
+     * @throws ConflictException если бронирование нельзя отменить в текущем статусе
+     *
+     * @see BookingService#cancel(Integer, Integer)
+     */
+    @Override
+    @Transactional
+    public BookingDto cancel(Integer bookingId, Integer userId) {
+        log.info("Получен запрос на отмену бронирования с данными: bookingId = {}, userId = {}", bookingId, userId);
+        if (bookingRepository.cancelIfActive(bookingId, userId, LocalDateTime.now()) == 0) {
+            throw explainNotCancelled(bookingId, userId);
+        }
+
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + " не найдено!"));
+        release(booking);
+        log.info("Бронирование отменено! С данными: bookingId = {}, itemId = {}",
+                booking.getId(), booking.getItem().getId());
         return bookingMapper.mapToDto(booking);
     }
 
@@ -174,6 +484,11 @@ public class BookingServiceImpl implements BookingService {
      * Проверяет права доступа - информацию о бронировании могут получить
      * только владелец предмета или автор бронирования.
      * </p>
+     * <p>
+     * Права доступа проверяются в самом запросе, поэтому успешный просмотр выполняет
+     * один оператор SELECT. Причина отказа выясняется отдельными запросами только
+     * при пустом результате.
+     * </p>
      *
      * @param bookingId идентификатор запрашиваемого бронирования
      * @param userId идентификатор пользователя, запрашивающего информацию
@@ -187,18 +502,9 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public BookingDto getById(Integer bookingId, Integer userId) {
         log.debug("Получен запрос на просмотр бронирования по id = {}", bookingId);
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с id " + bookingId + " не найдено!"));
-        // Проверка прав доступа
-        if (!Objects.equals(booking.getItem().getOwner().getId(), userId) &&
-                !Objects.equals(booking.getBooker().getId(), userId)) {
-            log.error("Попытка посмотреть детали бронирования пользователем с id = {}, " +
-                    "который не является автором бронирования и владельцем вещи!", userId);
-            throw new BadRequestException("Пользователь с id " + userId + " не является владельцем вещи или автором бронирования!");
-        }
-        return bookingMapper.mapToDto(booking);
+        return bookingRepository.findViewByIdAndParticipant(bookingId, userId)
+                .map(bookingMapper::mapToDtoFromView)
+                .orElseThrow(() -> explainNotVisible(bookingId, userId));
     }
 
     /**
@@ -207,28 +513,47 @@ public class BookingServiceImpl implements BookingService {
      * Предоставляет бронирования, где пользователь является арендатором (booker).
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
+     * <p>
+     * Для состояний ALL, FUTURE и WAITING в список добавляются виртуальные повторения
+     * повторяющихся бронирований пользователя, ещё не развёрнутые в бронирования
+     * (без идентификатора, в статусе WAITING). Сохранённые бронирования и виртуальные повторения
+     * сливаются по дате начала в порядке убывания без сохранения повторений в базе данных.
+     * </p>
+     * <p>
+     * Список выдаётся страницами по (start_date, id) в порядке убывания. Из базы данных читается
+     * не больше {@code limit + 1} бронирований после позиции, лишнее бронирование только
+     * показывает, что следующая страница существует.
+     * </p>
      *
      * @param userId идентификатор пользователя-арендатора
      * @param state состояние для фильтрации
-     * @return список BookingDto с бронированиями пользователя
+     * @param limit размер страницы или null для размера по умолчанию
+     * @param cursor позиция, выданная с предыдущей страницей, или null для первой страницы
+     * @return BookingPageDto страница бронирований и позиция следующей страницы
      * @throws NotFoundException если пользователь не найден
-     * @throws BadRequestException если указано некорректное состояние
+     * @throws BadRequestException если указано некорректное состояние, размер страницы или позиция
      *
-     * @see BookingService#getAllBookingsCurrentUser(Integer, String)
+     * @see BookingService#getAllBookingsCurrentUser(Integer, String, Integer, String)
      */
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsCurrentUser(Integer userId, String state) {
+    public BookingPageDto getAllBookingsCurrentUser(Integer userId, String state, Integer limit, String cursor) {
         log.debug("Получен запрос на получение всех бронирований пользователя {}, со статусом {}", userId, state);
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
         validateState(state);
+        int pageSize = validatePageSize(limit);
+        BookingCursor after = BookingCursor.decode(cursor);
 
-        List<Booking> bookings = bookingRepository.getAllBookingsByUserId(userId, state);
-        log.debug("Отправлен список бронирований пользователя размером {}", bookings.size());
-        return bookings.stream()
-                .map(bookingMapper::mapToDto)
-                .toList();
+        List<Iterator<PageEntry>> sources = new ArrayList<>();
+        sources.add(storedEntries(findBookerBookings(userId, state, after, Limit.of(pageSize + 1))).iterator());
+        if (VIRTUAL_OCCURRENCE_STATES.contains(state)) {
+            recurringBookingRepository.findPendingByBookerId(userId)
+                    .forEach(rule -> sources.add(virtualOccurrences(rule, after)));
+        }
+        BookingPageDto page = toPage(mergePage(sources, pageSize + 1), pageSize);
+        log.debug("Отправлена страница бронирований пользователя размером {}", page.getBookings().size());
+        return page;
     }
 
     /**
@@ -238,28 +563,576 @@ public class BookingServiceImpl implements BookingService {
      * Поддерживает фильтрацию по различным состояниям бронирований.
      * </p>
      *
+     * <p>
+     * Список выдаётся страницами по (start_date, id) в порядке убывания,
+     * как в {@link #getAllBookingsCurrentUser(Integer, String, Integer, String)}.
+     * </p>
+     *
      * @param userId идентификатор пользователя-владельца
      * @param state состояние для фильтрации
-     * @return список BookingDto с бронированиями предметов пользователя
+     * @param limit размер страницы или null для размера по умолчанию
+     * @param cursor позиция, выданная с предыдущей страницей, или null для первой страницы
+     * @return BookingPageDto страница бронирований и позиция следующей страницы
      * @throws NotFoundException если пользователь не найден
-     * @throws BadRequestException если указано некорректное состояние
+     * @throws BadRequestException если указано некорректное состояние, размер страницы или позиция
      *
-     * @see BookingService#getAllBookingsItemsUser(Integer, String)
+     * @see BookingService#getAllBookingsItemsUser(Integer, String, Integer, String)
      */
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsItemsUser(Integer userId, String state) {
+    public BookingPageDto getAllBookingsItemsUser(Integer userId, String state, Integer limit, String cursor) {
         log.debug("Получен запрос на получение всех бронирований для вещей пользователя {}, со статусом {}", userId, state);
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
         validateState(state);
+        int pageSize = validatePageSize(limit);
+        BookingCursor after = BookingCursor.decode(cursor);
 
-        List<Booking> bookings = bookingRepository.getAllBookingsItemsUser(userId, state);
-        log.debug("Отправлен список всех бронирований вещей пользователя размером {}", bookings.size());
+        BookingPageDto page = toPage(storedEntries(findOwnerBookings(userId, state, after, Limit.of(pageSize + 1))),
+                pageSize);
+        log.debug("Отправлена страница бронирований вещей пользователя размером {}", page.getBookings().size());
+        return page;
+    }
+
+    /**
+     * Возвращает количество бронирований пользователя-арендатора в каждом состоянии.
+     * <p>
+     * Сохранённые бронирования подсчитываются одним агрегирующим запросом. Неразвёрнутые
+     * повторения находятся в будущем и ожидают подтверждения, поэтому их количество
+     * добавляется к состояниям ALL, FUTURE и WAITING, как в списке бронирований.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-арендатора
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws NotFoundException если пользователь не найден
+     *
+     * @see BookingService#getBookerSummary(Integer)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookerSummary(Integer userId) {
+        log.debug("Получен запрос на сводку бронирований пользователя {}", userId);
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        BookingStateCounts counts = bookingRepository.countStatesByBookerId(userId, LocalDateTime.now());
+        long pending = recurringBookingRepository.countPendingOccurrencesByBookerId(userId);
+        return new BookingSummaryDto(counts.all() + pending, counts.current(), counts.past(),
+                counts.future() + pending, counts.waiting() + pending, counts.rejected());
+    }
+
+    /**
+     * Возвращает количество бронирований предметов пользователя-владельца в каждом состоянии.
+     *
+     * @param userId идентификатор пользователя-владельца
+     * @return BookingSummaryDto количество бронирований по состояниям
+     * @throws NotFoundException если пользователь не найден
+     *
+     * @see BookingService#getOwnerSummary(Integer)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getOwnerSummary(Integer userId) {
+        log.debug("Получен запрос на сводку бронирований вещей пользователя {}", userId);
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        BookingStateCounts counts = bookingRepository.countStatesByOwnerId(userId, LocalDateTime.now());
+        return new BookingSummaryDto(counts.all(), counts.current(), counts.past(), counts.future(),
+                counts.waiting(), counts.rejected());
+    }
+
+    /**
+     * Передаёт все бронирования предметов пользователя-владельца получателю по мере чтения.
+     * <p>
+     * Строки выбираются курсором в одной транзакции только для чтения. Бронирования
+     * выбираются представлениями {@link BookingView} и не остаются в контексте персистентности,
+     * поэтому память не растёт с размером истории.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца
+     * @param consumer получатель бронирований
+     * @throws NotFoundException если пользователь не найден
+     *
+     * @see BookingService#exportOwnerBookings(Integer, Consumer)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Integer userId, Consumer<BookingDto> consumer) {
+        log.debug("Получен запрос на выгрузку бронирований вещей пользователя {}", userId);
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        try (Stream<BookingView> bookings = bookingRepository.streamAllByOwnerId(userId)) {
+            bookings.map(bookingMapper::mapToDtoFromView).forEach(consumer);
+        }
+        log.debug("Выгрузка бронирований вещей пользователя {} завершена", userId);
+    }
+
+    /**
+     * Возвращает бронирования всех предметов пользователя-владельца, пересекающиеся с окном.
+     * <p>
+     * Строки выбираются одним запросом только со столбцами временной шкалы и раскладываются
+     * по колонкам без промежуточных DTO.
+     * </p>
+     *
+     * @param userId идентификатор пользователя-владельца
+     * @param from начало окна
+     * @param to окончание окна
+     * @return BookingTimelineDto бронирования в порядке предмета и даты начала
+     * @throws BadRequestException если окно пустое или шире допустимого
+     * @throws NotFoundException если пользователь не найден
+     *
+     * @see BookingService#getOwnerTimeline(Integer, LocalDateTime, LocalDateTime)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingTimelineDto getOwnerTimeline(Integer userId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Получен запрос на шкалу бронирований вещей пользователя {} с {} по {}", userId, from, to);
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("Окончание окна должно быть позже начала");
+        }
+        if (Duration.between(from, to).compareTo(timelineMaxWindow) > 0) {
+            throw new BadRequestException("Окно шкалы бронирований не может быть шире " + timelineMaxWindow.toDays()
+                    + " дней");
+        }
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        List<BookingTimelineRow> rows = bookingRepository.findTimelineByOwnerId(userId, from, to);
+        List<Integer> itemIds = new ArrayList<>(rows.size());
+        List<LocalDateTime> starts = new ArrayList<>(rows.size());
+        List<LocalDateTime> ends = new ArrayList<>(rows.size());
+        List<Status> statuses = new ArrayList<>(rows.size());
+        List<Integer> bookerIds = new ArrayList<>(rows.size());
+        for (BookingTimelineRow row : rows) {
+            itemIds.add(row.itemId());
+            starts.add(row.start());
+            ends.add(row.end());
+            statuses.add(row.status());
+            bookerIds.add(row.bookerId());
+        }
+        log.debug("Найдено бронирований на шкале вещей пользователя {}: {}", userId, rows.size());
+        return new BookingTimelineDto(from, to, itemIds, starts, ends, statuses, bookerIds);
+    }
+
+    /**
+     * Проверяет бизнес-правила создания бронирования предмета пользователем.
+     *
+     * @param bookingRequestDto данные бронирования с заполненными датами
+     * @param item бронируемый предмет
+     * @param userId идентификатор пользователя, создающего бронирование
+     * @throws BadRequestException если предмет принадлежит пользователю, даты некорректны
+     *         или предмет недоступен для бронирования
+     */
+    private void checkCanBook(BookingRequestDto bookingRequestDto, Item item, Integer userId) {
+        if (item.getOwner().getId().equals(userId)) {
+            log.error("Попытка забронировать свою вещь!");
+            throw new BadRequestException("Нельзя бронировать свою же вещь");
+        }
+
+        if (bookingRequestDto.getStart().isAfter(bookingRequestDto.getEnd())) {
+            log.error("Указаны некорректные даты начала и конца бронирования: дата начала = {}, дата конца = {}",
+                    bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+            throw new BadRequestException("Дата начала должна быть раньше даты окончания");
+        }
+
+        if (!item.isAvailable()) {
+            log.error("Вещь с id = {}, недоступна для бронирования", item.getId());
+            throw new BadRequestException("Вещь недоступна для бронирования");
+        }
+    }
+
+    /**
+     * Проверяет элемент пакета бронирований.
+     * <p>
+     * Помимо правил {@link #checkCanBook(BookingRequestDto, Item, Integer)} проверяет заполненность
+     * полей, удержания других пользователей и пересечение периода с бронированиями в индексе
+     * и с уже принятыми элементами пакета.
+     * </p>
+     *
+     * @param request элемент пакета
+     * @param items загруженные предметы пакета по идентификатору
+     * @param userId идентификатор пользователя, создающего бронирования
+     * @param accepted уже принятые элементы пакета
+     * @return бронируемый предмет
+     * @throws NotFoundException если предмет не найден
+     * @throws BadRequestException если элемент заполнен некорректно или нарушены бизнес-правила
+     * @throws ConflictException если период пересекается с другим бронированием предмета
+     *         или удерживается другим пользователем
+     */
+    private Item checkBatchEntry(BookingRequestDto request, Map<Integer, Item> items, Integer userId,
+                                 List<Booking> accepted) {
+        if (request == null || request.getItemId() == null || request.getStart() == null || request.getEnd() == null) {
+            throw new BadRequestException("Предмет, дата начала и дата окончания бронирования должны быть заполнены");
+        }
+        Item item = items.get(request.getItemId());
+        if (item == null) {
+            throw new NotFoundException("Вещь с id " + request.getItemId() + " не найдена!");
+        }
+        checkCanBook(request, item, userId);
+        checkNotHeld(item.getId(), userId, request.getStart(), request.getEnd());
+        boolean overlapsBatch = accepted.stream()
+                .anyMatch(booking -> booking.getItem().getId().equals(item.getId())
+                        && booking.getStart().isBefore(request.getEnd())
+                        && request.getStart().isBefore(booking.getEnd()));
+        if (overlapsBatch || conflictIndex.overlaps(item.getId(), request.getStart(), request.getEnd())) {
+            throw new ConflictException("Вещь с id " + item.getId() + " уже забронирована на указанный период");
+        }
+        return item;
+    }
+
+    /**
+     * Отклоняет ожидающие бронирования предмета, пересекающиеся с подтверждённым бронированием.
+     *
+     * @param approved подтверждённое бронирование с загруженным предметом
+     * @return количество отклонённых бронирований
+     */
+    private int rejectOverlappingWaiting(Booking approved) {
+        Integer itemId = approved.getItem().getId();
+        int rejected = bookingRepository.rejectOverlappingWaiting(itemId, approved.getId(),
+                approved.getStart(), approved.getEnd());
+        if (rejected > 0) {
+            conflictIndex.invalidateOnCompletion(itemId);
+            log.info("Отклонено {} ожидающих бронирований вещи с id = {}, пересекающихся с бронированием с id = {}",
+                    rejected, itemId, approved.getId());
+        }
+        return rejected;
+    }
+
+    private Booking newBooking(BookingRequestDto bookingRequestDto, Item item, User booker) {
+        Booking booking = bookingMapper.mapToModelFromRequest(bookingRequestDto);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Status.WAITING);
+        return booking;
+    }
+
+    /**
+     * Выбирает бронирования арендатора запросом, соответствующим состоянию.
+     *
+     * @param userId идентификатор пользователя-арендатора
+     * @param state проверенное состояние для фильтрации
+     * @param after позиция, после которой начинается страница
+     * @param limit максимальное количество бронирований
+     * @return бронирования в порядке убывания (start_date, id)
+     */
+    private List<BookingView> findBookerBookings(Integer userId, String state, BookingCursor after, Limit limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.start();
+        int id = after.key();
+        return switch (state) {
+            case "ALL" -> bookingRepository.findAllByBookerId(userId, start, id, limit);
+            case "CURRENT" -> currentBookings.findByBooker(userId, now, after, limit.max());
+            case "PAST" -> bookingRepository.findPastByBookerId(userId, now, start, id, limit);
+            case "FUTURE" -> bookingRepository.findFutureByBookerId(userId, now, start, id, limit);
+            case "WAITING" -> bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, start, id, limit);
+            case "REJECTED" -> bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, start, id, limit);
+            default -> throw new BadRequestException("Неизвестное значение статуса: " + state);
+        };
+    }
+
+    /**
+     * Выбирает бронирования предметов владельца запросом, соответствующим состоянию.
+     *
+     * @param userId идентификатор пользователя-владельца
+     * @param state проверенное состояние для фильтрации
+     * @param after позиция, после которой начинается страница
+     * @param limit максимальное количество бронирований
+     * @return бронирования в порядке убывания (start_date, id)
+     */
+    private List<BookingView> findOwnerBookings(Integer userId, String state, BookingCursor after, Limit limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = after.start();
+        int id = after.key();
+        return switch (state) {
+            case "ALL" -> bookingRepository.findAllByOwnerId(userId, start, id, limit);
+            case "CURRENT" -> currentBookings.findByOwner(userId, now, after, limit.max());
+            case "PAST" -> bookingRepository.findPastByOwnerId(userId, now, start, id, limit);
+            case "FUTURE" -> bookingRepository.findFutureByOwnerId(userId, now, start, id, limit);
+            case "WAITING" -> bookingRepository.findByOwnerIdAndStatus(userId, Status.WAITING, start, id, limit);
+            case "REJECTED" -> bookingRepository.findByOwnerIdAndStatus(userId, Status.REJECTED, start, id, limit);
+            default -> throw new BadRequestException("Неизвестное значение статуса: " + state);
+        };
+    }
+
+    /**
+     * Проверяет размер страницы списка бронирований.
+     *
+     * @param limit размер страницы, указанный клиентом, или null
+     * @return размер страницы
+     * @throws BadRequestException если размер страницы вне допустимого диапазона
+     */
+    private int validatePageSize(Integer limit) {
+        if (limit == null) {
+            return pageDefaultLimit;
+        }
+        if (limit < 1 || limit > pageMaxLimit) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + pageMaxLimit);
+        }
+        return limit;
+    }
+
+    /**
+     * Возвращает сохранённые бронирования страницы как элементы слияния.
+     *
+     * @param bookings бронирования в порядке убывания (start_date, id)
+     * @return элементы с ключом, равным идентификатору бронирования
+     */
+    private static List<PageEntry> storedEntries(List<BookingView> bookings) {
         return bookings.stream()
-                .map(bookingMapper::mapToDto)
+                .map(booking -> new PageEntry(booking, booking.id()))
                 .toList();
     }
+
+    /**
+     * Возвращает неразвёрнутые повторения правила, расположенные после позиции,
+     * в порядке убывания даты начала.
+     * <p>
+     * Повторения создаются по мере обхода и не сохраняются в базе данных. Ключом повторения
+     * служит идентификатор правила со знаком минус: при равной дате начала повторения
+     * следуют за сохранёнными бронированиями, а повторения разных правил различаются.
+     * </p>
+     *
+     * @param rule правило повторяющегося бронирования с загруженными предметом и автором
+     * @param after позиция, после которой начинается страница
+     * @return итератор виртуальных бронирований в статусе WAITING без идентификатора
+     */
+    private static Iterator<PageEntry> virtualOccurrences(RecurringBooking rule, BookingCursor after) {
+        int key = -rule.getId();
+        return IntStream.iterate(rule.getOccurrences() - 1, k -> k >= rule.getMaterializedCount(), k -> k - 1)
+                .dropWhile(k -> !after.precedes(rule.occurrenceStart(k), key))
+                .mapToObj(k -> new PageEntry(occurrenceView(rule, k), key))
+                .iterator();
+    }
+
+    /**
+     * Возвращает повторение правила в виде элемента списка бронирований.
+     *
+     * @param rule правило повторяющегося бронирования с загруженными предметом и автором
+     * @param occurrence номер повторения
+     * @return виртуальное бронирование в статусе WAITING без идентификатора
+     */
+    private static BookingView occurrenceView(RecurringBooking rule, int occurrence) {
+        Item item = rule.getItem();
+        User booker = rule.getBooker();
+        return new BookingView(null, rule.occurrenceStart(occurrence), rule.occurrenceEnd(occurrence), Status.WAITING,
+                item.getId(), item.getName(), item.getDescription(), item.isAvailable(),
+                booker.getId(), booker.getName(), booker.getEmail());
+    }
+
+    /**
+     * Сливает упорядоченные по убыванию (start_date, ключ) последовательности элементов страницы.
+     * <p>
+     * Из каждой последовательности в каждый момент читается только очередной элемент,
+     * слияние останавливается после {@code max} элементов.
+     * </p>
+     *
+     * @param sources последовательности, каждая упорядочена по убыванию (start_date, ключ)
+     * @param max максимальное количество элементов результата
+     * @return первые элементы общей последовательности
+     */
+    private static List<PageEntry> mergePage(List<Iterator<PageEntry>> sources, int max) {
+        PriorityQueue<MergeHead> heads = new PriorityQueue<>(Comparator
+                .comparing((MergeHead head) -> head.entry().booking().start(), Comparator.reverseOrder())
+                .thenComparing(head -> head.entry().key(), Comparator.reverseOrder()));
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).hasNext()) {
+                heads.add(new MergeHead(sources.get(i).next(), i));
+            }
+        }
+        List<PageEntry> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < max) {
+            MergeHead head = heads.poll();
+            merged.add(head.entry());
+            Iterator<PageEntry> source = sources.get(head.source());
+            if (source.hasNext()) {
+                heads.add(new MergeHead(source.next(), head.source()));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Формирует страницу из прочитанных элементов.
+     *
+     * @param entries не больше {@code pageSize + 1} элементов после позиции
+     * @param pageSize размер страницы
+     * @return страница и позиция её последнего элемента, если следующая страница существует
+     */
+    private BookingPageDto toPage(List<PageEntry> entries, int pageSize) {
+        List<PageEntry> page = entries.subList(0, Math.min(pageSize, entries.size()));
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            PageEntry last = page.getLast();
+            nextCursor = new BookingCursor(last.booking().start(), last.key()).encode();
+        }
+        return new BookingPageDto(page.stream().map(entry -> bookingMapper.mapToDtoFromView(entry.booking())).toList(),
+                nextCursor);
+    }
+
+    /**
+     * Элемент страницы списка бронирований.
+     *
+     * @param booking сохранённое бронирование или виртуальное повторение
+     * @param key ключ порядка при равной дате начала, см. {@link BookingCursor#key()}
+     */
+    private record PageEntry(BookingView booking, int key) {
+    }
+
+    /**
+     * Очередной элемент последовательности при слиянии.
+     *
+     * @param entry элемент страницы
+     * @param source номер последовательности
+     */
+    private record MergeHead(PageEntry entry, int source) {
+    }
+
+    /**
+     * Освобождает период бронирования, переставшего занимать предмет.
+     * <p>
+     * Удаляет период из индекса конфликтов и публикует {@link BookingReleasedEvent},
+     * по которому после фиксации транзакции продвигается лист ожидания предмета.
+     * </p>
+     *
+     * @param booking отклонённое или отменённое бронирование с загруженным предметом
+     */
+    private void release(Booking booking) {
+        conflictIndex.remove(booking.getItem().getId(), booking.getId());
+        eventPublisher.publishEvent(new BookingReleasedEvent(booking.getItem().getId()));
+    }
+
+    /**
+     * Занимает период бронирования в индексе конфликтов.
+     * <p>
+     * Вызывается под блокировкой строки предмета после перечитывания его периодов, поэтому
+     * два параллельных запроса, в том числе на разных экземплярах сервера, не могут занять
+     * один и тот же период предмета.
+     * При откате транзакции индекс предмета перечитывается из базы данных.
+     * </p>
+     *
+     * @param booking бронирование с заполненными идентификатором, предметом и датами
+     * @throws ConflictException если период пересекается с другим бронированием предмета
+     */
+    private void occupy(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        if (!conflictIndex.tryAdd(itemId, booking.getId(), booking.getStart(), booking.getEnd())) {
+            log.error("Период бронирования {} - {} пересекается с другим бронированием вещи с id = {}",
+                    booking.getStart(), booking.getEnd(), itemId);
+            throw new ConflictException("Вещь с id " + itemId + " уже забронирована на указанный период");
+        }
+    }
+
+    /**
+     * Проверяет, что период предмета не удерживается другим пользователем.
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя, создающего бронирование
+     * @param start начало периода
+     * @param end окончание периода
+     * @throws ConflictException если период пересекается с действующим удержанием другого пользователя
+     */
+    private void checkNotHeld(Integer itemId, Integer userId, LocalDateTime start, LocalDateTime end) {
+        if (holdIndex.isHeldByOther(itemId, userId, start, end, LocalDateTime.now())) {
+            log.error("Период бронирования {} - {} вещи с id = {} удерживается другим пользователем",
+                    start, end, itemId);
+            throw new ConflictException("Вещь с id " + itemId + " временно удерживается другим пользователем");
+        }
+    }
+
+    /**
+     * Определяет, почему бронирование не найдено запросом с проверкой прав доступа.
+     *
+     * @param bookingId идентификатор бронирования
+     * @param userId идентификатор пользователя, запрашивающего бронирование
+     * @return исключение, описывающее причину отказа
+     */
+    private RuntimeException explainNotVisible(Integer bookingId, Integer userId) {
+        if (!userRepository.existsById(userId)) {
+            return new NotFoundException("Пользователь с id " + userId + " не найден!");
+        }
+        if (!bookingRepository.existsById(bookingId)) {
+            return new NotFoundException("Бронирование с id " + bookingId + " не найдено!");
+        }
+        log.error("Попытка посмотреть детали бронирования пользователем с id = {}, " +
+                "который не является автором бронирования и владельцем вещи!", userId);
+        return new BadRequestException("Пользователь с id " + userId +
+                " не является владельцем вещи или автором бронирования!");
+    }
+
+    /**
+     * Определяет, почему условный UPDATE статуса не изменил ни одной строки.
+     * <p>
+     * Выполняется только в неуспешном случае, поэтому не нагружает основной путь подтверждения.
+     * </p>
+     *
+     * @param bookingId идентификатор бронирования
+     * @param userId идентификатор пользователя, обрабатывающего бронирование
+     * @return исключение, описывающее причину отказа
+     */
+    private RuntimeException explainNotUpdated(Integer bookingId, Integer userId) {
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Бронирование с id " + bookingId + " не найдено!");
+        }
+        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
+            return new BadRequestException("Обновление статуса бронирования доступно только владельцам вещи!");
+        }
+        log.error("Статус бронирования с id = {} уже изменён на {}", bookingId, booking.getStatus());
+        return new ConflictException("Бронирование с id " + bookingId + " уже обработано, текущий статус: " +
+                booking.getStatus());
+    }
+
+    /**
+     * Определяет, почему условный UPDATE отмены не изменил ни одной строки.
+     *
+     * @param bookingId идентификатор бронирования
+     * @param userId идентификатор пользователя, отменяющего бронирование
+     * @return исключение, описывающее причину отказа
+     */
+    private RuntimeException explainNotCancelled(Integer bookingId, Integer userId) {
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Бронирование с id " + bookingId + " не найдено!");
+        }
+        if (!Objects.equals(booking.getBooker().getId(), userId)) {
+            return new BadRequestException("Отмена бронирования доступна только автору бронирования!");
+        }
+        log.error("Бронирование с id = {} нельзя отменить, текущий статус: {}", bookingId, booking.getStatus());
+        if (booking.getStatus() == Status.APPROVED) {
+            return new ConflictException("Бронирование с id " + bookingId + " уже началось и не может быть отменено");
+        }
+        return new ConflictException("Бронирование с id " + bookingId + " не может быть отменено, текущий статус: " +
+                booking.getStatus());
+    }
+
+    /**
+     * Преобразует нарушение exclusion constraint на пересечение периодов в бизнес-ошибку.
+     *
+     * @param e ошибка целостности данных
+     * @param conflictMessage сообщение для ошибки конфликта
+     * @return {@link ConflictException} для нарушения exclusion constraint, иначе исходная ошибка
+     */
+    private RuntimeException translateIntegrityViolation(DataIntegrityViolationException e, String conflictMessage) {
+        if (!isOverlapViolation(e)) {
+            return e;
+        }
+        log.error("Нарушено ограничение на пересечение периодов бронирований: {}", conflictMessage);
+        return new ConflictException(conflictMessage);
+    }
+
+    /**
+     * Проверяет, вызвана ли ошибка целостности нарушением exclusion constraint.
+     *
+     * @param e ошибка целостности данных
+     * @return true если в цепочке причин есть SQLException с SQLSTATE 23P01
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Проверяет корректность значения состояния бронирования.
      * <p>
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Количество бронирований пользователя в каждом состоянии.
+ * <p>
+ * Вычисляется одним агрегирующим запросом: каждое состояние - отдельный агрегат
+ * с условием FILTER по тем же критериям, что и в запросах списков бронирований.
+ * Одно бронирование может учитываться в нескольких состояниях, например FUTURE и WAITING.
+ * </p>
+ *
+ * @param all количество всех бронирований
+ * @param current количество бронирований, которые начались, но еще не закончились
+ * @param past количество завершенных бронирований
+ * @param future количество бронирований, которые еще не начались
+ * @param waiting количество бронирований, ожидающих подтверждения
+ * @param rejected количество отклоненных бронирований
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#countStatesByBookerId(Integer, java.time.LocalDateTime)
+ * @see BookingRepository#countStatesByOwnerId(Integer, java.time.LocalDateTime)
+ * @since 2025
+ */
+public record BookingStateCounts(Long all, Long current, Long past, Long future, Long waiting, Long rejected) {
+}
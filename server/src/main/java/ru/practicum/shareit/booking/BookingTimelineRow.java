@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка временной шкалы бронирований предметов владельца.
+ * <p>
+ * Содержит только столбцы, которые попадают в {@link ru.practicum.shareit.booking.dto.BookingTimelineDto},
+ * без названий и описаний предметов и данных арендаторов.
+ * </p>
+ *
+ * @param itemId идентификатор предмета
+ * @param start дата и время начала бронирования
+ * @param end дата и время окончания бронирования
+ * @param status статус бронирования
+ * @param bookerId идентификатор автора бронирования
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#findTimelineByOwnerId(Integer, LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+public record BookingTimelineRow(Integer itemId,
+                                 LocalDateTime start,
+                                 LocalDateTime end,
+                                 Status status,
+                                 Integer bookerId) {
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Представление бронирования для списков бронирований.
+ * <p>
+ * Содержит только столбцы, которые попадают в {@code BookingDto}. Выбирается
+ * конструкторным выражением JPQL: строки не становятся управляемыми сущностями,
+ * поэтому не попадают в контекст персистентности и не проверяются на изменения.
+ * </p>
+ *
+ * @param id идентификатор бронирования; null для виртуального повторения
+ * @param start дата и время начала бронирования
+ * @param end дата и время окончания бронирования
+ * @param status статус бронирования
+ * @param itemId идентификатор предмета
+ * @param itemName название предмета
+ * @param itemDescription описание предмета
+ * @param itemAvailable доступность предмета для бронирования
+ * @param bookerId идентификатор автора бронирования
+ * @param bookerName имя автора бронирования
+ * @param bookerEmail электронная почта автора бронирования
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingRepository#findAllByBookerId(Integer, LocalDateTime, Integer, org.springframework.data.domain.Limit)
+ * @see ru.practicum.shareit.mapper.BookingMapper#mapToDtoFromView(BookingView)
+ * @since 2025
+ */
+public record BookingView(Integer id,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          Status status,
+                          Integer itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Integer bookerId,
+                          String bookerName,
+                          String bookerEmail) {
+}
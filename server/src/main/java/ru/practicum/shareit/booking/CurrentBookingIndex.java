@@ -0,0 +1,437 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory набор текущих бронирований (состояние CURRENT) по арендатору и по владельцу предмета.
+ * <p>
+ * Бронирования, начинающиеся в пределах {@code shareit.booking.current.lookahead}, ставятся
+ * в колесо таймеров с шагом {@code shareit.booking.current.tick}. При наступлении начала
+ * бронирование переносится в отсортированные наборы арендатора и владельца, при наступлении
+ * окончания - удаляется из них. Колесо продвигается при каждом запросе, поэтому запрос
+ * CURRENT не вычисляет условие {@code start <= now <= end} по таблице бронирований.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Набор хранит только ключи бронирований; строки страницы выбираются по первичному ключу,
+ *       поэтому изменения статуса, предмета или пользователя видны сразу</li>
+ *   <li>Новые бронирования добавляются после фиксации транзакции через {@link CurrentBookingListener}
+ *       и {@link BookingBatchRepository}</li>
+ *   <li>Периодическая сверка с базой данных добавляет бронирования, вошедшие в окно упреждения,
+ *       и удаляет удалённые; идентификаторы, не найденные при выборке страницы, удаляются сразу</li>
+ *   <li>Набор защищён блокировкой чтения-записи: страницы читаются параллельно, блокировку записи
+ *       берут только продвижение колеса (не чаще раза за тик), сверка и добавление бронирований,
+ *       начинающихся в пределах окна упреждения</li>
+ *   <li>Набор хранится на каждом экземпляре сервера отдельно: бронирования, созданные на других
+ *       экземплярах, появляются в нём при очередной сверке</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)
+ * @see BookingRepository#findCurrentKeys(LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+@Slf4j
+@Component
+public class CurrentBookingIndex {
+
+    /**
+     * Порядок списков бронирований: по убыванию даты начала, затем идентификатора.
+     */
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator.comparing((Entry entry) -> entry.start)
+            .thenComparing(entry -> entry.id)
+            .reversed();
+
+    /**
+     * Репозиторий для сверки набора и выборки строк страницы.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Шаг колеса таймеров в миллисекундах.
+     */
+    private final long tickMillis;
+
+    /**
+     * Окно упреждения: бронирования, начинающиеся позже, в набор не добавляются до очередной сверки.
+     */
+    private final Duration lookahead;
+
+    /**
+     * Ячейки колеса таймеров; ячейка тика {@code t} имеет индекс {@code t mod wheel.length}.
+     */
+    private final List<Set<Entry>> wheel;
+
+    /**
+     * Бронирования набора по идентификатору, как ожидающие начала, так и текущие.
+     */
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    /**
+     * Текущие бронирования по идентификатору арендатора.
+     */
+    private final Map<Integer, NavigableSet<Entry>> activeByBooker = new HashMap<>();
+
+    /**
+     * Текущие бронирования по идентификатору владельца предмета.
+     */
+    private final Map<Integer, NavigableSet<Entry>> activeByOwner = new HashMap<>();
+
+    /**
+     * Блокировка набора: чтение страниц под блокировкой чтения, изменения под блокировкой записи.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Последний обработанный тик колеса; читается без блокировки, чтобы не брать блокировку записи,
+     * пока тик не сменился.
+     */
+    private volatile long currentTick;
+
+    /**
+     * Порядковый номер последнего добавления; отделяет добавления, сделанные во время сверки.
+     */
+    private long sequence;
+
+    public CurrentBookingIndex(BookingRepository bookingRepository,
+                               @Value("${shareit.booking.current.tick:PT1S}") Duration tick,
+                               @Value("${shareit.booking.current.lookahead:PT5M}") Duration lookahead) {
+        if (tick.toMillis() < 1 || lookahead.compareTo(tick) < 0) {
+            throw new IllegalArgumentException("Шаг колеса должен быть положительным и не больше окна упреждения: "
+                    + tick + ", " + lookahead);
+        }
+        this.bookingRepository = bookingRepository;
+        this.tickMillis = tick.toMillis();
+        this.lookahead = lookahead;
+        int slots = (int) (lookahead.toMillis() / tickMillis) + 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.currentTick = tickOf(LocalDateTime.now());
+    }
+
+    /**
+     * Добавляет бронирование в набор после фиксации текущей транзакции.
+     * <p>
+     * Бронирования, начинающиеся позже окна упреждения, пропускаются: их добавит сверка.
+     * При откате транзакции бронирование не добавляется.
+     * </p>
+     *
+     * @param booking бронирование с заполненными идентификатором, датами, предметом и автором
+     */
+    public void track(Booking booking) {
+        CurrentBookingKey key = new CurrentBookingKey(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getBooker().getId(), booking.getItem().getOwner().getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            track(key, LocalDateTime.now());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                track(key, LocalDateTime.now());
+            }
+        });
+    }
+
+    /**
+     * Возвращает страницу текущих бронирований пользователя-арендатора.
+     *
+     * @param bookerId идентификатор пользователя-арендатора
+     * @param now момент времени, относительно которого определяется состояние
+     * @param after позиция, после которой начинается страница
+     * @param limit максимальное количество бронирований
+     * @return бронирования в порядке убывания (start_date, id)
+     */
+    public List<BookingView> findByBooker(Integer bookerId, LocalDateTime now, BookingCursor after, int limit) {
+        return find(activeByBooker, bookerId, now, after, limit);
+    }
+
+    /**
+     * Возвращает страницу текущих бронирований предметов пользователя-владельца.
+     *
+     * @param ownerId идентификатор пользователя-владельца
+     * @param now момент времени, относительно которого определяется состояние
+     * @param after позиция, после которой начинается страница
+     * @param limit максимальное количество бронирований
+     * @return бронирования в порядке убывания (start_date, id)
+     */
+    public List<BookingView> findByOwner(Integer ownerId, LocalDateTime now, BookingCursor after, int limit) {
+        return find(activeByOwner, ownerId, now, after, limit);
+    }
+
+    /**
+     * Сверяет набор с базой данных при запуске приложения и по расписанию.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.current.reconcile-cron:0 * * * * *}")
+    public void reconcile() {
+        reconcile(LocalDateTime.now());
+    }
+
+    /**
+     * Сверяет набор с бронированиями, которые не закончились к моменту {@code now}
+     * и начинаются не позже окончания окна упреждения.
+     * <p>
+     * Недостающие бронирования добавляются. Бронирования набора, отсутствующие в базе данных,
+     * удаляются, если были добавлены до начала чтения: более поздние добавления могли быть
+     * зафиксированы уже после чтения.
+     * </p>
+     *
+     * @param now момент сверки
+     */
+    void reconcile(LocalDateTime now) {
+        long readSequence;
+        lock.readLock().lock();
+        try {
+            readSequence = sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<CurrentBookingKey> keys = bookingRepository.findCurrentKeys(now, now.plus(lookahead));
+        Set<Integer> found = new HashSet<>();
+        int added = 0;
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            advance(tickOf(now));
+            for (CurrentBookingKey key : keys) {
+                found.add(key.id());
+                if (!entries.containsKey(key.id())) {
+                    add(key);
+                    added++;
+                }
+            }
+            for (Entry entry : List.copyOf(entries.values())) {
+                if (entry.sequence <= readSequence && !found.contains(entry.id)) {
+                    forget(entry);
+                    removed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Сверка набора текущих бронирований: найдено {}, добавлено {}, удалено {}",
+                keys.size(), added, removed);
+    }
+
+    /**
+     * Возвращает количество бронирований в наборе, включая ожидающие начала.
+     *
+     * @return количество бронирований в наборе
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<BookingView> find(Map<Integer, NavigableSet<Entry>> activeByUser, Integer userId,
+                                   LocalDateTime now, BookingCursor after, int limit) {
+        while (true) {
+            List<Integer> ids = page(activeByUser, userId, now, after, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            List<BookingView> bookings = bookingRepository.findViewsByIdIn(ids);
+            if (bookings.size() == ids.size()) {
+                return bookings;
+            }
+            Set<Integer> missing = new HashSet<>(ids);
+            bookings.forEach(booking -> missing.remove(booking.id()));
+            log.debug("Из набора текущих бронирований удалены отсутствующие в базе данных: {}", missing);
+            lock.writeLock().lock();
+            try {
+                missing.stream().map(entries::get).filter(entry -> entry != null).forEach(this::forget);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private List<Integer> page(Map<Integer, NavigableSet<Entry>> activeByUser, Integer userId,
+                               LocalDateTime now, BookingCursor after, int limit) {
+        long tick = tickOf(now);
+        if (tick > currentTick) {
+            lock.writeLock().lock();
+            try {
+                advance(tick);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> active = activeByUser.get(userId);
+            if (active == null) {
+                return List.of();
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (Entry entry : active.tailSet(Entry.position(after), false)) {
+                if (!entry.start.isAfter(now) && !entry.end.isBefore(now)) {
+                    ids.add(entry.id);
+                    if (ids.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void track(CurrentBookingKey key, LocalDateTime now) {
+        if (key.start().isAfter(now.plus(lookahead))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!entries.containsKey(key.id())) {
+                advance(tickOf(now));
+                add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(CurrentBookingKey key) {
+        Entry entry = new Entry(key, tickOf(key.start()), tickOf(key.end()) + 1, ++sequence);
+        entries.put(entry.id, entry);
+        schedule(entry, entry.startTick);
+    }
+
+    /**
+     * Продвигает колесо до тика {@code tick}, срабатывая таймеры всех пройденных ячеек.
+     * При разрыве больше одного оборота каждая ячейка просматривается один раз.
+     */
+    private void advance(long tick) {
+        if (tick <= currentTick) {
+            return;
+        }
+        long steps = Math.min(tick - currentTick, wheel.size());
+        long from = currentTick;
+        currentTick = tick;
+        List<Entry> due = new ArrayList<>();
+        for (long t = from + 1; t <= from + steps; t++) {
+            wheel.get(slotOf(t)).removeIf(entry -> {
+                if (entry.deadline <= tick) {
+                    due.add(entry);
+                    return true;
+                }
+                return false;
+            });
+        }
+        due.forEach(this::fire);
+    }
+
+    private void schedule(Entry entry, long tick) {
+        entry.deadline = tick;
+        if (tick <= currentTick) {
+            fire(entry);
+            return;
+        }
+        wheel.get(slotOf(tick)).add(entry);
+    }
+
+    private void fire(Entry entry) {
+        if (!entry.active && entry.endTick > currentTick) {
+            entry.active = true;
+            activeByBooker.computeIfAbsent(entry.bookerId, id -> new TreeSet<>(NEWEST_FIRST)).add(entry);
+            activeByOwner.computeIfAbsent(entry.ownerId, id -> new TreeSet<>(NEWEST_FIRST)).add(entry);
+            schedule(entry, entry.endTick);
+            return;
+        }
+        forget(entry);
+    }
+
+    private void forget(Entry entry) {
+        entries.remove(entry.id);
+        wheel.get(slotOf(entry.deadline)).remove(entry);
+        if (entry.active) {
+            entry.active = false;
+            removeActive(activeByBooker, entry.bookerId, entry);
+            removeActive(activeByOwner, entry.ownerId, entry);
+        }
+    }
+
+    private static void removeActive(Map<Integer, NavigableSet<Entry>> activeByUser, Integer userId, Entry entry) {
+        NavigableSet<Entry> active = activeByUser.get(userId);
+        if (active != null && active.remove(entry) && active.isEmpty()) {
+            activeByUser.remove(userId);
+        }
+    }
+
+    private long tickOf(LocalDateTime dateTime) {
+        return Math.floorDiv(BookingConflictIndex.toEpochMilli(dateTime), tickMillis);
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.size());
+    }
+
+    /**
+     * Бронирование набора с тиками начала и окончания.
+     */
+    private static final class Entry {
+
+        private final Integer id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Integer bookerId;
+        private final Integer ownerId;
+        private final long startTick;
+        private final long endTick;
+        private final long sequence;
+        private long deadline;
+        private boolean active;
+
+        private Entry(CurrentBookingKey key, long startTick, long endTick, long sequence) {
+            this.id = key.id();
+            this.start = key.start();
+            this.end = key.end();
+            this.bookerId = key.bookerId();
+            this.ownerId = key.ownerId();
+            this.startTick = startTick;
+            this.endTick = endTick;
+            this.sequence = sequence;
+        }
+
+        private Entry(LocalDateTime start, Integer id) {
+            this(new CurrentBookingKey(id, start, start, null, null), 0, 0, 0);
+        }
+
+        static Entry position(BookingCursor cursor) {
+            return new Entry(cursor.start(), cursor.key());
+        }
+    }
+}
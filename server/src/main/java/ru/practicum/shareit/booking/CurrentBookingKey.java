@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ключ бронирования в наборе текущих бронирований.
+ * <p>
+ * Содержит только неизменяемые после создания поля бронирования: по ним определяется,
+ * когда бронирование становится текущим и в чьи списки оно попадает.
+ * </p>
+ *
+ * @param id идентификатор бронирования
+ * @param start дата и время начала бронирования
+ * @param end дата и время окончания бронирования
+ * @param bookerId идентификатор автора бронирования
+ * @param ownerId идентификатор владельца предмета
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see CurrentBookingIndex
+ * @see BookingRepository#findCurrentKeys(LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+public record CurrentBookingKey(Integer id, LocalDateTime start, LocalDateTime end, Integer bookerId,
+                                Integer ownerId) {
+}
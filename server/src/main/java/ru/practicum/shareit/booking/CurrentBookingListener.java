@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Слушатель сохранения бронирований, добавляющий их в набор текущих бронирований.
+ * <p>
+ * Бронирования, вставленные пакетом через {@link BookingBatchRepository}, добавляются
+ * в набор там же. Индекс получается через {@link ObjectProvider}: слушатель создаётся вместе
+ * с фабрикой менеджеров сущностей, от которой сам индекс зависит через репозиторий.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see CurrentBookingIndex#track(Booking)
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentBookingListener {
+
+    /**
+     * Набор текущих бронирований.
+     */
+    private final ObjectProvider<CurrentBookingIndex> currentBookings;
+
+    /**
+     * Добавляет сохранённое бронирование в набор текущих бронирований после фиксации транзакции.
+     *
+     * @param booking сохранённое бронирование с присвоенным идентификатором
+     */
+    @PostPersist
+    public void onPersist(Booking booking) {
+        currentBookings.ifAvailable(index -> index.track(booking));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Свободный период предмета, не пересекающийся с активными бронированиями.
+ *
+ * @param start дата и время начала свободного периода
+ * @param end дата и время окончания свободного периода (не включительно)
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingConflictIndex#freeIntervals(Integer, LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+public record FreeInterval(LocalDateTime start, LocalDateTime end) {
+}
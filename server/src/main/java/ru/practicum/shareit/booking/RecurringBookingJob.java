@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фоновое разворачивание повторяющихся бронирований в скользящем окне.
+ * <p>
+ * При каждом запуске находит правила, следующее повторение которых начинается не позже
+ * границы окна, и разворачивает каждое правило в отдельной транзакции.
+ * Ошибка разворачивания одного правила не мешает остальным.
+ * </p>
+ *
+ * <p><b>Настройки:</b></p>
+ * <ul>
+ *   <li>{@code shareit.booking.recurring.cron} - расписание запуска, значение {@code -} отключает задачу</li>
+ *   <li>{@code shareit.booking.recurring.window} - ширина окна разворачивания</li>
+ *   <li>{@code shareit.booking.recurring.batch-size} - максимальное количество правил за запуск</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see RecurringBookingService#materialize(Integer, LocalDateTime)
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecurringBookingJob {
+
+    private final RecurringBookingRepository recurringBookingRepository;
+    private final RecurringBookingService recurringBookingService;
+
+    @Value("${shareit.booking.recurring.window:P28D}")
+    private Duration window;
+
+    @Value("${shareit.booking.recurring.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Разворачивает повторения, попавшие в окно с момента предыдущего запуска.
+     *
+     * @return количество созданных бронирований
+     */
+    @Scheduled(cron = "${shareit.booking.recurring.cron:0 0 * * * *}")
+    public int materializeDue() {
+        LocalDateTime horizon = LocalDateTime.now().plus(window);
+        List<Integer> ruleIds = recurringBookingRepository.findIdsDueBefore(horizon, Limit.of(batchSize));
+        int created = 0;
+        for (Integer ruleId : ruleIds) {
+            try {
+                created += recurringBookingService.materialize(ruleId, horizon);
+            } catch (RuntimeException e) {
+                log.error("Не удалось развернуть повторяющееся бронирование id = {}", ruleId, e);
+            }
+        }
+        if (!ruleIds.isEmpty()) {
+            log.info("Развёрнуто повторяющихся бронирований: правил {}, создано бронирований {}",
+                    ruleIds.size(), created);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.RecurringBooking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с правилами повторяющихся бронирований в базе данных.
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see RecurringBooking
+ * @see RecurringBookingServiceImpl
+ * @since 2025
+ */
+@Repository
+public interface RecurringBookingRepository extends JpaRepository<RecurringBooking, Integer> {
+
+    /**
+     * Находит правила пользователя, у которых остались неразвёрнутые повторения.
+     * <p>
+     * Предмет и автор загружаются тем же запросом, чтобы виртуальные повторения
+     * отображались без дополнительных запросов.
+     * </p>
+     *
+     * @param bookerId идентификатор автора бронирований, не должен быть null
+     * @return правила с неразвёрнутыми повторениями
+     *
+     * @see BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)
+     */
+    @Query("SELECT r FROM RecurringBooking r " +
+            "JOIN FETCH r.item " +
+            "JOIN FETCH r.booker " +
+            "WHERE r.booker.id = :bookerId " +
+            "AND r.materializedCount < r.occurrences")
+    List<RecurringBooking> findPendingByBookerId(@Param("bookerId") Integer bookerId);
+
+    /**
+     * Находит все правила пользователя.
+     * <p>
+     * Запрос обслуживается индексом {@code idx_recurring_bookings_booker (booker_id)}.
+     * </p>
+     *
+     * @param bookerId идентификатор автора бронирований, не должен быть null
+     * @return правила пользователя в порядке убывания идентификатора
+     *
+     * @see RecurringBookingServiceImpl#getAllForBooker(Integer)
+     */
+    @Query("SELECT r FROM RecurringBooking r " +
+            "JOIN FETCH r.item " +
+            "WHERE r.booker.id = :bookerId " +
+            "ORDER BY r.id DESC")
+    List<RecurringBooking> findAllByBookerId(@Param("bookerId") Integer bookerId);
+
+    /**
+     * Возвращает количество неразвёрнутых повторений всех правил автора.
+     *
+     * @param bookerId идентификатор автора бронирований, не должен быть null
+     * @return количество виртуальных повторений в списке бронирований автора
+     *
+     * @see BookingServiceImpl#getBookerSummary(Integer)
+     */
+    @Query("SELECT COALESCE(SUM(r.occurrences - r.materializedCount), 0) FROM RecurringBooking r " +
+            "WHERE r.booker.id = :bookerId " +
+            "AND r.materializedCount < r.occurrences")
+    long countPendingOccurrencesByBookerId(@Param("bookerId") Integer bookerId);
+
+    /**
+     * Находит правила, следующее повторение которых попадает в окно разворачивания.
+     * <p>
+     * Запрос обслуживается индексом {@code idx_recurring_bookings_next_start (next_start)}.
+     * </p>
+     *
+     * @param horizon граница окна разворачивания
+     * @param limit максимальное количество правил
+     * @return идентификаторы правил в порядке начала следующего повторения
+     *
+     * @see RecurringBookingJob
+     */
+    @Query("SELECT r.id FROM RecurringBooking r " +
+            "WHERE r.nextStart <= :horizon " +
+            "AND r.materializedCount < r.occurrences " +
+            "ORDER BY r.nextStart, r.id")
+    List<Integer> findIdsDueBefore(@Param("horizon") LocalDateTime horizon, Limit limit);
+
+    /**
+     * Находит правило по идентификатору и блокирует его строку до конца транзакции.
+     * <p>
+     * Не даёт двум параллельным запускам развернуть одни и те же повторения дважды.
+     * </p>
+     *
+     * @param id идентификатор правила, не должен быть null
+     * @return Optional с правилом, если оно найдено
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringBooking r WHERE r.id = :id")
+    Optional<RecurringBooking> findByIdForUpdate(@Param("id") Integer id);
+}
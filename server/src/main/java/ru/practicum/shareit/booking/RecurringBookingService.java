@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.RecurringBookingDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сервис для управления повторяющимися бронированиями.
+ * <p>
+ * Правило повторения хранится один раз, а повторения разворачиваются в обычные
+ * бронирования лениво, по мере их попадания в скользящее окно. Повторения за пределами
+ * окна существуют только виртуально и не занимают предмет.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see RecurringBookingServiceImpl
+ * @see RecurringBookingJob
+ * @since 2025
+ */
+public interface RecurringBookingService {
+    /**
+     * Создает повторяющееся бронирование.
+     * <p>
+     * Повторения, попадающие в окно разворачивания, проверяются на пересечение
+     * с существующими бронированиями предмета и сразу сохраняются как бронирования
+     * в статусе WAITING. Если хотя бы одно из них пересекается, правило не создаётся.
+     * </p>
+     *
+     * @param recurringBookingRequestDto правило повторения, не должен быть null
+     * @param userId идентификатор пользователя, создающего бронирование, не должен быть null
+     * @return RecurringBookingDto созданное правило и бронирования развёрнутых повторений
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если правило некорректно
+     *         или нарушены правила бронирования
+     * @throws ru.practicum.shareit.exception.ConflictException если повторение в окне разворачивания
+     *         пересекается с другим бронированием предмета
+     */
+    RecurringBookingDto add(RecurringBookingRequestDto recurringBookingRequestDto, Integer userId);
+
+    /**
+     * Разворачивает повторения правила, начало которых не позже границы окна.
+     * <p>
+     * Повторения, пересекающиеся с бронированиями предмета, уже начавшиеся
+     * или приходящиеся на время недоступности предмета, пропускаются и учитываются
+     * в счётчике пропущенных повторений правила.
+     * </p>
+     *
+     * @param recurringBookingId идентификатор правила, не должен быть null
+     * @param horizon граница окна разворачивания, не должна быть null
+     * @return количество созданных бронирований
+     * @throws ru.practicum.shareit.exception.NotFoundException если правило не найдено
+     */
+    int materialize(Integer recurringBookingId, LocalDateTime horizon);
+
+    /**
+     * Возвращает повторяющиеся бронирования пользователя вместе со счётчиками развёрнутых
+     * и пропущенных повторений.
+     * <p>
+     * Бронирования развёрнутых повторений не включаются: они доступны в списке бронирований.
+     * </p>
+     *
+     * @param userId идентификатор автора бронирований, не должен быть null
+     * @return правила пользователя, начиная с последнего созданного
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь не найден
+     */
+    List<RecurringBookingDto> getAllForBooker(Integer userId);
+}
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.RecurringBookingDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.RecurringBooking;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.BookingHoldIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.mapper.BookingMapper;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Реализация сервиса повторяющихся бронирований.
+ * <p>
+ * Развёрнутые повторения - обычные бронирования: они занимают период в {@link BookingConflictIndex},
+ * подтверждаются владельцем и отображаются во всех выборках. Неразвёрнутые повторения
+ * добавляются в список бронирований автора виртуально, см.
+ * {@link BookingServiceImpl#getAllBookingsCurrentUser(Integer, String, Integer, String)}.
+ * </p>
+ * <p>
+ * Повторения, период которых удерживается другим пользователем ({@link BookingHoldIndex}),
+ * при создании правила отклоняются с 409, а при разворачивании пропускаются, как занятые.
+ * Собственные удержания автора на развёрнутые периоды снимаются после фиксации транзакции.
+ * </p>
+ *
+ * <p><b>Настройки:</b></p>
+ * <ul>
+ *   <li>{@code shareit.booking.recurring.window} - ширина окна разворачивания от текущего момента</li>
+ *   <li>{@code shareit.booking.recurring.max-occurrences} - максимальное количество повторений правила</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see RecurringBookingService
+ * @see RecurringBookingRepository
+ * @since 2025
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringBookingServiceImpl implements RecurringBookingService {
+
+    private final RecurringBookingRepository recurringBookingRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingMapper bookingMapper;
+    private final BookingConflictIndex conflictIndex;
+    private final BookingHoldIndex holdIndex;
+
+    /**
+     * Ширина окна разворачивания повторений.
+     */
+    @Value("${shareit.booking.recurring.window:P28D}")
+    private Duration window;
+
+    /**
+     * Максимальное количество повторений одного правила.
+     */
+    @Value("${shareit.booking.recurring.max-occurrences:104}")
+    private int maxOccurrences;
+
+    /**
+     * Создает повторяющееся бронирование и разворачивает повторения из окна.
+     *
+     * @param recurringBookingRequestDto правило повторения
+     * @param userId идентификатор пользователя, создающего бронирование
+     * @return RecurringBookingDto созданное правило и бронирования развёрнутых повторений
+     * @throws NotFoundException если пользователь или предмет не найдены
+     * @throws BadRequestException если правило некорректно или нарушены правила бронирования
+     * @throws ConflictException если повторение в окне пересекается с другим бронированием предмета
+     *         или удерживается другим пользователем
+     *
+     * @see RecurringBookingService#add(RecurringBookingRequestDto, Integer)
+     */
+    @Override
+    @Transactional
+    public RecurringBookingDto add(RecurringBookingRequestDto recurringBookingRequestDto, Integer userId) {
+        log.debug("Получен запрос на создание повторяющегося бронирования пользователем с id = {}: {}",
+                userId, recurringBookingRequestDto);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        if (recurringBookingRequestDto.getItemId() == null) {
+            throw new BadRequestException("Предмет бронирования не может быть пустым");
+        }
+        Integer itemId = recurringBookingRequestDto.getItemId();
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
+        checkRule(recurringBookingRequestDto, item, userId);
+        conflictIndex.refresh(itemId);
+
+        RecurringBooking rule = new RecurringBooking(null, item, user,
+                recurringBookingRequestDto.getStart(), recurringBookingRequestDto.getEnd(),
+                recurringBookingRequestDto.getPeriodDays(), recurringBookingRequestDto.getOccurrences(),
+                0, recurringBookingRequestDto.getStart(), 0, null);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(window);
+        List<Booking> bookings = new ArrayList<>();
+        int count = 0;
+        while (count < rule.getOccurrences() && !rule.occurrenceStart(count).isAfter(horizon)) {
+            LocalDateTime start = rule.occurrenceStart(count);
+            LocalDateTime end = rule.occurrenceEnd(count);
+            if (conflictIndex.overlaps(itemId, start, end)) {
+                log.error("Повторение {} - {} пересекается с другим бронированием вещи с id = {}", start, end, itemId);
+                throw new ConflictException("Вещь с id " + itemId + " уже забронирована на период повторения " +
+                        start + " - " + end);
+            }
+            if (holdIndex.isHeldByOther(itemId, userId, start, end, now)) {
+                log.error("Повторение {} - {} вещи с id = {} удерживается другим пользователем", start, end, itemId);
+                throw new ConflictException("Вещь с id " + itemId + " временно удерживается другим пользователем");
+            }
+            bookings.add(newBooking(item, user, start, end));
+            count++;
+        }
+        rule.markMaterialized(count);
+        RecurringBooking savedRule = recurringBookingRepository.save(rule);
+        bookingRepository.insertAll(bookings);
+        for (Booking booking : bookings) {
+            if (!conflictIndex.tryAdd(itemId, booking.getId(), booking.getStart(), booking.getEnd())) {
+                throw new ConflictException("Вещь с id " + itemId + " уже забронирована на период повторения " +
+                        booking.getStart() + " - " + booking.getEnd());
+            }
+            holdIndex.releaseBooked(itemId, userId, booking.getStart(), booking.getEnd());
+        }
+        log.info("Создано повторяющееся бронирование id = {} вещи с id = {}: повторений {}, развёрнуто {}",
+                savedRule.getId(), itemId, savedRule.getOccurrences(), count);
+        return toDto(savedRule, bookings);
+    }
+
+    /**
+     * Разворачивает повторения правила, начало которых не позже границы окна.
+     *
+     * @param recurringBookingId идентификатор правила
+     * @param horizon граница окна разворачивания
+     * @return количество созданных бронирований
+     * @throws NotFoundException если правило не найдено
+     *
+     * @see RecurringBookingService#materialize(Integer, LocalDateTime)
+     */
+    @Override
+    @Transactional
+    public int materialize(Integer recurringBookingId, LocalDateTime horizon) {
+        RecurringBooking rule = recurringBookingRepository.findByIdForUpdate(recurringBookingId)
+                .orElseThrow(() -> new NotFoundException("Повторяющееся бронирование с id " + recurringBookingId +
+                        " не найдено!"));
+        Integer itemId = rule.getItem().getId();
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
+        conflictIndex.refresh(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> accepted = new ArrayList<>();
+        int count = rule.getMaterializedCount();
+        while (count < rule.getOccurrences() && !rule.occurrenceStart(count).isAfter(horizon)) {
+            LocalDateTime start = rule.occurrenceStart(count);
+            LocalDateTime end = rule.occurrenceEnd(count);
+            if (item.isAvailable() && start.isAfter(now) && !conflictIndex.overlaps(itemId, start, end)
+                    && !holdIndex.isHeldByOther(itemId, rule.getBooker().getId(), start, end, now)) {
+                accepted.add(newBooking(item, rule.getBooker(), start, end));
+            } else {
+                log.info("Повторение {} - {} правила id = {} пропущено: вещь недоступна, период занят или удерживается",
+                        start, end, rule.getId());
+                rule.markSkipped(start);
+            }
+            count++;
+        }
+        rule.markMaterialized(count);
+
+        bookingRepository.insertAll(accepted);
+        List<Integer> lostIds = new ArrayList<>();
+        for (Booking booking : accepted) {
+            if (!conflictIndex.tryAdd(itemId, booking.getId(), booking.getStart(), booking.getEnd())) {
+                lostIds.add(booking.getId());
+                rule.markSkipped(booking.getStart());
+            } else {
+                holdIndex.releaseBooked(itemId, rule.getBooker().getId(), booking.getStart(), booking.getEnd());
+            }
+        }
+        if (!lostIds.isEmpty()) {
+            bookingRepository.deleteAllByIdInBatch(lostIds);
+        }
+        log.debug("Развёрнуты повторения правила id = {}: создано бронирований {}, развёрнуто повторений {} из {}",
+                rule.getId(), accepted.size() - lostIds.size(), count, rule.getOccurrences());
+        return accepted.size() - lostIds.size();
+    }
+
+    /**
+     * Возвращает повторяющиеся бронирования пользователя.
+     *
+     * @param userId идентификатор автора бронирований
+     * @return правила пользователя, начиная с последнего созданного
+     * @throws NotFoundException если пользователь не найден
+     *
+     * @see RecurringBookingService#getAllForBooker(Integer)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecurringBookingDto> getAllForBooker(Integer userId) {
+        log.debug("Получен запрос на просмотр повторяющихся бронирований пользователя с id = {}", userId);
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        return recurringBookingRepository.findAllByBookerId(userId).stream()
+                .map(rule -> toDto(rule, List.of()))
+                .toList();
+    }
+
+    private void checkRule(RecurringBookingRequestDto request, Item item, Integer userId) {
+        if (request.getStart() == null || request.getEnd() == null
+                || request.getPeriodDays() == null || request.getOccurrences() == null) {
+            throw new BadRequestException("Даты первого повторения, шаг и количество повторений обязательны");
+        }
+        if (!request.getStart().isBefore(request.getEnd())) {
+            throw new BadRequestException("Дата начала должна быть раньше даты окончания");
+        }
+        if (!request.getStart().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Дата начала должна быть в будущем");
+        }
+        if (request.getPeriodDays() < 1) {
+            throw new BadRequestException("Шаг повторения должен быть не меньше одного дня");
+        }
+        if (Duration.between(request.getStart(), request.getEnd()).compareTo(Duration.ofDays(request.getPeriodDays())) > 0) {
+            throw new BadRequestException("Период бронирования не может быть длиннее шага повторения");
+        }
+        if (request.getOccurrences() < 1 || request.getOccurrences() > maxOccurrences) {
+            throw new BadRequestException("Количество повторений должно быть от 1 до " + maxOccurrences);
+        }
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            log.error("Попытка забронировать свою вещь!");
+            throw new BadRequestException("Нельзя бронировать свою же вещь");
+        }
+        if (!item.isAvailable()) {
+            log.error("Вещь с id = {}, недоступна для бронирования", item.getId());
+            throw new BadRequestException("Вещь недоступна для бронирования");
+        }
+    }
+
+    private Booking newBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return new Booking(null, start, end, item, booker, Status.WAITING, null);
+    }
+
+    private RecurringBookingDto toDto(RecurringBooking rule, List<Booking> bookings) {
+        return RecurringBookingDto.builder()
+                .id(rule.getId())
+                .itemId(rule.getItem().getId())
+                .start(rule.getStart())
+                .end(rule.getEnd())
+                .periodDays(rule.getPeriodDays())
+                .occurrences(rule.getOccurrences())
+                .materializedCount(rule.getMaterializedCount())
+                .skippedCount(rule.getSkippedCount())
+                .lastSkippedStart(rule.getLastSkippedStart())
+                .bookings(bookings.stream().map(bookingMapper::mapToDto).toList())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат подтверждения или отклонения бронирования.
+ * <p>
+ * Помимо обновленного бронирования содержит количество ожидающих бронирований,
+ * отклонённых автоматически из-за пересечения с подтверждённым периодом.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingDto
+ * @see ru.practicum.shareit.booking.BookingService#approve(Integer, Integer, boolean, boolean)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalDto {
+    private BookingDto booking;
+    private int rejectedOverlapping;
+}
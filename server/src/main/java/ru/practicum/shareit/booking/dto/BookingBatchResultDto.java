@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * DTO с результатом обработки одного элемента пакетного создания бронирований.
+ * <p>
+ * Пакет обрабатывается с частичным успехом: для каждого элемента запроса возвращается
+ * либо созданное бронирование, либо описание ошибки. Порядок результатов совпадает
+ * с порядком элементов запроса.
+ * </p>
+ *
+ * <p><b>Поля:</b></p>
+ * <ul>
+ *   <li><b>index</b> - позиция элемента в запросе, начиная с 0</li>
+ *   <li><b>status</b> - HTTP статус, который вернул бы одиночный запрос для этого элемента</li>
+ *   <li><b>booking</b> - созданное бронирование, только при успехе</li>
+ *   <li><b>error</b> - описание ошибки, только при неудаче</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingDto
+ * @see ru.practicum.shareit.booking.BookingService#addBatch(java.util.List, Integer)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchResultDto {
+    private int index;
+    private int status;
+    private BookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto created(int index, BookingDto booking) {
+        return new BookingBatchResultDto(index, HttpStatus.CREATED.value(), booking, null);
+    }
+
+    public static BookingBatchResultDto failed(int index, HttpStatus status, String error) {
+        return new BookingBatchResultDto(index, status.value(), null, error);
+    }
+}
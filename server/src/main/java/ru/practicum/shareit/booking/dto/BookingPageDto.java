@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница списка бронирований.
+ * <p>
+ * Помимо бронирований страницы содержит непрозрачную позицию, с которой запрашивается
+ * следующая страница. Позиция отсутствует на последней странице.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingDto
+ * @see ru.practicum.shareit.booking.BookingService#getAllBookingsCurrentUser(Integer, String, Integer, String)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingPageDto {
+    private List<BookingDto> bookings;
+    private String nextCursor;
+}
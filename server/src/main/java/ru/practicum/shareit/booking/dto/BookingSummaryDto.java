@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сводка бронирований пользователя по состояниям.
+ * <p>
+ * Каждое поле равно количеству бронирований, которое вернул бы список бронирований
+ * с соответствующим значением параметра {@code state}. Позволяет показать счётчики
+ * без загрузки самих списков.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.booking.BookingService#getBookerSummary(Integer)
+ * @see ru.practicum.shareit.booking.BookingService#getOwnerSummary(Integer)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSummaryDto {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+}
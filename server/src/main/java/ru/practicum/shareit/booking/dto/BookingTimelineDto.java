@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Временная шкала бронирований всех предметов владельца в колоночном виде.
+ * <p>
+ * Бронирование с индексом {@code i} описывается элементами {@code i} всех списков.
+ * Ключи полей не повторяются для каждого бронирования, а предмет и арендатор передаются
+ * идентификаторами, поэтому ответ в несколько раз меньше списка {@link BookingDto}.
+ * Бронирования упорядочены по предмету, затем по дате начала.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.booking.BookingService#getOwnerTimeline(Integer, LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingTimelineDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Integer> itemIds;
+    private List<LocalDateTime> starts;
+    private List<LocalDateTime> ends;
+    private List<Status> statuses;
+    private List<Integer> bookerIds;
+}
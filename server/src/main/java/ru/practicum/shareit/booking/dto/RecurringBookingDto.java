@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO для передачи данных о повторяющемся бронировании.
+ * <p>
+ * Помимо правила содержит бронирования, созданные для повторений,
+ * попавших в окно разворачивания при создании правила.
+ * </p>
+ * <p>
+ * Поля {@code skippedCount} и {@code lastSkippedStart} показывают повторения, которые
+ * не удалось развернуть в бронирования: до разворачивания они отображаются в списке
+ * бронирований автора виртуально и после пропуска из него исчезают.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.booking.model.RecurringBooking
+ * @see ru.practicum.shareit.booking.RecurringBookingService
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecurringBookingDto {
+    private Integer id;
+    private Integer itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer periodDays;
+    private Integer occurrences;
+    private Integer materializedCount;
+    private Integer skippedCount;
+    private LocalDateTime lastSkippedStart;
+    private List<BookingDto> bookings;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для запроса на создание повторяющегося бронирования.
+ * <p>
+ * Задаёт первый период, шаг повторения в днях и количество повторений.
+ * Например, каждая суббота в течение трёх месяцев: период первой субботы,
+ * {@code periodDays = 7}, {@code occurrences = 13}.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see RecurringBookingDto
+ * @see ru.practicum.shareit.booking.model.RecurringBooking
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringBookingRequestDto {
+    private Integer itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer periodDays;
+    private Integer occurrences;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.booking.CurrentBookingListener;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -39,6 +40,7 @@ import java.util.Objects;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(CurrentBookingListener.class)
 @Table(name = "bookings")
 public class Booking {
     /**
@@ -113,6 +115,18 @@ public class Booking {
      */
     @Enumerated(EnumType.STRING)
     private Status status;
+    /**
+     * Версия записи для оптимистической блокировки.
+     * <p>
+     * Увеличивается при каждом изменении бронирования, в том числе условными
+     * UPDATE запросами репозитория. Параллельное сохранение устаревшей копии
+     * бронирования завершается ошибкой вместо молчаливой перезаписи статуса.
+     * </p>
+     *
+     * @see Version
+     */
+    @Version
+    private Integer version;
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Правило повторяющегося бронирования предмета.
+ * <p>
+ * Хранится один раз вместо отдельной строки на каждое повторение. Повторение с номером k
+ * занимает период [start + k * periodDays, end + k * periodDays), всего повторений {@code occurrences}.
+ * Повторения разворачиваются в бронирования лениво, по мере приближения скользящего окна:
+ * первые {@code materializedCount} повторений уже обработаны (сохранены как бронирования
+ * или пропущены из-за конфликта), остальные существуют только виртуально.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see Booking
+ * @see ru.practicum.shareit.booking.RecurringBookingService
+ * @see ru.practicum.shareit.booking.RecurringBookingRepository
+ * @since 2025
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "recurring_bookings")
+public class RecurringBooking {
+    /**
+     * Уникальный идентификатор правила.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Бронируемый предмет.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    @ToString.Exclude
+    private Item item;
+
+    /**
+     * Автор повторяющегося бронирования.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false)
+    @ToString.Exclude
+    private User booker;
+
+    /**
+     * Дата и время начала первого повторения.
+     */
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+
+    /**
+     * Дата и время окончания первого повторения.
+     */
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    /**
+     * Шаг повторения в днях, например 7 для еженедельного бронирования.
+     */
+    @Column(name = "period_days", nullable = false)
+    private Integer periodDays;
+
+    /**
+     * Общее количество повторений.
+     */
+    @Column(name = "occurrences", nullable = false)
+    private Integer occurrences;
+
+    /**
+     * Количество первых повторений, уже развёрнутых в бронирования или пропущенных.
+     */
+    @Column(name = "materialized_count", nullable = false)
+    private Integer materializedCount;
+
+    /**
+     * Дата и время начала первого неразвёрнутого повторения.
+     * <p>
+     * Хранится отдельно, чтобы правила, которые пора разворачивать, находились по индексу.
+     * После разворачивания всех повторений не используется.
+     * </p>
+     */
+    @Column(name = "next_start", nullable = false)
+    private LocalDateTime nextStart;
+
+    /**
+     * Количество повторений, пропущенных при разворачивании: период был занят или удерживался,
+     * предмет был недоступен или повторение уже началось.
+     */
+    @Column(name = "skipped_count", nullable = false)
+    private Integer skippedCount;
+
+    /**
+     * Дата и время начала последнего пропущенного повторения, null если пропусков не было.
+     */
+    @Column(name = "last_skipped_start")
+    private LocalDateTime lastSkippedStart;
+
+    /**
+     * Возвращает дату и время начала повторения.
+     *
+     * @param occurrence номер повторения, начиная с 0
+     * @return дата и время начала повторения
+     */
+    public LocalDateTime occurrenceStart(int occurrence) {
+        return start.plusDays((long) occurrence * periodDays);
+    }
+
+    /**
+     * Возвращает дату и время окончания повторения.
+     *
+     * @param occurrence номер повторения, начиная с 0
+     * @return дата и время окончания повторения
+     */
+    public LocalDateTime occurrenceEnd(int occurrence) {
+        return end.plusDays((long) occurrence * periodDays);
+    }
+
+    /**
+     * Отмечает первые повторения как развёрнутые.
+     *
+     * @param count новое количество развёрнутых повторений
+     */
+    public void markMaterialized(int count) {
+        materializedCount = count;
+        nextStart = occurrenceStart(count);
+    }
+
+    /**
+     * Отмечает повторение как пропущенное при разворачивании.
+     *
+     * @param occurrenceStart дата и время начала пропущенного повторения
+     */
+    public void markSkipped(LocalDateTime occurrenceStart) {
+        skippedCount++;
+        if (lastSkippedStart == null || occurrenceStart.isAfter(lastSkippedStart)) {
+            lastSkippedStart = occurrenceStart;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecurringBooking that = (RecurringBooking) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
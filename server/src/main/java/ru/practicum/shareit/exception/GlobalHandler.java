@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -29,6 +30,20 @@ public class GlobalHandler {
         return ErrorResponse.builder().error("Ошибка валидации").details(e.getMessage()).build();
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(ConflictException e) {
+        return ErrorResponse.builder().error("Конфликт данных").details(e.getMessage()).build();
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLock(OptimisticLockingFailureException e) {
+        log.error("Данные были изменены параллельным запросом: {}", e.getMessage());
+        return ErrorResponse.builder().error("Конфликт данных")
+                .details("Данные были изменены параллельным запросом, повторите операцию").build();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleUnknown(Exception e, HttpServletRequest request) {
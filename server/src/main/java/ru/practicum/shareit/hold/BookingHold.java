@@ -0,0 +1,49 @@
+package ru.practicum.shareit.hold;
+
+import java.time.LocalDateTime;
+
+/**
+ * Временное удержание периода предмета пользователем на время оформления бронирования.
+ *
+ * @param id идентификатор удержания
+ * @param itemId идентификатор предмета
+ * @param userId идентификатор пользователя, удерживающего период
+ * @param start дата и время начала удерживаемого периода
+ * @param end дата и время окончания удерживаемого периода
+ * @param heldSince момент первого из непрерывно продлевавшихся удержаний этого периода пользователем
+ * @param expiresAt момент, после которого удержание перестаёт действовать
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldIndex
+ * @since 2025
+ */
+public record BookingHold(String id,
+                          Integer itemId,
+                          Integer userId,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          LocalDateTime heldSince,
+                          LocalDateTime expiresAt) {
+
+    /**
+     * Проверяет, действует ли удержание в момент {@code now}.
+     *
+     * @param now момент проверки
+     * @return true, если срок удержания ещё не истёк
+     */
+    public boolean isActive(LocalDateTime now) {
+        return expiresAt.isAfter(now);
+    }
+
+    /**
+     * Проверяет, пересекается ли удерживаемый период с периодом [start, end).
+     *
+     * @param start начало периода
+     * @param end окончание периода
+     * @return true, если периоды пересекаются
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return this.start.isBefore(end) && this.end.isAfter(start);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.hold;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.hold.dto.BookingHoldDto;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.util.AppHeaders;
+
+/**
+ * REST контроллер для временных удержаний периодов предметов.
+ * <p>
+ * Клиент удерживает выбранный период перед заполнением бронирования, и другой
+ * пользователь не может забронировать его до истечения срока удержания. Отдельного
+ * подтверждения не требуется: {@code POST /bookings} на удержанный период превращает
+ * удержание в бронирование.
+ * </p>
+ *
+ * <p><b>Базовый путь:</b> {@code /items/{itemId}/holds}</p>
+ * <p><b>Заголовок аутентификации:</b> {@code X-Sharer-User-Id} - идентификатор пользователя</p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldService
+ * @since 2025
+ */
+@RestController
+@RequestMapping("/items/{itemId}/holds")
+@RequiredArgsConstructor
+public class BookingHoldController {
+    /**
+     * Сервис для выполнения бизнес-логики удержаний.
+     */
+    private final BookingHoldService bookingHoldService;
+
+    /**
+     * Удерживает период предмета за пользователем.
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя из заголовка
+     * @param bookingHoldRequestDto удерживаемый период и срок удержания в секундах
+     * @return BookingHoldDto созданное удержание
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если период или срок некорректны
+     * @throws ru.practicum.shareit.exception.ConflictException если период уже забронирован
+     *         или удерживается другим пользователем
+     *
+     * @apiNote <b>HTTP запрос:</b> POST /items/{itemId}/holds
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример тела запроса:</b>
+     * <pre>
+     * {
+     *   "start": "2025-12-01T10:00:00",
+     *   "end": "2025-12-05T18:00:00",
+     *   "seconds": 300
+     * }
+     * </pre>
+     *
+     * @see BookingHoldService#hold(Integer, Integer, BookingHoldRequestDto)
+     */
+    @PostMapping
+    public BookingHoldDto hold(@PathVariable Integer itemId,
+                               @RequestHeader(AppHeaders.USER_ID) Integer userId,
+                               @RequestBody BookingHoldRequestDto bookingHoldRequestDto) {
+        return bookingHoldService.hold(itemId, userId, bookingHoldRequestDto);
+    }
+
+    /**
+     * Снимает удержание пользователя до истечения срока.
+     *
+     * @param itemId идентификатор предмета
+     * @param holdId идентификатор удержания
+     * @param userId идентификатор пользователя из заголовка
+     * @throws ru.practicum.shareit.exception.NotFoundException если удержание не найдено или истекло
+     * @throws ru.practicum.shareit.exception.BadRequestException если удержание принадлежит другому пользователю
+     *
+     * @apiNote <b>HTTP запрос:</b> DELETE /items/{itemId}/holds/{holdId}
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     *
+     * @see BookingHoldService#release(Integer, String, Integer)
+     */
+    @DeleteMapping("/{holdId}")
+    public void release(@PathVariable Integer itemId,
+                        @PathVariable String holdId,
+                        @RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        bookingHoldService.release(itemId, holdId, userId);
+    }
+}
@@ -0,0 +1,254 @@
+package ru.practicum.shareit.hold;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory удержания периодов по идентификатору предмета.
+ * <p>
+ * Удержание не даёт другим пользователям забронировать период, пока его автор заполняет
+ * бронирование. Удержания живут несколько минут, поэтому хранятся только в памяти
+ * и не переживают перезапуск приложения. Каждый экземпляр сервера хранит свои удержания:
+ * удержание действует только для запросов, обработанных тем же экземпляром.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Все изменения удержаний предмета выполняются атомарно через
+ *       {@link ConcurrentMap#compute(Object, java.util.function.BiFunction)}</li>
+ *   <li>Истёкшие удержания удаляются при каждом обращении к предмету и периодически
+ *       для предметов, к которым давно не обращались</li>
+ *   <li>Удержания, исчерпавшие время удержания с учётом продлений, хранятся ещё
+ *       {@code shareit.booking.hold.max-lifetime} и не дают автору сразу удержать период снова</li>
+ *   <li>Удержания автора, превращённые в бронирование, снимаются после фиксации транзакции</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldServiceImpl
+ * @see ru.practicum.shareit.booking.BookingServiceImpl#add(ru.practicum.shareit.booking.dto.BookingRequestDto, Integer)
+ * @since 2025
+ */
+@Slf4j
+@Component
+public class BookingHoldIndex {
+
+    /**
+     * Действующие удержания по идентификатору предмета, а также удержания, исчерпавшие
+     * время удержания, на время запрета повторного удержания.
+     */
+    private final ConcurrentMap<Integer, List<BookingHold>> holdsByItem = new ConcurrentHashMap<>();
+
+    /**
+     * Максимальное время удержания периода с учётом продлений и время запрета повторного удержания.
+     */
+    private final Duration maxLifetime;
+
+    public BookingHoldIndex(@Value("${shareit.booking.hold.max-lifetime:PT30M}") Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Добавляет удержание, если период не удерживается другим пользователем.
+     * <p>
+     * Пересекающиеся удержания того же пользователя заменяются новым, которое наследует
+     * у них момент начала удержания: с учётом продлений период удерживается не дольше
+     * {@code shareit.booking.hold.max-lifetime}, срок нового удержания обрезается этой границей.
+     * После исчерпания времени пользователь не может снова удержать пересекающийся период
+     * в течение того же интервала, чтобы период успели занять другие пользователи.
+     * Остальные удержания пользователя на предмете учитываются в лимите, поэтому продлевать
+     * одно удержание можно, а набирать новые сверх лимита - нет.
+     * </p>
+     *
+     * @param hold новое удержание
+     * @param now текущий момент для отбрасывания истёкших удержаний
+     * @param maxPerUser максимальное количество действующих удержаний пользователя на предмете
+     * @return результат добавления
+     */
+    public AddResult tryAdd(BookingHold hold, LocalDateTime now, int maxPerUser) {
+        AtomicReference<AddResult> result = new AtomicReference<>();
+        holdsByItem.compute(hold.itemId(), (itemId, holds) -> {
+            List<BookingHold> retained = retained(holds, now);
+            boolean heldByOther = retained.stream()
+                    .anyMatch(other -> other.isActive(now) && !other.userId().equals(hold.userId())
+                            && other.overlaps(hold.start(), hold.end()));
+            long kept = retained.stream()
+                    .filter(own -> own.isActive(now) && own.userId().equals(hold.userId())
+                            && !own.overlaps(hold.start(), hold.end()))
+                    .count();
+            LocalDateTime heldSince = retained.stream()
+                    .filter(own -> own.userId().equals(hold.userId()) && own.overlaps(hold.start(), hold.end()))
+                    .map(BookingHold::heldSince)
+                    .reduce(hold.heldSince(), (first, second) -> first.isBefore(second) ? first : second);
+            LocalDateTime deadline = heldSince.plus(maxLifetime);
+            if (heldByOther) {
+                result.set(AddResult.HELD_BY_OTHER);
+            } else if (kept >= maxPerUser) {
+                result.set(AddResult.LIMIT_EXCEEDED);
+            } else if (!deadline.isAfter(now)) {
+                result.set(AddResult.LIFETIME_EXCEEDED);
+            } else {
+                retained.removeIf(own -> own.userId().equals(hold.userId()) && own.overlaps(hold.start(), hold.end()));
+                retained.add(new BookingHold(hold.id(), hold.itemId(), hold.userId(), hold.start(), hold.end(),
+                        heldSince, hold.expiresAt().isAfter(deadline) ? deadline : hold.expiresAt()));
+                result.set(AddResult.ADDED);
+            }
+            return retained.isEmpty() ? null : retained;
+        });
+        return result.get();
+    }
+
+    /**
+     * Проверяет, удерживает ли период предмета другой пользователь.
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя, для которого выполняется проверка
+     * @param start начало периода
+     * @param end окончание периода
+     * @param now текущий момент
+     * @return true, если период пересекается с действующим удержанием другого пользователя
+     */
+    public boolean isHeldByOther(Integer itemId, Integer userId, LocalDateTime start, LocalDateTime end,
+                                 LocalDateTime now) {
+        return snapshot(itemId, now).stream()
+                .anyMatch(hold -> !hold.userId().equals(userId) && hold.overlaps(start, end));
+    }
+
+    /**
+     * Возвращает действующие удержания предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param now текущий момент
+     * @return действующие удержания всех пользователей
+     */
+    public List<BookingHold> findActive(Integer itemId, LocalDateTime now) {
+        return snapshot(itemId, now);
+    }
+
+    /**
+     * Находит действующее удержание предмета по идентификатору.
+     *
+     * @param itemId идентификатор предмета
+     * @param holdId идентификатор удержания
+     * @param now текущий момент
+     * @return удержание или пустой Optional, если оно не найдено или истекло
+     */
+    public Optional<BookingHold> find(Integer itemId, String holdId, LocalDateTime now) {
+        return snapshot(itemId, now).stream()
+                .filter(hold -> hold.id().equals(holdId))
+                .findFirst();
+    }
+
+    /**
+     * Снимает удержание предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param holdId идентификатор удержания
+     */
+    public void remove(Integer itemId, String holdId) {
+        holdsByItem.computeIfPresent(itemId, (id, holds) -> {
+            holds.removeIf(hold -> hold.id().equals(holdId));
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    /**
+     * Снимает удержания пользователя, пересекающиеся с забронированным периодом.
+     * <p>
+     * Внутри транзакции удержания снимаются только после её фиксации: при откате
+     * бронирование не создано и удержание должно продолжать действовать.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор автора бронирования
+     * @param start начало забронированного периода
+     * @param end окончание забронированного периода
+     */
+    public void releaseBooked(Integer itemId, Integer userId, LocalDateTime start, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeOwn(itemId, userId, start, end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeOwn(itemId, userId, start, end);
+            }
+        });
+    }
+
+    /**
+     * Удаляет истёкшие удержания предметов, к которым не было обращений после истечения.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.hold.purge-interval:PT1M}",
+            initialDelayString = "${shareit.booking.hold.purge-interval:PT1M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = holdsByItem.size();
+        holdsByItem.keySet().forEach(itemId -> holdsByItem.computeIfPresent(itemId, (id, holds) -> {
+            List<BookingHold> retained = retained(holds, now);
+            return retained.isEmpty() ? null : retained;
+        }));
+        log.debug("Удалены истёкшие удержания, предметов с удержаниями: было {}, стало {}",
+                before, holdsByItem.size());
+    }
+
+    private List<BookingHold> snapshot(Integer itemId, LocalDateTime now) {
+        AtomicReference<List<BookingHold>> snapshot = new AtomicReference<>(List.of());
+        holdsByItem.computeIfPresent(itemId, (id, holds) -> {
+            List<BookingHold> retained = retained(holds, now);
+            snapshot.set(retained.stream().filter(hold -> hold.isActive(now)).toList());
+            return retained.isEmpty() ? null : retained;
+        });
+        return snapshot.get();
+    }
+
+    private void removeOwn(Integer itemId, Integer userId, LocalDateTime start, LocalDateTime end) {
+        holdsByItem.computeIfPresent(itemId, (id, holds) -> {
+            holds.removeIf(hold -> hold.userId().equals(userId) && hold.overlaps(start, end));
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    /**
+     * Оставляет действующие удержания и удержания, исчерпавшие время удержания,
+     * пока не закончился запрет повторного удержания.
+     */
+    private List<BookingHold> retained(List<BookingHold> holds, LocalDateTime now) {
+        List<BookingHold> retained = new ArrayList<>();
+        if (holds != null) {
+            holds.stream()
+                    .filter(hold -> hold.isActive(now) || isCoolingDown(hold, now))
+                    .forEach(retained::add);
+        }
+        return retained;
+    }
+
+    private boolean isCoolingDown(BookingHold hold, LocalDateTime now) {
+        LocalDateTime deadline = hold.heldSince().plus(maxLifetime);
+        return !hold.expiresAt().isBefore(deadline) && deadline.plus(maxLifetime).isAfter(now);
+    }
+
+    /**
+     * Результат добавления удержания.
+     */
+    public enum AddResult {
+        ADDED,
+        HELD_BY_OTHER,
+        LIMIT_EXCEEDED,
+        LIFETIME_EXCEEDED
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.hold;
+
+import ru.practicum.shareit.hold.dto.BookingHoldDto;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+
+/**
+ * Сервис для управления временными удержаниями периодов предметов.
+ * <p>
+ * Пользователь удерживает период на время заполнения бронирования, чтобы другой
+ * пользователь не занял его раньше. Бронирование удержанного периода его автором
+ * снимает удержание, бронирование другим пользователем отклоняется до истечения срока.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldServiceImpl
+ * @see BookingHoldController
+ * @since 2025
+ */
+public interface BookingHoldService {
+    /**
+     * Удерживает период предмета за пользователем.
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param userId идентификатор пользователя, не должен быть null
+     * @param bookingHoldRequestDto удерживаемый период и срок удержания, не должен быть null
+     * @return BookingHoldDto созданное удержание
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если период или срок некорректны,
+     *         предмет принадлежит пользователю или недоступен
+     * @throws ru.practicum.shareit.exception.ConflictException если период уже забронирован,
+     *         удерживается другим пользователем или удерживается пользователем дольше допустимого
+     */
+    BookingHoldDto hold(Integer itemId, Integer userId, BookingHoldRequestDto bookingHoldRequestDto);
+
+    /**
+     * Снимает удержание пользователя до истечения срока.
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param holdId идентификатор удержания, не должен быть null
+     * @param userId идентификатор пользователя, не должен быть null
+     * @throws ru.practicum.shareit.exception.NotFoundException если удержание не найдено или истекло
+     * @throws ru.practicum.shareit.exception.BadRequestException если удержание принадлежит другому пользователю
+     */
+    void release(Integer itemId, String holdId, Integer userId);
+}
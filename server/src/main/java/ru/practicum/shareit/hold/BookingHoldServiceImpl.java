@@ -0,0 +1,221 @@
+package ru.practicum.shareit.hold;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingConflictIndex;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.dto.BookingHoldDto;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Реализация сервиса временных удержаний периодов предметов.
+ * <p>
+ * Удержания хранятся в {@link BookingHoldIndex} и проверяются при создании бронирований
+ * в {@link ru.practicum.shareit.booking.BookingServiceImpl}. Удержание не заменяет проверку
+ * пересечений при бронировании: оно лишь не даёт другим пользователям занять период,
+ * пока автор удержания заполняет бронирование.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Удержать можно только период, свободный от ожидающих и подтверждённых бронирований</li>
+ *   <li>Новое удержание пользователя заменяет его пересекающиеся удержания того же предмета</li>
+ *   <li>Срок удержания ограничен {@code shareit.booking.hold.max-ttl}</li>
+ *   <li>Длина удерживаемого периода ограничена {@code shareit.booking.hold.max-span}, по умолчанию
+ *   равной окну календаря доступности {@code shareit.item.availability.max-window}</li>
+ *   <li>Количество действующих удержаний пользователя на предмете ограничено
+ *   {@code shareit.booking.hold.max-per-item}: повторное удержание того же периода продлевает его,
+ *   но не позволяет занять предмет набором удержаний</li>
+ *   <li>Продления не удерживают период дольше {@code shareit.booking.hold.max-lifetime}
+ *   с первого удержания</li>
+ *   <li>Удержание и создание бронирования блокируют строку предмета, поэтому проверка
+ *   и занятие периода не пересекаются по времени</li>
+ *   <li>Удержания хранятся в памяти экземпляра сервера и не видны другим экземплярам</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldService
+ * @see BookingHoldIndex
+ * @since 2025
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingHoldServiceImpl implements BookingHoldService {
+
+    private final BookingHoldIndex holdIndex;
+    private final BookingConflictIndex conflictIndex;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    /**
+     * Срок удержания, если клиент его не указал.
+     */
+    @Value("${shareit.booking.hold.default-ttl:PT2M}")
+    private Duration defaultTtl;
+
+    /**
+     * Максимальный срок удержания.
+     */
+    @Value("${shareit.booking.hold.max-ttl:PT15M}")
+    private Duration maxTtl;
+
+    /**
+     * Максимальная длина удерживаемого периода.
+     */
+    @Value("${shareit.booking.hold.max-span:${shareit.item.availability.max-window:P366D}}")
+    private Duration maxSpan;
+
+    /**
+     * Максимальное количество действующих удержаний одного пользователя на предмете.
+     */
+    @Value("${shareit.booking.hold.max-per-item:3}")
+    private int maxPerItem;
+
+    /**
+     * Удерживает период предмета за пользователем.
+     * <p>
+     * Проверка бронирований и добавление удержания выполняются под блокировкой строки предмета,
+     * как и создание бронирований, поэтому параллельное бронирование того же периода не может
+     * пройти между проверкой и добавлением удержания.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя
+     * @param bookingHoldRequestDto удерживаемый период и срок удержания
+     * @return BookingHoldDto созданное удержание
+     * @throws NotFoundException если пользователь или предмет не найдены
+     * @throws BadRequestException если нарушены бизнес-правила
+     * @throws ConflictException если период уже забронирован, удерживается другим пользователем,
+     *         пользователь превысил количество удержаний предмета или время удержания периода
+     *
+     * @see BookingHoldService#hold(Integer, Integer, BookingHoldRequestDto)
+     */
+    @Override
+    @Transactional
+    public BookingHoldDto hold(Integer itemId, Integer userId, BookingHoldRequestDto bookingHoldRequestDto) {
+        log.debug("Получен запрос на удержание периода вещи с id = {} пользователем с id = {}", itemId, userId);
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
+        LocalDateTime now = LocalDateTime.now();
+        Duration ttl = checkCanHold(bookingHoldRequestDto, item, userId, now);
+
+        LocalDateTime start = bookingHoldRequestDto.getStart();
+        LocalDateTime end = bookingHoldRequestDto.getEnd();
+        conflictIndex.refresh(itemId);
+        if (conflictIndex.overlaps(itemId, start, end)) {
+            throw new ConflictException("Вещь с id " + itemId + " уже забронирована на указанный период");
+        }
+        String holdId = UUID.randomUUID().toString();
+        BookingHold candidate = new BookingHold(holdId, itemId, userId, start, end, now, now.plus(ttl));
+        switch (holdIndex.tryAdd(candidate, now, maxPerItem)) {
+            case HELD_BY_OTHER -> {
+                log.error("Период {} - {} вещи с id = {} удерживается другим пользователем", start, end, itemId);
+                throw new ConflictException("Вещь с id " + itemId + " временно удерживается другим пользователем");
+            }
+            case LIMIT_EXCEEDED -> {
+                log.error("Пользователь с id = {} превысил количество удержаний вещи с id = {}", userId, itemId);
+                throw new ConflictException("Нельзя удерживать больше " + maxPerItem + " периодов одной вещи");
+            }
+            case LIFETIME_EXCEEDED -> {
+                log.error("Пользователь с id = {} исчерпал время удержания периода {} - {} вещи с id = {}",
+                        userId, start, end, itemId);
+                throw new ConflictException("Время удержания периода вещи с id " + itemId + " исчерпано, " +
+                        "повторите позже");
+            }
+            case ADDED -> {
+            }
+        }
+        BookingHold hold = holdIndex.find(itemId, holdId, now).orElse(candidate);
+        log.info("Пользователь с id = {} удерживает период вещи с id = {} до {}, удержание id = {}",
+                userId, itemId, hold.expiresAt(), hold.id());
+        return mapToDto(hold);
+    }
+
+    /**
+     * Снимает удержание пользователя до истечения срока.
+     *
+     * @param itemId идентификатор предмета
+     * @param holdId идентификатор удержания
+     * @param userId идентификатор пользователя
+     * @throws NotFoundException если удержание не найдено или истекло
+     * @throws BadRequestException если удержание принадлежит другому пользователю
+     *
+     * @see BookingHoldService#release(Integer, String, Integer)
+     */
+    @Override
+    public void release(Integer itemId, String holdId, Integer userId) {
+        log.debug("Получен запрос на снятие удержания id = {} вещи с id = {} пользователем с id = {}",
+                holdId, itemId, userId);
+        BookingHold hold = holdIndex.find(itemId, holdId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Удержание с id " + holdId + " не найдено!"));
+        if (!hold.userId().equals(userId)) {
+            throw new BadRequestException("Снять удержание может только его автор!");
+        }
+        holdIndex.remove(itemId, holdId);
+        log.info("Удержание id = {} вещи с id = {} снято", holdId, itemId);
+    }
+
+    /**
+     * Проверяет бизнес-правила удержания периода предмета пользователем.
+     *
+     * @param request удерживаемый период и срок удержания
+     * @param item удерживаемый предмет
+     * @param userId идентификатор пользователя
+     * @param now текущий момент
+     * @return срок удержания
+     * @throws BadRequestException если период или срок некорректны, предмет принадлежит
+     *         пользователю или недоступен
+     */
+    private Duration checkCanHold(BookingHoldRequestDto request, Item item, Integer userId, LocalDateTime now) {
+        if (request.getStart() == null || request.getEnd() == null) {
+            throw new BadRequestException("Дата начала и дата окончания периода должны быть заполнены");
+        }
+        if (!request.getStart().isBefore(request.getEnd())) {
+            throw new BadRequestException("Дата начала должна быть раньше даты окончания");
+        }
+        if (!request.getStart().isAfter(now)) {
+            throw new BadRequestException("Дата начала должна быть в будущем");
+        }
+        if (Duration.between(request.getStart(), request.getEnd()).compareTo(maxSpan) > 0) {
+            throw new BadRequestException("Удерживаемый период не может быть длиннее " + maxSpan.toDays() + " дней");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new BadRequestException("Нельзя удерживать свою же вещь");
+        }
+        if (!item.isAvailable()) {
+            throw new BadRequestException("Вещь недоступна для бронирования");
+        }
+        Duration ttl = request.getSeconds() == null ? defaultTtl : Duration.ofSeconds(request.getSeconds());
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new BadRequestException("Срок удержания должен быть от 1 до " + maxTtl.toSeconds() + " секунд");
+        }
+        return ttl;
+    }
+
+    private static BookingHoldDto mapToDto(BookingHold hold) {
+        return BookingHoldDto.builder()
+                .id(hold.id())
+                .itemId(hold.itemId())
+                .userId(hold.userId())
+                .start(hold.start())
+                .end(hold.end())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.hold.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для передачи данных об удержании периода предмета.
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.hold.BookingHold
+ * @see ru.practicum.shareit.hold.BookingHoldController
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingHoldDto {
+    private String id;
+    private Integer itemId;
+    private Integer userId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime expiresAt;
+}
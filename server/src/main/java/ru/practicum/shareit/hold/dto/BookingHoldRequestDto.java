@@ -0,0 +1,30 @@
+package ru.practicum.shareit.hold.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для запроса на удержание периода предмета.
+ * <p>
+ * Содержит удерживаемый период и срок удержания в секундах. Если срок не указан,
+ * используется {@code shareit.booking.hold.default-ttl}. Предмет задаётся в пути запроса,
+ * пользователь - в заголовке {@code X-Sharer-User-Id}.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see BookingHoldDto
+ * @see ru.practicum.shareit.hold.BookingHoldController
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingHoldRequestDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer seconds;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация идемпотентной обработки запросов на создание.
+ * <p>
+ * Регистрирует {@link IdempotencyFilter} для создания бронирований, предметов и запросов.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyFilter
+ * @see IdempotencyStore
+ * @since 2025
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(store));
+        registration.addUrlPatterns("/bookings", "/items", "/requests");
+        return registration;
+    }
+}
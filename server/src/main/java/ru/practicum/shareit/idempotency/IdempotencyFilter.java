@@ -0,0 +1,177 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.util.AppHeaders;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Фильтр, обеспечивающий идемпотентность POST запросов с заголовком {@code Idempotency-Key}.
+ * <p>
+ * Ключ запроса составляется из пользователя, пути и значения заголовка. Первый запрос
+ * выполняется как обычно, а его успешный ответ сохраняется в {@link IdempotencyStore}.
+ * Повтор с тем же ключом получает сохранённый ответ с заголовком {@code Idempotent-Replayed: true}
+ * без повторного вызова контроллера. Запросы без заголовка обрабатываются без изменений.
+ * </p>
+ * <p>
+ * Вместе с ответом сохраняется SHA-256 тела запроса. Повтор ключа с другим телом получает
+ * 422 Unprocessable Entity: иначе клиент получил бы ответ на другой запрос, а его данные
+ * молча не были бы сохранены.
+ * </p>
+ * <p>
+ * Фильтр работает до DispatcherServlet, и исключения из него не доходят до {@code GlobalHandler},
+ * поэтому все ошибки фильтр отправляет сам через {@code sendError}. Дубликат, не дождавшийся
+ * выполняющегося запроса, получает 409 Conflict.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyStore
+ * @see IdempotencyConfig
+ * @since 2025
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Максимальная длина значения заголовка {@code Idempotency-Key}.
+     */
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(AppHeaders.IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(AppHeaders.IDEMPOTENCY_KEY);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            log.error("Передан некорректный ключ идемпотентности длиной {}", idempotencyKey.length());
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Ключ идемпотентности должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+        String key = request.getHeader(AppHeaders.USER_ID) + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        byte[] requestBody = request.getInputStream().readAllBytes();
+        String requestHash = sha256(requestBody);
+        HttpServletRequest cachedRequest = new CachedBodyRequest(request, requestBody);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+        IdempotencyStore.Execution execution = store.execute(key, requestHash, () -> {
+            chain.doFilter(cachedRequest, wrapper);
+            return new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8), LocalDateTime.now(),
+                    requestHash);
+        });
+
+        if (execution.outcome() == IdempotencyStore.Outcome.EXECUTED) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        if (execution.outcome() == IdempotencyStore.Outcome.IN_FLIGHT) {
+            response.sendError(HttpStatus.CONFLICT.value(),
+                    "Запрос с этим ключом идемпотентности ещё выполняется, повторите позже");
+            return;
+        }
+        StoredResponse stored = execution.response();
+        if (!stored.matchesRequest(requestHash)) {
+            log.error("Ключ идемпотентности {} повторно использован с другим телом запроса", key);
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Ключ идемпотентности уже использован для запроса с другим телом");
+            return;
+        }
+        byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(AppHeaders.IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Запрос с телом, прочитанным заранее для вычисления хэша.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Сохранённый ответ на запрос с ключом идемпотентности.
+ * <p>
+ * Позволяет вернуть тот же ответ на повтор запроса после перезапуска сервера
+ * или вытеснения записи из in-memory кэша {@link IdempotencyStore}.
+ * Запись вставляется до выполнения запроса со статусом {@link #PENDING} и служит захватом ключа
+ * для всех экземпляров сервера, ответ записывается в неё после выполнения.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyStore
+ * @see IdempotencyRecordRepository
+ * @since 2025
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    /**
+     * Статус записи, ключ которой захвачен выполняющимся запросом: ответа ещё нет.
+     */
+    public static final int PENDING = 0;
+
+    /**
+     * Составной ключ запроса: пользователь, путь и значение заголовка {@code Idempotency-Key}.
+     */
+    @Id
+    @Column(name = "request_key", length = 600)
+    private String requestKey;
+
+    /**
+     * HTTP статус сохранённого ответа или {@link #PENDING}, пока запрос выполняется.
+     */
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body", nullable = false, columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime created;
+
+    /**
+     * SHA-256 тела исходного запроса, с которым сравнивается тело повторов.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    public boolean isPending() {
+        return status == PENDING;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return requestKey != null && requestKey.equals(that.requestKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestKey);
+    }
+}
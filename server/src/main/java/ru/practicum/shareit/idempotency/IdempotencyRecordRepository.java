@@ -0,0 +1,98 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий сохранённых ответов на запросы с ключом идемпотентности.
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyRecord
+ * @since 2025
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Удаляет записи, созданные раньше указанного момента, одним запросом.
+     *
+     * @param threshold граница времени создания
+     * @return количество удалённых записей
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.created < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Захватывает ключ до выполнения запроса: вставляет запись без ответа.
+     * Вставка с уже существующим ключом завершается нарушением первичного ключа,
+     * поэтому из нескольких экземпляров сервера ключ захватывает ровно один.
+     *
+     * @param key составной ключ запроса
+     * @param hash SHA-256 тела запроса
+     * @param created момент захвата
+     * @return количество вставленных записей
+     * @throws org.springframework.dao.DataIntegrityViolationException если ключ уже захвачен
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (request_key, status, response_body, created_date, request_hash) " +
+            "VALUES (:key, " + IdempotencyRecord.PENDING + ", '', :created, :hash)", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("hash") String hash, @Param("created") LocalDateTime created);
+
+    /**
+     * Перезахватывает ключ, запись которого устарела: ответ старше TTL или захват, брошенный
+     * упавшим экземпляром сервера. Условие проверяется в том же UPDATE, поэтому при гонке
+     * запись перезахватывает только один экземпляр.
+     *
+     * @param key составной ключ запроса
+     * @param hash SHA-256 тела запроса
+     * @param created момент захвата
+     * @param abandonedBefore захваты раньше этого момента считаются брошенными
+     * @param expiredBefore ответы раньше этого момента считаются устаревшими
+     * @return 1 если ключ перезахвачен, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = " + IdempotencyRecord.PENDING + ", r.contentType = NULL, " +
+            "r.responseBody = '', r.created = :created, r.requestHash = :hash " +
+            "WHERE r.requestKey = :key " +
+            "AND ((r.status = " + IdempotencyRecord.PENDING + " AND r.created < :abandonedBefore) " +
+            "OR (r.status <> " + IdempotencyRecord.PENDING + " AND r.created < :expiredBefore))")
+    int reclaim(@Param("key") String key, @Param("hash") String hash, @Param("created") LocalDateTime created,
+                @Param("abandonedBefore") LocalDateTime abandonedBefore,
+                @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /**
+     * Сохраняет ответ в захваченную запись.
+     *
+     * @return 1 если запись ещё была захвачена этим запросом, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, " +
+            "r.responseBody = :body, r.created = :created " +
+            "WHERE r.requestKey = :key AND r.status = " + IdempotencyRecord.PENDING + " AND r.requestHash = :hash")
+    int complete(@Param("key") String key, @Param("hash") String hash, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") String body,
+                 @Param("created") LocalDateTime created);
+
+    /**
+     * Освобождает захваченный ключ после неуспешного ответа, чтобы клиент мог повторить запрос.
+     *
+     * @return количество удалённых записей
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.requestKey = :key AND r.status = " + IdempotencyRecord.PENDING + " AND r.requestHash = :hash")
+    int deletePending(@Param("key") String key, @Param("hash") String hash);
+}
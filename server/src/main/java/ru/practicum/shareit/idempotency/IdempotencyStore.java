@@ -0,0 +1,276 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Хранилище ответов на запросы с ключом идемпотентности.
+ * <p>
+ * Гарантирует, что запрос с одним и тем же ключом выполняется не более одного раза,
+ * пока сохранённый ответ не устарел: повтор получает сохранённый ответ без повторного
+ * выполнения бизнес-логики.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Ответы хранятся в ограниченном LRU кэше в памяти и в таблице {@code idempotency_keys}</li>
+ *   <li>Перед выполнением запрос захватывает ключ вставкой записи со статусом {@link IdempotencyRecord#PENDING},
+ *       поэтому дубликаты на разных экземплярах сервера не выполняются повторно</li>
+ *   <li>Параллельный дубликат на том же экземпляре ожидает завершения выполняющегося запроса,
+ *       дубликат на другом экземпляре сразу получает {@link Outcome#IN_FLIGHT}</li>
+ *   <li>Захват, брошенный упавшим экземпляром, перезахватывается через {@code claim-timeout}</li>
+ *   <li>Записи старше TTL не возвращаются и периодически удаляются из таблицы</li>
+ *   <li>Сохраняются только успешные ответы, после ошибки захват снимается и запрос с тем же ключом
+ *       выполняется заново</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyFilter
+ * @see IdempotencyRecordRepository
+ * @since 2025
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration claimTimeout;
+    private final Map<String, StoredResponse> cache;
+
+    /**
+     * Выполняющиеся запросы по ключу.
+     */
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${shareit.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                            @Value("${shareit.idempotency.claim-timeout:PT5M}") Duration claimTimeout,
+                            @Value("${shareit.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.claimTimeout = claimTimeout;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Выполняет действие не более одного раза для ключа или возвращает сохранённый ответ.
+     *
+     * @param key составной ключ запроса
+     * @param requestHash SHA-256 тела запроса
+     * @param action действие, формирующее ответ
+     * @return ответ и способ его получения; для {@link Outcome#IN_FLIGHT} ответа нет
+     * @throws IOException если действие завершилось ошибкой ввода-вывода
+     * @throws ServletException если действие завершилось ошибкой обработки запроса
+     */
+    public Execution execute(String key, String requestHash, ResponseAction action)
+            throws IOException, ServletException {
+        while (true) {
+            StoredResponse stored = find(key);
+            if (stored != null) {
+                log.info("Повтор запроса с ключом идемпотентности {}, возвращён сохранённый ответ", key);
+                return new Execution(stored, Outcome.REPLAYED);
+            }
+            CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+            if (running == null) {
+                // запрос с тем же ключом мог завершиться между проверкой хранилища и захватом ключа,
+                // его ответ к этому моменту уже в кэше
+                StoredResponse completed = findCached(key);
+                if (completed == null && claim(key, requestHash)) {
+                    return executeOwn(key, requestHash, action, own);
+                }
+                own.complete(completed);
+                inFlight.remove(key, own);
+                if (completed == null) {
+                    completed = find(key);
+                }
+                if (completed != null) {
+                    log.info("Повтор запроса с ключом идемпотентности {}, возвращён сохранённый ответ", key);
+                    return new Execution(completed, Outcome.REPLAYED);
+                }
+                log.warn("Ключ идемпотентности {} захвачен запросом на другом экземпляре сервера", key);
+                return new Execution(null, Outcome.IN_FLIGHT);
+            }
+            if (!await(key, running)) {
+                return new Execution(null, Outcome.IN_FLIGHT);
+            }
+            StoredResponse response = running.isCompletedExceptionally() ? null : running.join();
+            if (response != null && response.isSuccessful()) {
+                log.info("Дубликат запроса с ключом идемпотентности {} получил ответ выполнявшегося запроса", key);
+                return new Execution(response, Outcome.REPLAYED);
+            }
+        }
+    }
+
+    /**
+     * Удаляет из таблицы записи старше TTL.
+     */
+    @Scheduled(fixedDelayString = "${shareit.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${shareit.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        log.debug("Удалено {} устаревших ключей идемпотентности", deleted);
+    }
+
+    private Execution executeOwn(String key, String requestHash, ResponseAction action,
+                                 CompletableFuture<StoredResponse> own) throws IOException, ServletException {
+        StoredResponse response = null;
+        try {
+            response = action.run();
+            return new Execution(response, Outcome.EXECUTED);
+        } finally {
+            if (response != null && response.isSuccessful()) {
+                save(key, requestHash, response);
+            } else {
+                repository.deletePending(key, requestHash);
+            }
+            own.complete(response);
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Захватывает ключ в таблице. Существующую запись можно перезахватить, только если она устарела.
+     *
+     * @return true если ключ захвачен этим запросом
+     */
+    private boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return repository.insertPending(key, requestHash, now) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return repository.reclaim(key, requestHash, now, now.minus(claimTimeout), now.minus(ttl)) == 1;
+        }
+    }
+
+    private StoredResponse find(String key) {
+        StoredResponse cached = findCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        StoredResponse persisted = repository.findById(key)
+                .filter(record -> !record.isPending())
+                .map(record -> new StoredResponse(record.getStatus(), record.getContentType(),
+                        record.getResponseBody(), record.getCreated(), record.getRequestHash()))
+                .filter(response -> !isExpired(response))
+                .orElse(null);
+        if (persisted != null) {
+            synchronized (cache) {
+                cache.put(key, persisted);
+            }
+        }
+        return persisted;
+    }
+
+    private StoredResponse findCached(String key) {
+        synchronized (cache) {
+            StoredResponse cached = cache.get(key);
+            if (cached != null && isExpired(cached)) {
+                cache.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void save(String key, String requestHash, StoredResponse response) {
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+        int updated = repository.complete(key, requestHash, response.status(), response.contentType(),
+                response.body(), response.created());
+        if (updated == 0) {
+            log.warn("Захват ключа идемпотентности {} перехвачен другим экземпляром сервера, ответ не сохранён", key);
+        }
+    }
+
+    /**
+     * Ожидает выполняющийся запрос с тем же ключом.
+     *
+     * @return true если запрос завершился, false если ожидание превысило допустимое время или прервано
+     */
+    private boolean await(String key, CompletableFuture<StoredResponse> running) {
+        try {
+            running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            log.error("Запрос с ключом идемпотентности {} выполняется дольше {}", key, waitTimeout);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Ожидание запроса с ключом идемпотентности {} прервано", key);
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    private boolean isExpired(StoredResponse response) {
+        return response.created().plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Действие, формирующее ответ на запрос.
+     */
+    @FunctionalInterface
+    public interface ResponseAction {
+        StoredResponse run() throws IOException, ServletException;
+    }
+
+    /**
+     * Способ получения ответа на запрос.
+     */
+    public enum Outcome {
+        /**
+         * Действие выполнено этим запросом.
+         */
+        EXECUTED,
+        /**
+         * Ответ взят из хранилища или у завершившегося дубликата.
+         */
+        REPLAYED,
+        /**
+         * Запрос с тем же ключом ещё выполняется, ответа нет.
+         */
+        IN_FLIGHT
+    }
+
+    /**
+     * Результат выполнения запроса через хранилище.
+     *
+     * @param response ответ на запрос, null для {@link Outcome#IN_FLIGHT}
+     * @param outcome способ получения ответа
+     */
+    public record Execution(StoredResponse response, Outcome outcome) {
+
+        public boolean replayed() {
+            return outcome == Outcome.REPLAYED;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ответ сервера, сохраняемый для повторов запроса с тем же ключом идемпотентности.
+ *
+ * @param status HTTP статус ответа
+ * @param contentType значение заголовка Content-Type, может быть null
+ * @param body тело ответа в UTF-8
+ * @param created момент выполнения исходного запроса
+ * @param requestHash SHA-256 тела исходного запроса в шестнадцатеричном виде
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see IdempotencyStore
+ * @since 2025
+ */
+public record StoredResponse(int status, String contentType, String body, LocalDateTime created,
+                             String requestHash) {
+
+    /**
+     * Сохраняются только успешные ответы: ошибку клиент может исправить и повторить запрос с тем же ключом.
+     *
+     * @return true для статусов 2xx
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * Повтор с тем же ключом должен совпадать с исходным запросом, иначе сохранённый ответ
+     * относился бы к другим данным.
+     *
+     * @param hash SHA-256 тела повторного запроса
+     * @return true если тело повтора совпадает с телом исходного запроса
+     */
+    public boolean matchesRequest(String hash) {
+        return requestHash.equals(hash);
+    }
+}
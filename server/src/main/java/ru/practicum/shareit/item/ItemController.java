@@ -1,15 +1,18 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.CommentRequestDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.ResponseItemConciseDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.util.AppHeaders;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 /**
@@ -30,6 +33,7 @@ import java.util.Collection;
  *   <li>Получение информации о предмете</li>
  *   <li>Получение списка предметов пользователя</li>
  *   <li>Поиск предметов по названию и описанию</li>
+ *   <li>Получение свободных периодов предмета</li>
  *   <li>Создание комментариев к предметам</li>
  * </ul>
  *
@@ -187,13 +191,19 @@ public class ItemController {
      * <p>
      * Поиск осуществляется только среди доступных предметов (available = true).
      * Возвращает компактное представление результатов для оптимизации.
-     * При пустом поисковом запросе возвращает пустую коллекцию.
+     * При пустом поисковом запросе возвращает пустую коллекцию. Если указаны {@code from}
+     * и {@code to}, возвращаются только предметы, свободные от подтверждённых бронирований в этом окне.
      * </p>
      *
      * @param text текст для поиска
+     * @param from начало окна в формате ISO, необязательно
+     * @param to окончание окна в формате ISO, необязательно
      * @return коллекция ResponseItemConciseDto с результатами поиска
+     * @throws ru.practicum.shareit.exception.BadRequestException если задана только одна граница окна
+     *         или окно пустое
      *
      * @apiNote <b>HTTP запрос:</b> GET /items/search?text=дрель
+     * @apiNote <b>HTTP запрос:</b> GET /items/search?text=дрель&from=2024-06-08T00:00:00&to=2024-06-10T00:00:00
      * @apiNote <b>Пример ответа:</b>
      * <pre>
      * [
@@ -208,11 +218,57 @@ public class ItemController {
      * ]
      * </pre>
      *
-     * @see ItemService#searchItems(String)
+     * @see ItemService#searchItems(String, LocalDateTime, LocalDateTime)
      */
     @GetMapping("/search")
-    public Collection<ResponseItemConciseDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text);
+    public Collection<ResponseItemConciseDto> searchItems(@RequestParam String text,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime from,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime to) {
+        return itemService.searchItems(text, from, to);
+    }
+
+    /**
+     * Возвращает свободные периоды предмета внутри запрошенного окна.
+     * <p>
+     * Позволяет выбрать даты бронирования без перебора {@code POST /bookings}.
+     * Возвращённые периоды не пересекаются с известными серверу бронированиями и удержаниями,
+     * но окончательно период проверяется при создании бронирования.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param from начало окна в формате ISO-8601
+     * @param to окончание окна в формате ISO-8601, не включительно
+     * @return ItemAvailabilityDto свободные периоды в порядке возрастания даты начала
+     * @throws ru.practicum.shareit.exception.NotFoundException если предмет не найден
+     * @throws ru.practicum.shareit.exception.BadRequestException если окно пустое или слишком широкое
+     *
+     * @apiNote <b>HTTP запрос:</b> GET /items/{itemId}/availability?from={from}&amp;to={to}
+     * @apiNote <b>Пример ответа:</b>
+     * <pre>
+     * {
+     *   "itemId": 123,
+     *   "from": "2024-01-01T00:00:00",
+     *   "to": "2024-02-01T00:00:00",
+     *   "freeIntervals": [
+     *     { "start": "2024-01-01T00:00:00", "end": "2024-01-20T10:00:00" },
+     *     { "start": "2024-01-22T18:00:00", "end": "2024-02-01T00:00:00" }
+     *   ]
+     * }
+     * </pre>
+     *
+     * @see ItemService#getAvailability(Integer, LocalDateTime, LocalDateTime)
+     */
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Integer itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     /**
@@ -2,12 +2,19 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 /**
  * Репозиторий для работы с сущностями предметов (вещей) в базе данных.
  * <p>
@@ -84,13 +91,42 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
      * }
      * </pre>
      *
-     * @see ItemServiceImpl#searchItems(String)
+     * @see ItemServiceImpl#searchItems(String, LocalDateTime, LocalDateTime)
      */
     @Query("SELECT i FROM Item i " +
             "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
             "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
             "AND i.available = true")
     List<Item> searchItemsByNameAndDescription(String text);
+
+    /**
+     * Выполняет поиск доступных предметов по названию и описанию, свободных в окне.
+     * <p>
+     * Условия поиска совпадают с {@link #searchItemsByNameAndDescription(String)}. Дополнительно
+     * исключаются предметы, у которых есть подтверждённое бронирование, пересекающееся
+     * с окном [from, to). Проверка выполняется одним запросом через NOT EXISTS, а не отдельным
+     * запросом бронирований для каждого найденного предмета.
+     * </p>
+     *
+     * @param text текст для поиска, не должен быть null
+     * @param from начало окна
+     * @param to окончание окна, не включительно
+     * @return список предметов без подтверждённых бронирований в окне
+     *
+     * @apiNote <b>Индекс:</b> {@code idx_bookings_item_status_end (item_id, status, end_date)}
+     * @see ItemServiceImpl#searchItems(String, LocalDateTime, LocalDateTime)
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "AND i.available = true " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start < :to " +
+            "AND b.end > :from)")
+    List<Item> searchFreeItemsByNameAndDescription(String text, LocalDateTime from, LocalDateTime to);
+
     /**
      * Находит все предметы, связанные с указанным запросом.
      * <p>
@@ -114,5 +150,82 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
      * </pre>
      */
     List<Item> findAllByRequestId(Integer requestId);
-}
 
+    /**
+     * Находит предмет по идентификатору и блокирует его строку до конца транзакции.
+     * <p>
+     * Защищает от пересечения ожидающих бронирований, которые не покрывает exclusion constraint:
+     * операции бронирования одного предмета на всех экземплярах сервера выполняются последовательно,
+     * а бронирования разных предметов не блокируют друг друга.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @return Optional с предметом, если он найден
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * SELECT * FROM items WHERE item_id = :itemId FOR UPDATE
+     * </pre>
+     *
+     * @see ru.practicum.shareit.booking.BookingServiceImpl
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Integer itemId);
+
+    /**
+     * Находит предметы по списку идентификаторов и блокирует их строки до конца транзакции.
+     * <p>
+     * Используется при пакетном создании бронирований.
+     * Строки блокируются в порядке возрастания идентификаторов, чтобы параллельные пакеты
+     * с пересекающимися наборами предметов не приводили к взаимной блокировке.
+     * </p>
+     *
+     * @param itemIds идентификаторы предметов, не должен быть null
+     * @return список найденных предметов, отсортированный по идентификатору
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * SELECT * FROM items WHERE item_id IN (:itemIds) ORDER BY item_id FOR UPDATE
+     * </pre>
+     *
+     * @see #findByIdForUpdate(Integer)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Integer> itemIds);
+
+    /**
+     * Обновляет поля предмета одним условным оператором UPDATE, если предмет принадлежит пользователю.
+     * <p>
+     * Поля, для которых передан null, сохраняют текущее значение. Права владельца
+     * проверяются в условии запроса, поэтому предмет и пользователь предварительно не читаются.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param userId идентификатор предполагаемого владельца
+     * @param name новое название или null
+     * @param description новое описание или null
+     * @param available новый статус доступности или null
+     * @return количество обновлённых строк: 1, если предмет найден и принадлежит пользователю, иначе 0
+     *
+     * @apiNote <b>Пример SQL запроса:</b>
+     * <pre>
+     * UPDATE items SET name = COALESCE(:name, name), description = COALESCE(:description, description),
+     *        available = COALESCE(:available, available)
+     * WHERE item_id = :itemId AND owner_id = :userId
+     * </pre>
+     *
+     * @see ItemServiceImpl#update(Integer, Integer, ru.practicum.shareit.item.dto.UpdateItemDto)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.name = COALESCE(:name, i.name), " +
+            "i.description = COALESCE(:description, i.description), " +
+            "i.available = COALESCE(:available, i.available) " +
+            "WHERE i.id = :itemId AND i.owner.id = :userId")
+    int updateIfOwner(@Param("itemId") Integer itemId,
+                      @Param("userId") Integer userId,
+                      @Param("name") String name,
+                      @Param("description") String description,
+                      @Param("available") Boolean available);
+}
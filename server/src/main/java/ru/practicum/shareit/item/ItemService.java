@@ -2,11 +2,13 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.CommentRequestDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.ResponseItemConciseDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 /**
  * Сервис для управления предметами (вещами) в системе шеринга.
@@ -103,15 +105,38 @@ public interface ItemService {
      * <p>
      * Поиск осуществляется только среди доступных предметов (available = true).
      * Возвращает компактное представление результатов для оптимизации.
-     * При пустом поисковом запросе возвращает пустой список.
+     * При пустом поисковом запросе возвращает пустой список. Если задано окно [from, to),
+     * возвращаются только предметы без подтверждённых бронирований, пересекающихся с окном.
      * </p>
      *
      * @param text текст для поиска, не должен быть null
+     * @param from начало окна или null, если занятость не учитывается
+     * @param to окончание окна, не включительно, или null, если занятость не учитывается
      * @return список ResponseItemConciseDto с результатами поиска
+     * @throws ru.practicum.shareit.exception.BadRequestException если задана только одна граница окна
+     *         или окно пустое
      *
      * @see ResponseItemConciseDto
      */
-    List<ResponseItemConciseDto> searchItems(String text);
+    List<ResponseItemConciseDto> searchItems(String text, LocalDateTime from, LocalDateTime to);
+    /**
+     * Возвращает свободные периоды предмета внутри окна [from, to).
+     * <p>
+     * Период свободен, если не пересекается с бронированиями в статусах WAITING и APPROVED
+     * и с действующими удержаниями. Ещё не развёрнутые повторения повторяющихся бронирований
+     * не учитываются, а бронирования, созданные на других экземплярах сервера, видны
+     * с задержкой до {@code shareit.booking.conflict-index.ttl}, поэтому календарь
+     * не гарантирует, что бронирование свободного периода будет принято.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param from начало окна
+     * @param to окончание окна, не включительно
+     * @return ItemAvailabilityDto свободные периоды в порядке возрастания даты начала
+     * @throws ru.practicum.shareit.exception.NotFoundException если предмет не найден
+     * @throws ru.practicum.shareit.exception.BadRequestException если окно пустое или слишком широкое
+     */
+    ItemAvailabilityDto getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to);
     /**
      * Создает комментарий к предмету.
      * <p>
@@ -2,17 +2,23 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingConflictIndex;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.FreeInterval;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.*;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.BookingHold;
+import ru.practicum.shareit.hold.BookingHoldIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.ResponseItemConciseDto;
@@ -26,7 +32,9 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 /**
  * Реализация сервиса для управления предметами (вещами) в системе шеринга.
@@ -92,6 +100,22 @@ public class ItemServiceImpl implements ItemService {
      */
     private final ItemRequestRepository requestRepository;
 
+    /**
+     * Индекс занятых периодов предметов, из которого вычисляются свободные периоды.
+     */
+    private final BookingConflictIndex conflictIndex;
+
+    /**
+     * Индекс удержаний, периоды которых исключаются из свободных.
+     */
+    private final BookingHoldIndex holdIndex;
+
+    /**
+     * Максимальная ширина окна календаря доступности.
+     */
+    @Value("${shareit.item.availability.max-window:P366D}")
+    private Duration availabilityMaxWindow;
+
     /**
      * Создает новый предмет в системе.
      * <p>
@@ -132,6 +156,11 @@ public class ItemServiceImpl implements ItemService {
      * Выполняет частичное обновление - изменяются только те поля, которые не равны null.
      * Проверяет права доступа - обновлять предмет может только владелец предмета.
      * </p>
+     * <p>
+     * Изменение и проверка прав выполняются одним условным оператором UPDATE, после которого
+     * обновлённый предмет читается по первичному ключу. Причина отказа выясняется
+     * дополнительными запросами только в случае, когда ни одна строка не изменилась.
+     * </p>
      *
      * @param userId идентификатор пользователя, выполняющего обновление
      * @param itemId идентификатор предмета для обновления
@@ -146,10 +175,14 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public ItemDto update(Integer userId, Integer itemId, UpdateItemDto updateItemDto) {
         log.debug("Получен запрос на обновление вещи пользователем {}, данные вещи {}", userId, updateItemDto);
-        Item item = checkAndGet(userId, itemId);
-        ItemMapper.mapToModelFromUpdatedItem(updateItemDto, item);
+        int updated = itemRepository.updateIfOwner(itemId, userId, updateItemDto.getName(),
+                updateItemDto.getDescription(), updateItemDto.getAvailable());
+        if (updated == 0) {
+            throw explainNotUpdated(userId, itemId);
+        }
         log.info("Вещь {}, обновлена", itemId);
-        return ItemMapper.mapToDto(itemRepository.save(item));
+        return ItemMapper.mapToDto(itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!")));
     }
     /**
      * Возвращает предмет по идентификатору с расширенной информацией.
@@ -172,7 +205,7 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Получен запрос на получение вещи по id = {},пользователем с id {}", itemId, userId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
-        log.debug("Получена вещь из базы данных: {}", item);
+        log.debug("Получена вещь из базы данных: id = {}, name = {}", item.getId(), item.getName());
         Booking lastBooking = null;
         Booking nextBooking = null;
 
@@ -225,25 +258,78 @@ public class ItemServiceImpl implements ItemService {
      * <p>
      * Поиск осуществляется только среди доступных предметов (available = true).
      * Возвращает компактное представление результатов для оптимизации.
-     * При пустом поисковом запросе возвращает пустой список.
+     * При пустом поисковом запросе возвращает пустой список. Занятость предметов в окне
+     * проверяется в том же запросе, что и поиск по тексту.
      * </p>
      *
      * @param text текст для поиска
+     * @param from начало окна или null
+     * @param to окончание окна, не включительно, или null
      * @return список ResponseItemConciseDto с результатами поиска
+     * @throws BadRequestException если задана только одна граница окна или окно пустое
      *
-     * @see ItemService#searchItems(String)
+     * @see ItemService#searchItems(String, LocalDateTime, LocalDateTime)
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseItemConciseDto> searchItems(String text) {
+    public List<ResponseItemConciseDto> searchItems(String text, LocalDateTime from, LocalDateTime to) {
         log.debug("Получен запрос: поиск вещей по имени или описанию!");
+        if ((from == null) != (to == null)) {
+            throw new BadRequestException("Окно поиска задаётся обеими границами: from и to");
+        }
+        if (from != null && !to.isAfter(from)) {
+            throw new BadRequestException("Окончание окна должно быть позже начала");
+        }
         if (text.isBlank()) {
             return List.of();
         }
-        return itemRepository.searchItemsByNameAndDescription(text).stream()
+        List<Item> items = from == null
+                ? itemRepository.searchItemsByNameAndDescription(text)
+                : itemRepository.searchFreeItemsByNameAndDescription(text, from, to);
+        return items.stream()
                 .map(ItemMapper::mapToResponseConcise)
                 .toList();
     }
+    /**
+     * Возвращает свободные периоды предмета внутри окна [from, to).
+     * <p>
+     * Свободные периоды вычисляются из {@link BookingConflictIndex}: периоды активных
+     * бронирований предмета уже хранятся там отсортированными по началу, поэтому повторные
+     * запросы календаря не обращаются к таблице бронирований. Из свободных периодов
+     * вычитаются действующие удержания {@link BookingHoldIndex}. У недоступного предмета
+     * свободных периодов нет.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param from начало окна
+     * @param to окончание окна, не включительно
+     * @return ItemAvailabilityDto свободные периоды в порядке возрастания даты начала
+     * @throws NotFoundException если предмет не найден
+     * @throws BadRequestException если окно пустое или шире {@code shareit.item.availability.max-window}
+     *
+     * @see ItemService#getAvailability(Integer, LocalDateTime, LocalDateTime)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Получен запрос на календарь доступности вещи {} с {} по {}", itemId, from, to);
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("Окончание окна должно быть позже начала");
+        }
+        if (Duration.between(from, to).compareTo(availabilityMaxWindow) > 0) {
+            throw new BadRequestException("Окно календаря не может быть шире " + availabilityMaxWindow.toDays()
+                    + " дней");
+        }
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
+        List<FreeInterval> freeIntervals = item.isAvailable()
+                ? withoutHolds(conflictIndex.freeIntervals(itemId, from, to),
+                holdIndex.findActive(itemId, LocalDateTime.now()))
+                : List.of();
+        log.debug("Найдено свободных периодов вещи {}: {}", itemId, freeIntervals.size());
+        return new ItemAvailabilityDto(itemId, from, to, freeIntervals);
+    }
+
     /**
      * Создает комментарий к предмету.
      * <p>
@@ -287,27 +373,51 @@ public class ItemServiceImpl implements ItemService {
                 savedComment.getAuthor().getName(), savedComment.getCreated());
     }
     /**
-     * Проверяет существование пользователя и предмета, а также права доступа.
+     * Определяет, почему условный UPDATE предмета не изменил ни одной строки.
      * <p>
-     * Вспомогательный метод для проверки перед операциями обновления.
-     * Убеждается, что пользователь существует и является владельцем предмета.
+     * Выполняется только в неуспешном случае, поэтому не нагружает основной путь обновления.
      * </p>
      *
-     * @param userId идентификатор пользователя для проверки
-     * @param itemId идентификатор предмета для проверки
-     * @return Item предмет, если проверки пройдены успешно
-     * @throws NotFoundException если пользователь или предмет не найдены
-     * @throws BadRequestException если пользователь не является владельцем предмета
+     * @param userId идентификатор пользователя, выполняющего обновление
+     * @param itemId идентификатор предмета для обновления
+     * @return исключение, описывающее причину отказа
      */
-    private Item checkAndGet(Integer userId, Integer itemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
-        if (!item.getOwner().equals(user)) {
-            log.error("Вещь с id {}, добавлена другим пользователем!", itemId);
-            throw new BadRequestException("Вещь с id " + itemId + " добавлена другим пользователем,!");
+    private RuntimeException explainNotUpdated(Integer userId, Integer itemId) {
+        if (!userRepository.existsById(userId)) {
+            return new NotFoundException("Пользователь с id " + userId + " не найден!");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            return new NotFoundException("Вещь с id " + itemId + " не найдена!");
+        }
+        log.error("Вещь с id {}, добавлена другим пользователем!", itemId);
+        return new BadRequestException("Вещь с id " + itemId + " добавлена другим пользователем,!");
+    }
+
+    /**
+     * Вычитает удерживаемые периоды из свободных, сохраняя порядок по дате начала.
+     *
+     * @param free свободные периоды в порядке возрастания даты начала
+     * @param holds действующие удержания предмета
+     * @return свободные периоды, не пересекающиеся с удержаниями
+     */
+    private static List<FreeInterval> withoutHolds(List<FreeInterval> free, List<BookingHold> holds) {
+        List<FreeInterval> result = free;
+        for (BookingHold hold : holds) {
+            List<FreeInterval> remaining = new ArrayList<>(result.size() + 1);
+            for (FreeInterval interval : result) {
+                if (!hold.overlaps(interval.start(), interval.end())) {
+                    remaining.add(interval);
+                    continue;
+                }
+                if (hold.start().isAfter(interval.start())) {
+                    remaining.add(new FreeInterval(interval.start(), hold.start()));
+                }
+                if (hold.end().isBefore(interval.end())) {
+                    remaining.add(new FreeInterval(hold.end(), interval.end()));
+                }
+            }
+            result = remaining;
         }
-        return item;
+        return result;
     }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.FreeInterval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO календаря доступности предмета.
+ * <p>
+ * Содержит свободные периоды предмета внутри запрошенного окна в порядке возрастания
+ * даты начала. Период свободен, если не пересекается с бронированиями
+ * в статусах WAITING и APPROVED и с действующими удержаниями; у недоступного
+ * предмета свободных периодов нет.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.item.ItemService#getAvailability(Integer, LocalDateTime, LocalDateTime)
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private Integer itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<FreeInterval> freeIntervals;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -11,15 +12,28 @@ import ru.practicum.shareit.booking.model.Booking;
 @Mapper(componentModel = "spring")
 public interface BookingMapper {
 
+    @Mapping(target = "version", ignore = true)
     public Booking mapToModel(BookingDto bookingDto);
 
     @Mapping(target = "item", source = "item")
     @Mapping(target = "booker", source = "booker")
     public BookingDto mapToDto(Booking booking);
 
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    @Mapping(target = "item.ownerId", ignore = true)
+    @Mapping(target = "item.requestId", ignore = true)
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    public BookingDto mapToDtoFromView(BookingView bookingView);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "item", ignore = true)
     @Mapping(target = "booker", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
     public Booking mapToModelFromRequest(BookingRequestDto bookingRequestDto);
 }
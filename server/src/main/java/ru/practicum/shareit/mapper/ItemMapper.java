@@ -28,19 +28,6 @@ public class ItemMapper {
         return new ResponseItemConciseDto(item.getName(), item.getDescription());
     }
 
-    public static Item mapToModelFromUpdatedItem(UpdateItemDto itemDto, Item item) {
-        if (itemDto.getName() != null) {
-            item.setName(itemDto.getName());
-        }
-        if (itemDto.getDescription() != null) {
-            item.setDescription(itemDto.getDescription());
-        }
-        if (itemDto.getAvailable() != null) {
-            item.setAvailable(itemDto.getAvailable());
-        }
-        return item;
-    }
-
     public static ItemWithBookingDto mapToItemWithBooking(Item item,
                                                           BookingDto lastBooking,
                                                           BookingDto nextBooking,
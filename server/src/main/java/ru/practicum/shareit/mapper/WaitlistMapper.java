@@ -0,0 +1,16 @@
+package ru.practicum.shareit.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.waitlist.WaitlistEntry;
+import ru.practicum.shareit.waitlist.dto.WaitlistEntryDto;
+
+@Component
+@Mapper(componentModel = "spring")
+public interface WaitlistMapper {
+
+    @Mapping(target = "itemId", source = "item.id")
+    @Mapping(target = "userId", source = "user.id")
+    public WaitlistEntryDto mapToDto(WaitlistEntry waitlistEntry);
+}
@@ -4,4 +4,12 @@ public final class AppHeaders {
     private AppHeaders() {}
 
     public static final String USER_ID = "X-Sharer-User-Id";
+
+    public static final String REJECTED_OVERLAPPING_COUNT = "X-Rejected-Overlapping-Count";
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 }
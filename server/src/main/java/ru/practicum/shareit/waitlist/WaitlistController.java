@@ -0,0 +1,84 @@
+package ru.practicum.shareit.waitlist;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.util.AppHeaders;
+import ru.practicum.shareit.waitlist.dto.WaitlistEntryDto;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+/**
+ * REST контроллер для управления листами ожидания предметов.
+ * <p>
+ * Пользователь встаёт в лист ожидания занятого периода и получает бронирование
+ * в статусе WAITING автоматически, как только период освободится,
+ * вместо периодического опроса {@code GET /items/{itemId}}.
+ * </p>
+ *
+ * <p><b>Базовый путь:</b> {@code /items/{itemId}/waitlist}</p>
+ * <p><b>Заголовок аутентификации:</b> {@code X-Sharer-User-Id} - идентификатор пользователя</p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistService
+ * @since 2025
+ */
+@RestController
+@RequestMapping("/items/{itemId}/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+    /**
+     * Сервис для выполнения бизнес-логики листов ожидания.
+     */
+    private final WaitlistService waitlistService;
+
+    /**
+     * Ставит пользователя в лист ожидания предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя из заголовка
+     * @param waitlistRequestDto ожидаемый период
+     * @return WaitlistEntryDto созданная запись листа ожидания
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если период некорректен или свободен
+     * @throws ru.practicum.shareit.exception.ConflictException если пользователь уже ожидает пересекающийся период
+     *
+     * @apiNote <b>HTTP запрос:</b> POST /items/{itemId}/waitlist
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     * @apiNote <b>Пример тела запроса:</b>
+     * <pre>
+     * {
+     *   "start": "2025-12-01T10:00:00",
+     *   "end": "2025-12-05T18:00:00"
+     * }
+     * </pre>
+     *
+     * @see WaitlistService#join(Integer, Integer, WaitlistRequestDto)
+     */
+    @PostMapping
+    public WaitlistEntryDto join(@PathVariable Integer itemId,
+                                 @RequestHeader(AppHeaders.USER_ID) Integer userId,
+                                 @RequestBody WaitlistRequestDto waitlistRequestDto) {
+        return waitlistService.join(itemId, userId, waitlistRequestDto);
+    }
+
+    /**
+     * Удаляет запись пользователя из листа ожидания предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param entryId идентификатор записи листа ожидания
+     * @param userId идентификатор пользователя из заголовка
+     * @throws ru.practicum.shareit.exception.NotFoundException если запись не найдена
+     * @throws ru.practicum.shareit.exception.BadRequestException если запись принадлежит другому пользователю
+     *
+     * @apiNote <b>HTTP запрос:</b> DELETE /items/{itemId}/waitlist/{entryId}
+     * @apiNote <b>Обязательные заголовки:</b> X-Sharer-User-Id
+     *
+     * @see WaitlistService#leave(Integer, Integer, Integer)
+     */
+    @DeleteMapping("/{entryId}")
+    public void leave(@PathVariable Integer itemId,
+                      @PathVariable Integer entryId,
+                      @RequestHeader(AppHeaders.USER_ID) Integer userId) {
+        waitlistService.leave(itemId, entryId, userId);
+    }
+}
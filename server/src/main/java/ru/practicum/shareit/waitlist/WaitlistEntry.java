@@ -0,0 +1,91 @@
+package ru.practicum.shareit.waitlist;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Запись листа ожидания предмета.
+ * <p>
+ * Пользователь встаёт в лист ожидания на занятый период предмета. Когда пересекающееся
+ * бронирование освобождает период, первая по порядку совместимая запись превращается
+ * в бронирование в статусе WAITING, а сама запись удаляется.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistService
+ * @see WaitlistIndex
+ * @since 2025
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "waitlist")
+public class WaitlistEntry {
+    /**
+     * Уникальный идентификатор записи, определяет порядок в листе ожидания.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Предмет, на который ожидается бронирование.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    @ToString.Exclude
+    private Item item;
+
+    /**
+     * Пользователь, ожидающий освобождения периода.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    /**
+     * Дата и время начала ожидаемого периода.
+     */
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+
+    /**
+     * Дата и время окончания ожидаемого периода.
+     */
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    /**
+     * Дата и время постановки в лист ожидания.
+     */
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime created;
+
+    @PrePersist
+    protected void onCreate() {
+        created = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WaitlistEntry entry = (WaitlistEntry) o;
+        return id != null && id.equals(entry.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
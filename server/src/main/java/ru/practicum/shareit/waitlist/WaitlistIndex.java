@@ -0,0 +1,127 @@
+package ru.practicum.shareit.waitlist;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory очереди листа ожидания по идентификатору предмета.
+ * <p>
+ * Для каждого предмета хранит записи листа ожидания в порядке постановки,
+ * чтобы при освобождении периода находить ожидающих без обращения к базе данных.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Очередь предмета загружается лениво из {@link WaitlistRepository} при первом обращении</li>
+ *   <li>Изменения очереди выполняются под монитором очереди предмета</li>
+ *   <li>При откате транзакции очередь предмета сбрасывается и перечитывается из базы данных</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistServiceImpl
+ * @see WaitlistRepository#findSlotsByItemId(Integer)
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitlistIndex {
+
+    /**
+     * Репозиторий для ленивой загрузки очереди предмета.
+     */
+    private final WaitlistRepository waitlistRepository;
+
+    /**
+     * Очереди листа ожидания по идентификатору предмета.
+     */
+    private final ConcurrentMap<Integer, List<WaitlistSlot>> slotsByItem = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает копию очереди предмета в порядке постановки.
+     *
+     * @param itemId идентификатор предмета
+     * @return записи листа ожидания предмета
+     */
+    public List<WaitlistSlot> snapshot(Integer itemId) {
+        List<WaitlistSlot> slots = slotsOf(itemId);
+        synchronized (slots) {
+            return List.copyOf(slots);
+        }
+    }
+
+    /**
+     * Добавляет запись в конец очереди предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param slot запись листа ожидания с заполненным идентификатором
+     */
+    public void add(Integer itemId, WaitlistSlot slot) {
+        List<WaitlistSlot> slots = slotsOf(itemId);
+        synchronized (slots) {
+            if (slots.stream().noneMatch(existing -> existing.id().equals(slot.id()))) {
+                slots.add(slot);
+            }
+        }
+        invalidateOnRollback(itemId);
+    }
+
+    /**
+     * Удаляет запись из очереди предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param entryId идентификатор записи листа ожидания
+     */
+    public void remove(Integer itemId, Integer entryId) {
+        List<WaitlistSlot> slots = slotsByItem.get(itemId);
+        if (slots == null) {
+            return;
+        }
+        synchronized (slots) {
+            slots.removeIf(slot -> slot.id().equals(entryId));
+        }
+        invalidateOnRollback(itemId);
+    }
+
+    /**
+     * Сбрасывает очередь предмета, при следующем обращении она будет перечитана из базы данных.
+     *
+     * @param itemId идентификатор предмета
+     */
+    public void invalidate(Integer itemId) {
+        slotsByItem.remove(itemId);
+    }
+
+    private List<WaitlistSlot> slotsOf(Integer itemId) {
+        return slotsByItem.computeIfAbsent(itemId, this::load);
+    }
+
+    private List<WaitlistSlot> load(Integer itemId) {
+        List<WaitlistSlot> slots = waitlistRepository.findSlotsByItemId(itemId);
+        log.debug("Загружен лист ожидания вещи {}, количество записей: {}", itemId, slots.size());
+        return new ArrayList<>(slots);
+    }
+
+    private void invalidateOnRollback(Integer itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    invalidate(itemId);
+                }
+            }
+        });
+    }
+}
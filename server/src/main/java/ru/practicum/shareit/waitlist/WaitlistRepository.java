@@ -0,0 +1,52 @@
+package ru.practicum.shareit.waitlist;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с записями листа ожидания в базе данных.
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistEntry
+ * @see WaitlistServiceImpl
+ * @since 2025
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    /**
+     * Находит записи листа ожидания предмета в порядке постановки.
+     * <p>
+     * Используется для ленивой загрузки очереди предмета в {@link WaitlistIndex}.
+     * Запрос обслуживается индексом {@code idx_waitlist_item (item_id, id)}.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @return записи листа ожидания, отсортированные по идентификатору
+     */
+    @Query("SELECT new ru.practicum.shareit.waitlist.WaitlistSlot(w.id, w.user.id, w.start, w.end) " +
+            "FROM WaitlistEntry w " +
+            "WHERE w.item.id = :itemId " +
+            "ORDER BY w.id")
+    List<WaitlistSlot> findSlotsByItemId(@Param("itemId") Integer itemId);
+
+    /**
+     * Удаляет запись листа ожидания.
+     * <p>
+     * В отличие от {@link #deleteById(Object)} возвращает количество удалённых строк,
+     * поэтому из двух параллельных продвижений одной записи бронирование создаёт только одно.
+     * </p>
+     *
+     * @param entryId идентификатор записи
+     * @return 1 если запись удалена, 0 если она уже удалена
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM WaitlistEntry w WHERE w.id = :entryId")
+    int deleteEntry(@Param("entryId") Integer entryId);
+}
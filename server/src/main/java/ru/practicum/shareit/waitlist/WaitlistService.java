@@ -0,0 +1,59 @@
+package ru.practicum.shareit.waitlist;
+
+import ru.practicum.shareit.waitlist.dto.WaitlistEntryDto;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+/**
+ * Сервис для управления листами ожидания предметов.
+ * <p>
+ * Пользователь встаёт в лист ожидания на период, занятый другим бронированием,
+ * вместо периодического опроса предмета. При освобождении периода первая по порядку
+ * совместимая запись автоматически превращается в бронирование в статусе WAITING.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistServiceImpl
+ * @see WaitlistController
+ * @since 2025
+ */
+public interface WaitlistService {
+    /**
+     * Ставит пользователя в лист ожидания предмета.
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param userId идентификатор ожидающего пользователя, не должен быть null
+     * @param waitlistRequestDto ожидаемый период, не должен быть null
+     * @return WaitlistEntryDto созданная запись листа ожидания
+     * @throws ru.practicum.shareit.exception.NotFoundException если пользователь или предмет не найдены
+     * @throws ru.practicum.shareit.exception.BadRequestException если период некорректен, предмет принадлежит
+     *         пользователю, недоступен или период свободен и его можно забронировать сразу
+     * @throws ru.practicum.shareit.exception.ConflictException если пользователь уже ожидает
+     *         пересекающийся период этого предмета
+     */
+    WaitlistEntryDto join(Integer itemId, Integer userId, WaitlistRequestDto waitlistRequestDto);
+
+    /**
+     * Удаляет запись пользователя из листа ожидания предмета.
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @param entryId идентификатор записи листа ожидания, не должен быть null
+     * @param userId идентификатор пользователя, не должен быть null
+     * @throws ru.practicum.shareit.exception.NotFoundException если запись не найдена в листе ожидания предмета
+     * @throws ru.practicum.shareit.exception.BadRequestException если запись принадлежит другому пользователю
+     */
+    void leave(Integer itemId, Integer entryId, Integer userId);
+
+    /**
+     * Превращает совместимые записи листа ожидания предмета в бронирования.
+     * <p>
+     * Записи просматриваются в порядке постановки. Запись продвигается, если её период
+     * не пересекается с активными бронированиями предмета, в том числе созданными
+     * при продвижении предыдущих записей.
+     * </p>
+     *
+     * @param itemId идентификатор предмета, не должен быть null
+     * @return количество созданных бронирований
+     */
+    int promote(Integer itemId);
+}
@@ -0,0 +1,255 @@
+package ru.practicum.shareit.waitlist;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingConflictIndex;
+import ru.practicum.shareit.booking.BookingReleasedEvent;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.mapper.WaitlistMapper;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.waitlist.dto.WaitlistEntryDto;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Реализация сервиса листов ожидания предметов.
+ * <p>
+ * Очередь каждого предмета хранится в {@link WaitlistIndex} и в таблице {@code waitlist},
+ * поэтому переживает перезапуск приложения. Продвижение очереди запускается
+ * событием {@link BookingReleasedEvent} после фиксации транзакции, освободившей период.
+ * </p>
+ *
+ * <p><b>Особенности реализации:</b></p>
+ * <ul>
+ *   <li>Каждая запись продвигается в отдельной транзакции: удаление записи и создание
+ *       бронирования через {@link BookingService#add(BookingRequestDto, Integer)} фиксируются вместе</li>
+ *   <li>Запись, период которой всё ещё пересекается с бронированием, остаётся в очереди</li>
+ *   <li>Запись, период которой уже начался или которую нельзя превратить в бронирование
+ *       (пользователь или предмет удалены, предмет недоступен), удаляется из очереди</li>
+ * </ul>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistService
+ * @see WaitlistIndex
+ * @see WaitlistRepository
+ * @since 2025
+ */
+@Slf4j
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistIndex waitlistIndex;
+    private final WaitlistMapper waitlistMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingService bookingService;
+    private final BookingConflictIndex conflictIndex;
+
+    /**
+     * Шаблон отдельной транзакции для продвижения одной записи.
+     * <p>
+     * Продвижение выполняется после фиксации транзакции, освободившей период,
+     * поэтому изменения должны фиксироваться в новой транзакции.
+     * </p>
+     */
+    private final TransactionTemplate requiresNew;
+
+    public WaitlistServiceImpl(WaitlistRepository waitlistRepository,
+                               WaitlistIndex waitlistIndex,
+                               WaitlistMapper waitlistMapper,
+                               UserRepository userRepository,
+                               ItemRepository itemRepository,
+                               BookingService bookingService,
+                               BookingConflictIndex conflictIndex,
+                               PlatformTransactionManager transactionManager) {
+        this.waitlistRepository = waitlistRepository;
+        this.waitlistIndex = waitlistIndex;
+        this.waitlistMapper = waitlistMapper;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingService = bookingService;
+        this.conflictIndex = conflictIndex;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ставит пользователя в лист ожидания предмета.
+     * <p>
+     * Встать в лист ожидания можно только на период, пересекающийся с активным
+     * бронированием предмета: свободный период нужно бронировать сразу.
+     * </p>
+     *
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор ожидающего пользователя
+     * @param waitlistRequestDto ожидаемый период
+     * @return WaitlistEntryDto созданная запись листа ожидания
+     * @throws NotFoundException если пользователь или предмет не найдены
+     * @throws BadRequestException если нарушены бизнес-правила или период свободен
+     * @throws ConflictException если пользователь уже ожидает пересекающийся период предмета
+     *
+     * @see WaitlistService#join(Integer, Integer, WaitlistRequestDto)
+     */
+    @Override
+    @Transactional
+    public WaitlistEntryDto join(Integer itemId, Integer userId, WaitlistRequestDto waitlistRequestDto) {
+        log.debug("Получен запрос на постановку в лист ожидания вещи с id = {} пользователем с id = {}",
+                itemId, userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден!"));
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена!"));
+        checkCanWait(waitlistRequestDto, item, userId);
+
+        LocalDateTime start = waitlistRequestDto.getStart();
+        LocalDateTime end = waitlistRequestDto.getEnd();
+        if (!conflictIndex.overlaps(itemId, start, end)) {
+            throw new BadRequestException("Период свободен, вещь можно забронировать сразу");
+        }
+        boolean alreadyWaiting = waitlistIndex.snapshot(itemId).stream()
+                .anyMatch(slot -> slot.userId().equals(userId)
+                        && slot.start().isBefore(end) && slot.end().isAfter(start));
+        if (alreadyWaiting) {
+            log.error("Пользователь с id = {} уже ожидает пересекающийся период вещи с id = {}", userId, itemId);
+            throw new ConflictException("Пользователь уже ожидает пересекающийся период этой вещи");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(null, item, user, start, end, null));
+        waitlistIndex.add(itemId, new WaitlistSlot(entry.getId(), userId, start, end));
+        log.info("Пользователь с id = {} поставлен в лист ожидания вещи с id = {}, запись id = {}",
+                userId, itemId, entry.getId());
+        return waitlistMapper.mapToDto(entry);
+    }
+
+    /**
+     * Удаляет запись пользователя из листа ожидания предмета.
+     *
+     * @param itemId идентификатор предмета
+     * @param entryId идентификатор записи листа ожидания
+     * @param userId идентификатор пользователя
+     * @throws NotFoundException если запись не найдена в листе ожидания предмета
+     * @throws BadRequestException если запись принадлежит другому пользователю
+     *
+     * @see WaitlistService#leave(Integer, Integer, Integer)
+     */
+    @Override
+    @Transactional
+    public void leave(Integer itemId, Integer entryId, Integer userId) {
+        log.debug("Получен запрос на удаление записи id = {} из листа ожидания вещи с id = {} пользователем с id = {}",
+                entryId, itemId, userId);
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .filter(found -> Objects.equals(found.getItem().getId(), itemId))
+                .orElseThrow(() -> new NotFoundException("Запись листа ожидания с id " + entryId + " не найдена!"));
+        if (!Objects.equals(entry.getUser().getId(), userId)) {
+            throw new BadRequestException("Удалить запись из листа ожидания может только её автор!");
+        }
+        waitlistRepository.delete(entry);
+        waitlistIndex.remove(itemId, entryId);
+        log.info("Запись id = {} удалена из листа ожидания вещи с id = {}", entryId, itemId);
+    }
+
+    /**
+     * Превращает совместимые записи листа ожидания предмета в бронирования.
+     *
+     * @param itemId идентификатор предмета
+     * @return количество созданных бронирований
+     *
+     * @see WaitlistService#promote(Integer)
+     */
+    @Override
+    public int promote(Integer itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        int promoted = 0;
+        for (WaitlistSlot slot : waitlistIndex.snapshot(itemId)) {
+            if (!slot.start().isAfter(now)) {
+                discard(itemId, slot, "период уже начался");
+                continue;
+            }
+            if (conflictIndex.overlaps(itemId, slot.start(), slot.end())) {
+                continue;
+            }
+            try {
+                BookingDto booking = requiresNew.execute(status -> {
+                    if (waitlistRepository.deleteEntry(slot.id()) == 0) {
+                        return null;
+                    }
+                    BookingDto created = bookingService.add(
+                            new BookingRequestDto(itemId, slot.start(), slot.end()), slot.userId());
+                    waitlistIndex.remove(itemId, slot.id());
+                    return created;
+                });
+                if (booking != null) {
+                    promoted++;
+                    log.info("Запись id = {} листа ожидания вещи с id = {} превращена в бронирование id = {}",
+                            slot.id(), itemId, booking.getId());
+                }
+            } catch (ConflictException e) {
+                log.debug("Период записи id = {} листа ожидания вещи с id = {} всё ещё занят", slot.id(), itemId);
+            } catch (NotFoundException | BadRequestException e) {
+                discard(itemId, slot, e.getMessage());
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * Продвигает лист ожидания предмета после освобождения его периода.
+     * <p>
+     * Вызывается после фиксации транзакции, опубликовавшей событие. Ошибки продвижения
+     * только журналируются и не влияют на уже выполненный запрос.
+     * </p>
+     *
+     * @param event событие освобождения периода предмета
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingReleased(BookingReleasedEvent event) {
+        try {
+            promote(event.itemId());
+        } catch (RuntimeException e) {
+            log.error("Не удалось продвинуть лист ожидания вещи с id = {}", event.itemId(), e);
+        }
+    }
+
+    private void checkCanWait(WaitlistRequestDto waitlistRequestDto, Item item, Integer userId) {
+        if (waitlistRequestDto.getStart() == null || waitlistRequestDto.getEnd() == null) {
+            throw new BadRequestException("Даты начала и окончания периода не могут быть пустыми");
+        }
+        if (!waitlistRequestDto.getStart().isBefore(waitlistRequestDto.getEnd())) {
+            throw new BadRequestException("Дата начала должна быть раньше даты окончания");
+        }
+        if (!waitlistRequestDto.getStart().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Дата начала должна быть в будущем");
+        }
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            throw new BadRequestException("Нельзя вставать в лист ожидания своей же вещи");
+        }
+        if (!item.isAvailable()) {
+            throw new BadRequestException("Вещь недоступна для бронирования");
+        }
+    }
+
+    private void discard(Integer itemId, WaitlistSlot slot, String reason) {
+        requiresNew.executeWithoutResult(status -> {
+            waitlistRepository.deleteEntry(slot.id());
+            waitlistIndex.remove(itemId, slot.id());
+        });
+        log.info("Запись id = {} удалена из листа ожидания вещи с id = {}: {}", slot.id(), itemId, reason);
+    }
+}
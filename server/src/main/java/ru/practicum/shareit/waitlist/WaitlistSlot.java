@@ -0,0 +1,20 @@
+package ru.practicum.shareit.waitlist;
+
+import java.time.LocalDateTime;
+
+/**
+ * Облегчённое представление записи листа ожидания для хранения в памяти.
+ *
+ * @param id идентификатор записи
+ * @param userId идентификатор ожидающего пользователя
+ * @param start дата и время начала ожидаемого периода
+ * @param end дата и время окончания ожидаемого периода
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistIndex
+ * @see WaitlistRepository#findSlotsByItemId(Integer)
+ * @since 2025
+ */
+public record WaitlistSlot(Integer id, Integer userId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.waitlist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для передачи данных о записи листа ожидания.
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see ru.practicum.shareit.waitlist.WaitlistEntry
+ * @see ru.practicum.shareit.waitlist.WaitlistController
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WaitlistEntryDto {
+    private Integer id;
+    private Integer itemId;
+    private Integer userId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime created;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.waitlist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для запроса на постановку в лист ожидания предмета.
+ * <p>
+ * Содержит ожидаемый период. Предмет задаётся в пути запроса,
+ * пользователь - в заголовке {@code X-Sharer-User-Id}.
+ * </p>
+ *
+ * @author MaksimLM17
+ * @version 1.0
+ * @see WaitlistEntryDto
+ * @see ru.practicum.shareit.waitlist.WaitlistController
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistRequestDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1 @@
+CREATE INDEX idx_bookings_status_start ON bookings (status, start_date, id);
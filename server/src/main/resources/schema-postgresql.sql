@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_booking_approved_overlap
+  EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+  WHERE (status = 'APPROVED');
+
+CREATE INDEX idx_bookings_waiting_start ON bookings (start_date, id) WHERE status = 'WAITING';
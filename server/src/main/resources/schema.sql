@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS comments, bookings, items, requests, users;
+DROP TABLE IF EXISTS idempotency_keys, waitlist, recurring_bookings, comments, bookings, items, requests, users;
 
 CREATE TABLE users (
   user_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -29,6 +29,8 @@ CREATE TABLE items (
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_items_owner ON items (owner_id);
+
 CREATE TABLE bookings (
   id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -36,11 +38,41 @@ CREATE TABLE bookings (
   item_id integer NOT NULL,
   booker_id integer NOT NULL,
   status varchar(15) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+  version integer NOT NULL DEFAULT 0,
   CONSTRAINT pk_booking PRIMARY KEY (id),
   CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
   CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date, id, end_date);
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+CREATE INDEX idx_bookings_end_start ON bookings (end_date, start_date);
+
+CREATE TABLE recurring_bookings (
+  id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  item_id integer NOT NULL,
+  booker_id integer NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  period_days integer NOT NULL CHECK (period_days > 0),
+  occurrences integer NOT NULL CHECK (occurrences > 0),
+  materialized_count integer NOT NULL DEFAULT 0,
+  next_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  skipped_count integer NOT NULL DEFAULT 0,
+  last_skipped_start TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_recurring_booking PRIMARY KEY (id),
+  CONSTRAINT fk_recurring_booking_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+  CONSTRAINT fk_recurring_booking_user FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_recurring_bookings_booker ON recurring_bookings (booker_id);
+
+CREATE INDEX idx_recurring_bookings_next_start ON recurring_bookings (next_start);
+
 CREATE TABLE comments (
   id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text varchar(1022) NOT NULL,
@@ -50,4 +82,30 @@ CREATE TABLE comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
   CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (user_id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE waitlist (
+  id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  item_id integer NOT NULL,
+  user_id integer NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_waitlist PRIMARY KEY (id),
+  CONSTRAINT fk_waitlist_item FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+  CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_waitlist_item ON waitlist (item_id, id);
+
+CREATE TABLE idempotency_keys (
+  request_key varchar(600) NOT NULL,
+  status integer NOT NULL,
+  content_type varchar(255),
+  response_body text NOT NULL,
+  created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  request_hash varchar(64) NOT NULL,
+  CONSTRAINT pk_idempotency_key PRIMARY KEY (request_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_date);
@@ -1,13 +1,38 @@
 package ru.practicum.shareit;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ShareItTests {
 
+	@Autowired
+	private ScheduledTaskHolder scheduledTasks;
+
+	@Autowired
+	private ThreadPoolTaskScheduler taskScheduler;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void scheduling_shouldRunJobsOnSharedPool() {
+		List<String> tasks = scheduledTasks.getScheduledTasks().stream()
+				.map(task -> task.getTask().getRunnable().toString())
+				.toList();
+
+		assertTrue(tasks.stream().anyMatch(task -> task.contains("BookingHoldIndex.purgeExpired")), tasks.toString());
+		assertTrue(tasks.stream().anyMatch(task -> task.contains("IdempotencyStore.purgeExpired")), tasks.toString());
+		assertEquals(4, taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize());
+	}
+
 }
@@ -0,0 +1,234 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+
+@ExtendWith(MockitoExtension.class)
+class BookingConflictIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingConflictIndex conflictIndex;
+
+    private final Integer itemId = 1;
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        conflictIndex = new BookingConflictIndex(bookingRepository, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void overlaps_shouldLoadIntervalsLazilyOnce() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any()))
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusDays(2))));
+
+        assertTrue(conflictIndex.overlaps(itemId, base.plusDays(1), base.plusDays(3)));
+        assertFalse(conflictIndex.overlaps(itemId, base.plusDays(2), base.plusDays(3)));
+        assertFalse(conflictIndex.overlaps(itemId, base.minusDays(1), base));
+
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemId(eq(itemId), any(), any());
+    }
+
+    @Test
+    void overlaps_shouldFindLongIntervalHiddenBehindShortOnes() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of(
+                new BookingInterval(1, base, base.plusDays(30)),
+                new BookingInterval(2, base.plusDays(1), base.plusDays(2)),
+                new BookingInterval(3, base.plusDays(3), base.plusDays(4))));
+
+        assertTrue(conflictIndex.overlaps(itemId, base.plusDays(10), base.plusDays(11)));
+        assertFalse(conflictIndex.overlaps(itemId, base.plusDays(30), base.plusDays(31)));
+    }
+
+    @Test
+    void tryAdd_shouldRejectOverlappingPeriod() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+
+        assertTrue(conflictIndex.tryAdd(itemId, 1, base, base.plusDays(1)));
+        assertFalse(conflictIndex.tryAdd(itemId, 2, base.plusHours(12), base.plusDays(2)));
+        assertTrue(conflictIndex.tryAdd(itemId, 3, base.plusDays(1), base.plusDays(2)));
+    }
+
+    @Test
+    void tryAdd_shouldIgnoreOverlapWithItself() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any()))
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusDays(1))));
+
+        assertTrue(conflictIndex.tryAdd(itemId, 1, base, base.plusDays(1)));
+        assertTrue(conflictIndex.overlaps(itemId, base, base.plusHours(1)));
+    }
+
+    @Test
+    void tryAdd_shouldKeepOldPeriodWhenNewOneConflicts() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of(
+                new BookingInterval(1, base, base.plusDays(1)),
+                new BookingInterval(2, base.plusDays(2), base.plusDays(3))));
+
+        assertFalse(conflictIndex.tryAdd(itemId, 1, base.plusDays(2), base.plusDays(3)));
+        assertTrue(conflictIndex.overlaps(itemId, base, base.plusHours(1)));
+    }
+
+    @Test
+    void remove_shouldFreePeriod() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any()))
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusDays(1))));
+
+        conflictIndex.overlaps(itemId, base, base.plusDays(1));
+        conflictIndex.remove(itemId, 1);
+
+        assertFalse(conflictIndex.overlaps(itemId, base, base.plusDays(1)));
+    }
+
+    @Test
+    void invalidate_shouldReloadIntervals() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+
+        conflictIndex.overlaps(itemId, base, base.plusDays(1));
+        conflictIndex.invalidate(itemId);
+        conflictIndex.overlaps(itemId, base, base.plusDays(1));
+
+        verify(bookingRepository, times(2)).findActiveIntervalsByItemId(eq(itemId), any(), any());
+    }
+
+    @Test
+    void invalidateOnCompletion_shouldReloadIntervalsAfterTransaction() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            conflictIndex.overlaps(itemId, base, base.plusDays(1));
+            conflictIndex.invalidateOnCompletion(itemId);
+            conflictIndex.overlaps(itemId, base, base.plusDays(1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        conflictIndex.overlaps(itemId, base, base.plusDays(1));
+
+        verify(bookingRepository, times(3)).findActiveIntervalsByItemId(eq(itemId), any(), any());
+    }
+
+    @Test
+    void overlaps_shouldLoadOnlyUnfinishedBookings() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now();
+
+        conflictIndex.overlaps(itemId, base, base.plusDays(1));
+
+        verify(bookingRepository).findActiveIntervalsByItemId(eq(itemId), eq(BookingConflictIndex.ACTIVE_STATUSES),
+                argThat(now -> !now.isBefore(before)));
+    }
+
+    @Test
+    void overlaps_shouldReloadIntervalsAfterTtl() {
+        conflictIndex = new BookingConflictIndex(bookingRepository, Duration.ZERO, 100);
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any()))
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusDays(1))), List.of());
+
+        assertTrue(conflictIndex.overlaps(itemId, base, base.plusDays(1)));
+        assertFalse(conflictIndex.overlaps(itemId, base, base.plusDays(1)));
+
+        verify(bookingRepository, times(2)).findActiveIntervalsByItemId(eq(itemId), any(), any());
+    }
+
+    @Test
+    void overlaps_shouldEvictItemsBeyondLimit() {
+        conflictIndex = new BookingConflictIndex(bookingRepository, Duration.ofMinutes(1), 1);
+        when(bookingRepository.findActiveIntervalsByItemId(any(), any(), any())).thenReturn(List.of());
+
+        conflictIndex.overlaps(1, base, base.plusDays(1));
+        conflictIndex.overlaps(2, base, base.plusDays(1));
+        conflictIndex.overlaps(1, base, base.plusDays(1));
+
+        verify(bookingRepository, times(2)).findActiveIntervalsByItemId(eq(1), any(), any());
+    }
+
+    @Test
+    void refresh_shouldKeepPeriodsOfUncommittedTransactions() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(conflictIndex.tryAdd(itemId, 1, base, base.plusDays(1)));
+            conflictIndex.refresh(itemId);
+
+            assertTrue(conflictIndex.overlaps(itemId, base, base.plusDays(1)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        conflictIndex.refresh(itemId);
+
+        assertFalse(conflictIndex.overlaps(itemId, base, base.plusDays(1)));
+    }
+
+    @Test
+    void itemIntervals_shouldGrowBeyondInitialCapacity() {
+        BookingConflictIndex.ItemIntervals intervals = BookingConflictIndex.ItemIntervals.of(List.of());
+        for (int i = 0; i < 100; i++) {
+            intervals.insert(i, i * 10L, i * 10L + 5);
+        }
+
+        assertEquals(100, intervals.size());
+        assertTrue(intervals.overlaps(502, 503));
+        assertFalse(intervals.overlaps(505, 510));
+    }
+
+    @Test
+    void freeIntervals_shouldMergeOverlappingAndTouchingBookings() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of(
+                new BookingInterval(1, base.minusDays(5), base.plusDays(1)),
+                new BookingInterval(2, base.plusDays(3), base.plusDays(10)),
+                new BookingInterval(3, base.plusDays(4), base.plusDays(5)),
+                new BookingInterval(4, base.plusDays(10), base.plusDays(12)),
+                new BookingInterval(5, base.plusDays(20), base.plusDays(40))));
+
+        assertEquals(List.of(
+                        new FreeInterval(base.plusDays(1), base.plusDays(3)),
+                        new FreeInterval(base.plusDays(12), base.plusDays(20))),
+                conflictIndex.freeIntervals(itemId, base, base.plusDays(30)));
+    }
+
+    @Test
+    void freeIntervals_shouldReturnWholeWindowWithoutBookingsInside() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of(
+                new BookingInterval(1, base.minusDays(3), base.minusDays(2)),
+                new BookingInterval(2, base.plusDays(5), base.plusDays(6))));
+
+        assertEquals(List.of(new FreeInterval(base, base.plusDays(5))),
+                conflictIndex.freeIntervals(itemId, base, base.plusDays(5)));
+        assertEquals(List.of(), conflictIndex.freeIntervals(itemId, base.plusDays(5), base.plusDays(6)));
+    }
+
+    @Test
+    void freeIntervals_shouldFollowAddedAndRemovedBookings() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(itemId), any(), any())).thenReturn(List.of());
+
+        conflictIndex.tryAdd(itemId, 1, base.plusDays(1), base.plusDays(2));
+        assertEquals(List.of(
+                        new FreeInterval(base, base.plusDays(1)),
+                        new FreeInterval(base.plusDays(2), base.plusDays(3))),
+                conflictIndex.freeIntervals(itemId, base, base.plusDays(3)));
+
+        conflictIndex.remove(itemId, 1);
+        assertEquals(List.of(new FreeInterval(base, base.plusDays(3))),
+                conflictIndex.freeIntervals(itemId, base, base.plusDays(3)));
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemId(eq(itemId), any(), any());
+    }
+}
@@ -6,18 +6,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingTimelineDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +43,9 @@ class BookingControllerTest {
     @MockitoBean
     private BookingService bookingService;
 
+    @MockitoBean
+    private RecurringBookingService recurringBookingService;
+
     private BookingDto bookingDto;
     private BookingRequestDto bookingRequestDto;
     private final LocalDateTime now = LocalDateTime.now();
@@ -69,6 +83,51 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(bookingDto.getStatus().name()));
     }
 
+    @Test
+    void addBatch_shouldReturnPerEntryResults() throws Exception {
+        when(bookingService.addBatch(anyList(), anyInt())).thenReturn(List.of(
+                BookingBatchResultDto.created(0, bookingDto),
+                BookingBatchResultDto.failed(1, HttpStatus.CONFLICT, "Вещь с id 1 уже забронирована на указанный период")));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingRequestDto, bookingRequestDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(bookingDto.getId()))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[1].booking").doesNotExist());
+    }
+
+    @Test
+    void approveAll_shouldUpdateBookingStatuses() throws Exception {
+        bookingDto.setStatus(Status.APPROVED);
+        when(bookingService.approveAll(eq(List.of(1, 2)), anyInt(), eq(true))).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(bookingDto.getId()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"));
+    }
+
+    @Test
+    void approve_shouldReturnRejectedOverlappingCountInHeader() throws Exception {
+        bookingDto.setStatus(Status.APPROVED);
+        when(bookingService.approve(1, 1, true, true)).thenReturn(new BookingApprovalDto(bookingDto, 2));
+
+        mockMvc.perform(patch("/bookings/1?approved=true&rejectOverlapping=true")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Rejected-Overlapping-Count", "2"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
     @Test
     void approve_shouldUpdateBookingStatus() throws Exception {
         bookingDto.setStatus(Status.APPROVED);
@@ -80,6 +139,17 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    void cancel_shouldCancelBooking() throws Exception {
+        bookingDto.setStatus(Status.CANCELLED);
+        when(bookingService.cancel(1, 2)).thenReturn(bookingDto);
+
+        mockMvc.perform(patch("/bookings/1/cancel")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
     @Test
     void getById_shouldReturnBooking() throws Exception {
         when(bookingService.getById(anyInt(), anyInt())).thenReturn(bookingDto);
@@ -92,23 +162,100 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsCurrentUser_shouldReturnList() throws Exception {
-        when(bookingService.getAllBookingsCurrentUser(anyInt(), anyString()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getAllBookingsCurrentUser(anyInt(), anyString(), any(), any()))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
 
         mockMvc.perform(get("/bookings?state=ALL")
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(bookingDto.getId()));
     }
 
     @Test
     void getAllBookingsItemsUser_shouldReturnList() throws Exception {
-        when(bookingService.getAllBookingsItemsUser(anyInt(), anyString()))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getAllBookingsItemsUser(1, "FUTURE", 1, "cursor"))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
 
-        mockMvc.perform(get("/bookings/owner?state=FUTURE")
+        mockMvc.perform(get("/bookings/owner?state=FUTURE&limit=1&cursor=cursor")
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
                 .andExpect(jsonPath("$[0].id").value(bookingDto.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getOwnerSummary_shouldReturnCountsPerState() throws Exception {
+        when(bookingService.getOwnerSummary(1)).thenReturn(new BookingSummaryDto(6, 1, 2, 3, 2, 1));
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.future").value(3))
+                .andExpect(jsonPath("$.rejected").value(1));
+    }
+
+    @Test
+    void getOwnerTimeline_shouldReturnColumns() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+        when(bookingService.getOwnerTimeline(1, from, to)).thenReturn(new BookingTimelineDto(from, to,
+                List.of(3, 8), List.of(from.plusDays(1), from.plusDays(2)), List.of(from.plusDays(2), from.plusDays(3)),
+                List.of(Status.APPROVED, Status.WAITING), List.of(12, 40)));
+
+        mockMvc.perform(get("/bookings/owner/timeline")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemIds[1]").value(8))
+                .andExpect(jsonPath("$.starts[0]").value("2030-01-02T00:00:00"))
+                .andExpect(jsonPath("$.statuses[1]").value("WAITING"))
+                .andExpect(jsonPath("$.bookerIds[0]").value(12));
+    }
+
+    @Test
+    void getBookerSummary_shouldNotBeTreatedAsBookingId() throws Exception {
+        when(bookingService.getBookerSummary(1)).thenReturn(new BookingSummaryDto(1, 0, 0, 1, 1, 0));
+
+        mockMvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.waiting").value(1));
+    }
+
+    @Test
+    void exportOwnerBookings_shouldWriteOneJsonLinePerBooking() throws Exception {
+        BookingDto older = new BookingDto(2, bookingDto.getItem(), now.minusDays(3), now.minusDays(2),
+                bookingDto.getBooker(), Status.APPROVED);
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingDto);
+            consumer.accept(older);
+            return null;
+        }).when(bookingService).exportOwnerBookings(eq(1), any());
+
+        String body = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(bookingDto, objectMapper.readValue(lines[0], BookingDto.class));
+        assertEquals(older, objectMapper.readValue(lines[1], BookingDto.class));
+    }
+
+    @Test
+    void exportOwnerBookings_shouldReturnJsonErrorWhenUserNotFound() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id 99 не найден!"))
+                .when(bookingService).exportOwnerBookings(eq(99), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
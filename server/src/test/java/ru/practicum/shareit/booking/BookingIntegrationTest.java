@@ -0,0 +1,589 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.RecurringBooking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingIntegrationTest {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingConflictIndex conflictIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecurringBookingRepository recurringBookingRepository;
+    private final RecurringBookingService recurringBookingService;
+
+    @Test
+    void addBatch_shouldInsertValidEntriesAndReportErrors() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "batch-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "batch-booker@example.com"));
+        Item first = itemRepository.save(new Item("Палатка", "Трёхместная", true, owner));
+        Item second = itemRepository.save(new Item("Спальник", "Зимний", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<BookingRequestDto> requests = List.of(
+                new BookingRequestDto(first.getId(), start, start.plusDays(2)),
+                new BookingRequestDto(second.getId(), start, start.plusDays(2)),
+                new BookingRequestDto(first.getId(), start.plusDays(1), start.plusDays(3)));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").isNumber())
+                .andExpect(jsonPath("$[0].booking.status").value("WAITING"))
+                .andExpect(jsonPath("$[1].status").value(201))
+                .andExpect(jsonPath("$[2].status").value(409));
+
+        assertEquals(2, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getBooker().getId().equals(booker.getId()))
+                .count());
+    }
+
+    @Test
+    void getById_shouldCheckAccessInQuery() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "access-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "access-booker@example.com"));
+        User stranger = userRepository.save(new User(null, "Посторонний", "access-stranger@example.com"));
+        Item item = itemRepository.save(new Item("Гамак", "Походный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking booking = bookingRepository.save(waiting(item, booker, start, start.plusDays(1)));
+
+        for (User user : List.of(owner, booker)) {
+            mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                            .header("X-Sharer-User-Id", user.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.item.name").value("Гамак"))
+                    .andExpect(jsonPath("$.booker.id").value(booker.getId()));
+        }
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", stranger.getId()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId() + 1000)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void approveAll_shouldUpdateOwnedWaitingBookings() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "bulk-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "bulk-booker@example.com"));
+        Item item = itemRepository.save(new Item("Байдарка", "Двухместная", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking first = bookingRepository.save(waiting(item, booker, start, start.plusDays(1)));
+        Booking second = bookingRepository.save(waiting(item, booker, start.plusDays(2), start.plusDays(3)));
+
+        mockMvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first.getId(), second.getId()))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first.getId(), second.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].booker.id").value(booker.getId()));
+
+        mockMvc.perform(patch("/bookings/bulk?approved=false")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first.getId()))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void approve_shouldRejectOverlappingWaitingBookings() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "overlap-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "overlap-booker@example.com"));
+        Item item = itemRepository.save(new Item("Лодка", "Надувная", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking approved = bookingRepository.save(waiting(item, booker, start, start.plusDays(2)));
+        Booking overlapping = bookingRepository.save(waiting(item, booker, start.plusDays(1), start.plusDays(3)));
+        Booking adjacent = bookingRepository.save(waiting(item, booker, start.plusDays(2), start.plusDays(4)));
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true&rejectOverlapping=true", approved.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Rejected-Overlapping-Count", "1"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        assertEquals(Status.REJECTED, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(adjacent.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void cancel_shouldReleasePeriodForNewBookings() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "cancel-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "cancel-booker@example.com"));
+        User other = userRepository.save(new User(null, "Другой", "cancel-other@example.com"));
+        Item item = itemRepository.save(new Item("Мангал", "Складной", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String request = objectMapper.writeValueAsString(
+                new BookingRequestDto(item.getId(), start, start.plusDays(2)));
+        String created = mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Integer bookingId = objectMapper.readTree(created).get("id").asInt();
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(patch("/bookings/{bookingId}/cancel", bookingId)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/bookings/{bookingId}/cancel", bookingId)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}/cancel", bookingId)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITING"));
+    }
+
+    @Test
+    void expireStale_shouldRejectStartedWaitingBookingsInChunks() {
+        User owner = userRepository.save(new User(null, "Владелец", "expiry-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "expiry-booker@example.com"));
+        Item item = itemRepository.save(new Item("Велосипед", "Горный", true, owner));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Booking> stale = List.of(
+                bookingRepository.save(waiting(item, booker, now.minusDays(3), now.minusDays(2))),
+                bookingRepository.save(waiting(item, booker, now.minusDays(2), now.plusDays(1))),
+                bookingRepository.save(waiting(item, booker, now.minusHours(1), now.plusDays(2))));
+        Booking future = bookingRepository.save(waiting(item, booker, now.plusDays(3), now.plusDays(4)));
+        Booking approved = waiting(item, booker, now.minusDays(5), now.minusDays(4));
+        approved.setStatus(Status.APPROVED);
+        approved = bookingRepository.save(approved);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingExpiryJob job = new BookingExpiryJob(bookingRepository, eventPublisher,
+                transactionManager, meterRegistry, 2);
+
+        int rejected = job.expireStale();
+
+        assertTrue(rejected >= stale.size());
+        stale.forEach(booking -> assertEquals(Status.REJECTED,
+                bookingRepository.findById(booking.getId()).orElseThrow().getStatus()));
+        assertEquals(Status.WAITING, bookingRepository.findById(future.getId()).orElseThrow().getStatus());
+        assertEquals(Status.APPROVED, bookingRepository.findById(approved.getId()).orElseThrow().getStatus());
+        assertEquals(rejected, meterRegistry.counter("shareit.booking.expiry.rejected").count());
+        assertEquals(0, job.expireStale());
+    }
+
+    @Test
+    void expireStale_shouldSkipBookingsClaimedByAnotherNode() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "expiry-lock-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "expiry-lock-booker@example.com"));
+        Item item = itemRepository.save(new Item("Байдарка", "Двухместная", true, owner));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking claimed = bookingRepository.save(waiting(item, booker, now.minusDays(2), now.plusDays(1)));
+        Booking free = bookingRepository.save(waiting(item, booker, now.minusDays(1), now.plusDays(1)));
+        TransactionTemplate otherNode = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<List<Integer>> claim = CompletableFuture.supplyAsync(() -> otherNode.execute(status -> {
+            List<Integer> ids = bookingRepository.lockWaitingStartedBefore(List.of(claimed.getId()), now);
+            locked.countDown();
+            try {
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return ids;
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        BookingExpiryJob job = new BookingExpiryJob(bookingRepository, eventPublisher,
+                transactionManager, new SimpleMeterRegistry(), 10);
+
+        try {
+            job.expireStale();
+        } finally {
+            done.countDown();
+        }
+
+        assertEquals(List.of(claimed.getId()), claim.get(5, TimeUnit.SECONDS));
+        assertEquals(Status.WAITING, bookingRepository.findById(claimed.getId()).orElseThrow().getStatus());
+        assertEquals(Status.REJECTED, bookingRepository.findById(free.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void addRecurring_shouldMaterializeWindowAndListVirtualOccurrences() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "recurring-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "recurring-booker@example.com"));
+        Item item = itemRepository.save(new Item("Прицеп", "Одноосный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingRepository.save(waiting(item, booker, start.plusDays(3), start.plusDays(4)));
+        RecurringBookingRequestDto request = new RecurringBookingRequestDto(item.getId(), start,
+                start.plusHours(2), 7, 6);
+
+        mockMvc.perform(post("/bookings/recurring")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.occurrences").value(6))
+                .andExpect(jsonPath("$.materializedCount").value(4))
+                .andExpect(jsonPath("$.bookings.length()").value(4))
+                .andExpect(jsonPath("$.bookings[3].status").value("WAITING"));
+
+        mockMvc.perform(get("/bookings?state=ALL")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(7))
+                .andExpect(jsonPath("$[0].id").value(nullValue()))
+                .andExpect(jsonPath("$[0].start").value(start.plusDays(35).format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(jsonPath("$[1].id").value(nullValue()))
+                .andExpect(jsonPath("$[2].id").isNumber())
+                .andExpect(jsonPath("$[2].start").value(start.plusDays(21).format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(jsonPath("$[5].start").value(start.plusDays(3).format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(jsonPath("$[6].start").value(start.format(ISO_LOCAL_DATE_TIME)));
+
+        mockMvc.perform(get("/bookings?state=PAST")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        Integer ruleId = recurringBookingRepository.findPendingByBookerId(booker.getId()).getFirst().getId();
+        assertEquals(2, recurringBookingService.materialize(ruleId, start.plusDays(40)));
+        assertTrue(recurringBookingRepository.findPendingByBookerId(booker.getId()).isEmpty());
+
+        mockMvc.perform(get("/bookings?state=ALL")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(7))
+                .andExpect(jsonPath("$[0].id").isNumber());
+    }
+
+    @Test
+    void materializeRecurring_shouldRecordSkippedOccurrences() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "recurring-skip-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "recurring-skip-booker@example.com"));
+        User other = userRepository.save(new User(null, "Другой", "recurring-skip-other@example.com"));
+        Item item = itemRepository.save(new Item("Кемпер", "Четырёхместный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        mockMvc.perform(post("/bookings/recurring")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RecurringBookingRequestDto(item.getId(), start, start.plusHours(2), 28, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skippedCount").value(0));
+        approved(item, other, start.plusDays(28), start.plusDays(29));
+        conflictIndex.invalidate(item.getId());
+        Integer ruleId = recurringBookingRepository.findPendingByBookerId(booker.getId()).getFirst().getId();
+
+        assertEquals(0, recurringBookingService.materialize(ruleId, start.plusDays(40)));
+
+        mockMvc.perform(get("/bookings/recurring")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].materializedCount").value(2))
+                .andExpect(jsonPath("$[0].skippedCount").value(1))
+                .andExpect(jsonPath("$[0].lastSkippedStart")
+                        .value(start.plusDays(28).format(ISO_LOCAL_DATE_TIME)));
+    }
+
+    @Test
+    void addRecurring_shouldReturnConflictWhenOccurrenceInWindowOverlaps() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "recurring-conflict-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "recurring-conflict-booker@example.com"));
+        Item item = itemRepository.save(new Item("Шатёр", "Свадебный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking taken = waiting(item, booker, start.plusDays(14), start.plusDays(15));
+        taken.setStatus(Status.APPROVED);
+        bookingRepository.save(taken);
+        conflictIndex.invalidate(item.getId());
+        long before = bookingRepository.count();
+
+        mockMvc.perform(post("/bookings/recurring")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RecurringBookingRequestDto(item.getId(), start, start.plusHours(2), 7, 4))))
+                .andExpect(status().isConflict());
+
+        assertEquals(before, bookingRepository.count());
+        assertTrue(recurringBookingRepository.findPendingByBookerId(booker.getId()).isEmpty());
+    }
+
+    @Test
+    void getAllBookings_shouldSelectEachStateForBookerAndOwner() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "state-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "state-booker@example.com"));
+        Item item = itemRepository.save(new Item("Мангал", "Складной", true, owner));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking past = approved(item, booker, now.minusDays(5), now.minusDays(4));
+        Booking current = approved(item, booker, now.minusDays(1), now.plusDays(1));
+        Booking future = bookingRepository.save(waiting(item, booker, now.plusDays(2), now.plusDays(3)));
+        Booking rejected = waiting(item, booker, now.plusDays(4), now.plusDays(5));
+        rejected.setStatus(Status.REJECTED);
+        rejected = bookingRepository.save(rejected);
+        Map<String, List<Integer>> expected = Map.of(
+                "ALL", List.of(rejected.getId(), future.getId(), current.getId(), past.getId()),
+                "CURRENT", List.of(current.getId()),
+                "PAST", List.of(past.getId()),
+                "FUTURE", List.of(rejected.getId(), future.getId()),
+                "WAITING", List.of(future.getId()),
+                "REJECTED", List.of(rejected.getId()));
+
+        for (Map.Entry<String, List<Integer>> entry : expected.entrySet()) {
+            for (String path : List.of("/bookings?state={state}", "/bookings/owner?state={state}")) {
+                Integer userId = path.contains("owner") ? owner.getId() : booker.getId();
+                String body = mockMvc.perform(get(path, entry.getKey())
+                                .header("X-Sharer-User-Id", userId))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                List<Integer> ids = new ArrayList<>();
+                objectMapper.readTree(body).forEach(booking -> ids.add(booking.get("id").asInt()));
+                assertEquals(entry.getValue(), ids, path + " " + entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void exportOwnerBookings_shouldStreamSameBookingsAsOwnerList() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "export-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "export-booker@example.com"));
+        Item tent = itemRepository.save(new Item("Шатёр", "Садовый", true, owner));
+        Item grill = itemRepository.save(new Item("Гриль", "Газовый", true, owner));
+        LocalDateTime start = LocalDateTime.now().minusDays(10).withNano(0);
+        for (int i = 0; i < 6; i++) {
+            bookingRepository.save(waiting(i % 2 == 0 ? tent : grill, booker, start.plusDays(2L * i),
+                    start.plusDays(2L * i + 1)));
+        }
+
+        String list = mockMvc.perform(get("/bookings/owner")
+                        .param("limit", "1000")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String export = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Object> exported = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            exported.add(objectMapper.readTree(line));
+        }
+        assertEquals(6, exported.size());
+        assertEquals(objectMapper.readTree(list), objectMapper.valueToTree(exported));
+    }
+
+    @Test
+    void getAllBookings_shouldPageByCursorWithoutGapsOrDuplicates() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "page-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "page-booker@example.com"));
+        Item item = itemRepository.save(new Item("Палатка", "Четырёхместная", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime bookingStart = start.plusDays(i / 2);
+            expected.addFirst(bookingRepository.save(waiting(item, booker, bookingStart, bookingStart.plusHours(1)))
+                    .getId());
+        }
+
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            Integer userId = path.contains("owner") ? owner.getId() : booker.getId();
+            List<Integer> ids = new ArrayList<>();
+            String cursor = null;
+            do {
+                MockHttpServletResponse response = mockMvc.perform(get(path)
+                                .param("limit", "2")
+                                .param("cursor", cursor)
+                                .header("X-Sharer-User-Id", userId))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse();
+                objectMapper.readTree(response.getContentAsString())
+                        .forEach(booking -> ids.add(booking.get("id").asInt()));
+                cursor = response.getHeader("X-Next-Cursor");
+            } while (cursor != null);
+            assertEquals(expected, ids, path);
+        }
+
+        mockMvc.perform(get("/bookings")
+                        .param("cursor", "не позиция")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSummary_shouldMatchListSizesForEachState() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "summary-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "summary-booker@example.com"));
+        Item item = itemRepository.save(new Item("Самокат", "Электрический", true, owner));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        approved(item, booker, now.minusDays(5), now.minusDays(4));
+        approved(item, booker, now.minusDays(1), now.plusDays(1));
+        bookingRepository.save(waiting(item, booker, now.plusDays(2), now.plusDays(3)));
+        Booking rejected = waiting(item, booker, now.plusDays(4), now.plusDays(5));
+        rejected.setStatus(Status.REJECTED);
+        bookingRepository.save(rejected);
+        RecurringBooking rule = new RecurringBooking(null, item, booker, now.plusDays(60), now.plusDays(61),
+                7, 5, 0, null, 0, null);
+        rule.markMaterialized(2);
+        recurringBookingRepository.save(rule);
+
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            Integer userId = path.contains("owner") ? owner.getId() : booker.getId();
+            String summary = mockMvc.perform(get(path + "/summary")
+                            .header("X-Sharer-User-Id", userId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+                String list = mockMvc.perform(get(path)
+                                .param("state", state)
+                                .header("X-Sharer-User-Id", userId))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                assertEquals(objectMapper.readTree(list).size(),
+                        objectMapper.readTree(summary).get(state.toLowerCase()).asInt(), path + " " + state);
+            }
+        }
+    }
+
+    @Test
+    void updateItem_shouldChangeOnlyGivenFieldsOfOwnedItem() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "patch-owner@example.com"));
+        User stranger = userRepository.save(new User(null, "Посторонний", "patch-stranger@example.com"));
+        Item item = itemRepository.save(new Item("Мангал", "Складной", true, owner));
+
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"available\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Мангал"))
+                .andExpect(jsonPath("$.description").value("Складной"))
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.ownerId").value(owner.getId()));
+
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", stranger.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Чужой\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/items/{itemId}", item.getId() + 1000)
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Новый\"}"))
+                .andExpect(status().isNotFound());
+
+        Item saved = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("Мангал", saved.getName());
+        assertFalse(saved.isAvailable());
+    }
+
+    @Test
+    void searchItems_shouldSkipItemsWithApprovedBookingInWindow() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "search-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "search-booker@example.com"));
+        Item booked = itemRepository.save(new Item("Дрель-поиск 1", "Ударная", true, owner));
+        Item waiting = itemRepository.save(new Item("Дрель-поиск 2", "Ударная", true, owner));
+        Item adjacent = itemRepository.save(new Item("Дрель-поиск 3", "Ударная", true, owner));
+        itemRepository.save(new Item("Дрель-поиск 4", "Ударная", false, owner));
+        LocalDateTime from = LocalDateTime.now().plusDays(7).withNano(0);
+        LocalDateTime to = from.plusDays(2);
+        approved(booked, booker, from.plusDays(1), to.plusDays(1));
+        bookingRepository.save(waiting(waiting, booker, from, to));
+        approved(adjacent, booker, from.minusDays(1), from);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель-поиск")
+                        .param("from", from.format(ISO_LOCAL_DATE_TIME))
+                        .param("to", to.format(ISO_LOCAL_DATE_TIME)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[*].name").value(containsInAnyOrder(
+                        waiting.getName(), adjacent.getName())));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель-поиск"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    private Booking approved(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = waiting(item, booker, start, end);
+        booking.setStatus(Status.APPROVED);
+        return bookingRepository.save(booking);
+    }
+
+    private static Booking waiting(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(Status.WAITING);
+        return booking;
+    }
+}
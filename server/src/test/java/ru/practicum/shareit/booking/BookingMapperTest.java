@@ -100,6 +100,21 @@ class BookingMapperTest {
         assertNull(mapper.mapToModelFromRequest(null));
     }
 
+    @Test
+    void mapToDtoFromView_ShouldMapLikeBookingEntity() {
+        User owner = new User(30, "Владелец", "owner@example.com");
+        Item item = new Item(10, "Дрель", "Ударная", true, owner, null);
+        User booker = new User(20, "Арендатор", "booker@example.com");
+        Booking booking = new Booking(1, LocalDateTime.now(), LocalDateTime.now().plusDays(1), item, booker,
+                Status.APPROVED, 0);
+        BookingView view = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.isAvailable(),
+                booker.getId(), booker.getName(), booker.getEmail());
+
+        assertEquals(mapper.mapToDto(booking), mapper.mapToDtoFromView(view));
+        assertNull(mapper.mapToDtoFromView(null));
+    }
+
     @Test
     void mapToModel_ShouldHandleNull() {
         assertNull(mapper.mapToModel(null));
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Количество SQL-запросов на каждый запрос чтения бронирований.
+ * <p>
+ * Бронирования относятся к разным предметам и авторам, поэтому ленивая загрузка
+ * предмета или автора при преобразовании в DTO увеличила бы число запросов
+ * на количество строк ответа.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingQueryCountTest {
+
+    private static final int BOOKINGS = 6;
+
+    private final MockMvc mockMvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "Владелец", "count-owner-" + suffix + "@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "count-booker-" + suffix + "@example.com"));
+        LocalDateTime start = LocalDateTime.now().withNano(0).minusDays(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            item = itemRepository.save(new Item("Вещь " + i, "Описание", true, owner));
+            booking = new Booking(null, start.plusDays(2L * i), start.plusDays(2L * i + 1), item, booker,
+                    i % 2 == 0 ? Status.APPROVED : Status.WAITING, null);
+            booking = bookingRepository.save(booking);
+        }
+    }
+
+    @Test
+    void bookingReads_shouldNotLoadItemsAndBookersPerRow() throws Exception {
+        Map<String, Long> expected = new LinkedHashMap<>();
+        for (String state : new String[]{"ALL", "FUTURE", "WAITING"}) {
+            // пользователь, бронирования, повторяющиеся бронирования
+            expected.put("/bookings?state=" + state, 3L);
+        }
+        for (String state : new String[]{"CURRENT", "PAST", "REJECTED"}) {
+            expected.put("/bookings?state=" + state, 2L);
+        }
+        for (String state : new String[]{"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"}) {
+            expected.put("/bookings/owner?state=" + state, 2L);
+        }
+        // бронирование с проверкой прав доступа в запросе
+        expected.put("/bookings/" + booking.getId(), 1L);
+
+        for (Map.Entry<String, Long> entry : expected.entrySet()) {
+            Integer userId = entry.getKey().contains("?state") && !entry.getKey().contains("owner")
+                    ? booker.getId() : owner.getId();
+            assertEquals(entry.getValue(), countStatements(entry.getKey(), userId), entry.getKey());
+        }
+    }
+
+    @Test
+    void getItem_shouldLoadLastAndNextBookingsWithoutLazyLoads() throws Exception {
+        // вещь, последнее и следующее бронирования, отзывы
+        assertEquals(4L, countStatements("/items/" + item.getId(), owner.getId()));
+    }
+
+    private long countStatements(String path, Integer userId) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(path).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,269 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверка планов всех запросов {@link BookingRepository} на заполненной таблице бронирований.
+ * <p>
+ * Каждый метод с {@link Query} вызывается один раз, SQL, сформированный Hibernate, перехватывается
+ * и передаётся в EXPLAIN. Тест падает, если план хотя бы одного запроса читает таблицу целиком,
+ * или если в репозитории появился запрос, не перечисленный в проверке.
+ * Размер таблицы задаётся свойством {@code shareit.plan.bookings} (по умолчанию 50 000).
+ * </p>
+ * <p>
+ * Запускается только явно, как и замеры производительности:
+ * {@code mvn -pl server test -Dtest=BookingQueryPlanTest -Dshareit.benchmark=true}.
+ * Планы строит H2 по индексам из {@code schema.sql} и {@code schema-h2.sql}; варианты индексов
+ * из {@code schema-postgresql.sql} и ограничение исключения этим тестом не проверяются.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.booking.BookingQueryPlanTest$RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingQueryPlanTest {
+
+    private static final int BOOKINGS = Integer.getInteger("shareit.plan.bookings", 50_000);
+    private static final int ITEMS = 5_000;
+    private static final int BOOKERS = 1_000;
+    private static final int OWNERS = 100;
+    private static final int BATCH_SIZE = 10_000;
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private Integer bookerId;
+    private Integer ownerId;
+    private Integer itemId;
+
+    @BeforeAll
+    void populate() {
+        List<Integer> owners = insertUsers("owner", OWNERS);
+        List<Integer> bookers = insertUsers("booker", BOOKERS);
+        List<Integer> items = insertItems(owners);
+        LocalDateTime base = now.minusDays(3L * (BOOKINGS / ITEMS) / 2);
+        List<MapSqlParameterSource> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusDays(3L * (i / ITEMS));
+            int kind = (i / BOOKERS) % 10;
+            batch.add(new MapSqlParameterSource()
+                    .addValue("start", Timestamp.valueOf(start))
+                    .addValue("end", Timestamp.valueOf(start.plusDays(2)))
+                    .addValue("itemId", items.get(i % ITEMS))
+                    .addValue("bookerId", bookers.get(i % BOOKERS))
+                    .addValue("status", kind < 7 ? "APPROVED" : kind < 9 ? "WAITING" : "REJECTED"));
+            if (batch.size() == BATCH_SIZE || i == BOOKINGS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (:start, :end, :itemId, :bookerId, :status)", batch.toArray(new MapSqlParameterSource[0]));
+                batch.clear();
+            }
+        }
+        createIndexes();
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE");
+        bookerId = bookers.getFirst();
+        ownerId = owners.getFirst();
+        itemId = items.getFirst();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN " +
+                "(SELECT item_id FROM items WHERE name LIKE 'plan-item-%')", Map.of());
+        jdbcTemplate.update("DELETE FROM items WHERE name LIKE 'plan-item-%'", Map.of());
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'plan-%'", Map.of());
+    }
+
+    @Test
+    void repositoryQueries_shouldUseIndexes() {
+        LocalDateTime start = BookingCursor.FIRST.start();
+        int id = BookingCursor.FIRST.key();
+        Limit limit = Limit.of(100);
+        List<Integer> ids = List.of(1, 2, 3);
+        Map<String, Runnable> queries = new TreeMap<>();
+        queries.put("findAllByBookerId/4", () -> bookingRepository.findAllByBookerId(bookerId, start, id, limit));
+        queries.put("findPastByBookerId/5", () -> bookingRepository.findPastByBookerId(bookerId, now, start, id, limit));
+        queries.put("findFutureByBookerId/5", () -> bookingRepository.findFutureByBookerId(bookerId, now, start, id,
+                limit));
+        queries.put("findByBookerIdAndStatus/5", () -> bookingRepository.findByBookerIdAndStatus(bookerId,
+                Status.WAITING, start, id, limit));
+        queries.put("findAllByOwnerId/4", () -> bookingRepository.findAllByOwnerId(ownerId, start, id, limit));
+        queries.put("findCurrentKeys/2", () -> bookingRepository.findCurrentKeys(now, now.plusMinutes(5)));
+        queries.put("findViewsByIdIn/1", () -> bookingRepository.findViewsByIdIn(ids));
+        queries.put("findPastByOwnerId/5", () -> bookingRepository.findPastByOwnerId(ownerId, now, start, id, limit));
+        queries.put("findFutureByOwnerId/5", () -> bookingRepository.findFutureByOwnerId(ownerId, now, start, id,
+                limit));
+        queries.put("findByOwnerIdAndStatus/5", () -> bookingRepository.findByOwnerIdAndStatus(ownerId,
+                Status.WAITING, start, id, limit));
+        queries.put("countStatesByBookerId/2", () -> bookingRepository.countStatesByBookerId(bookerId, now));
+        queries.put("countStatesByOwnerId/2", () -> bookingRepository.countStatesByOwnerId(ownerId, now));
+        queries.put("streamAllByOwnerId/1", () -> {
+            try (Stream<BookingView> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+                bookings.forEach(booking -> { });
+            }
+        });
+        queries.put("findTimelineByOwnerId/3", () -> bookingRepository.findTimelineByOwnerId(ownerId, now,
+                now.plusDays(30)));
+        queries.put("findByItemIdLastBooking/3", () -> bookingRepository.findByItemIdLastBooking(itemId,
+                Status.APPROVED, now));
+        queries.put("findByItemIdNextBooking/3", () -> bookingRepository.findByItemIdNextBooking(itemId,
+                Status.APPROVED, now));
+        queries.put("existsApprovedPastBookingForItem/4", () -> bookingRepository.existsApprovedPastBookingForItem(
+                bookerId, itemId, Status.APPROVED, now));
+        queries.put("findActiveIntervalsByItemId/3", () -> bookingRepository.findActiveIntervalsByItemId(itemId,
+                List.of(Status.WAITING, Status.APPROVED), now));
+        queries.put("updateStatusIfWaiting/3", () -> bookingRepository.updateStatusIfWaiting(1, ownerId,
+                Status.APPROVED));
+        queries.put("findWithItemAndBookerById/1", () -> bookingRepository.findWithItemAndBookerById(1));
+        queries.put("findViewByIdAndParticipant/2", () -> bookingRepository.findViewByIdAndParticipant(1, ownerId));
+        queries.put("findOwnershipByIdIn/1", () -> bookingRepository.findOwnershipByIdIn(ids));
+        queries.put("updateStatusIfWaiting/3 (набор)", () -> bookingRepository.updateStatusIfWaiting(ids, ownerId,
+                Status.APPROVED));
+        queries.put("findAllWithItemAndBookerByIdIn/1", () -> bookingRepository.findAllWithItemAndBookerByIdIn(ids));
+        queries.put("rejectOverlappingWaiting/4", () -> bookingRepository.rejectOverlappingWaiting(itemId, 1, now,
+                now.plusDays(1)));
+        queries.put("cancelIfActive/3", () -> bookingRepository.cancelIfActive(1, bookerId, now));
+        queries.put("findWaitingStartedBefore/4", () -> bookingRepository.findWaitingStartedBefore(now,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0, limit));
+        queries.put("rejectWaitingStartedBefore/2", () -> bookingRepository.rejectWaitingStartedBefore(ids, now));
+
+        Set<String> declared = Arrays.stream(BookingRepository.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .map(method -> method.getName() + "/" + method.getParameterCount())
+                .collect(Collectors.toSet());
+        assertEquals(declared, queries.keySet().stream()
+                .map(key -> key.split(" ")[0])
+                .collect(Collectors.toSet()), "Каждый запрос репозитория должен проверяться");
+
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        queries.forEach((name, query) -> {
+            List<String> statements = rollback.execute(status -> {
+                STATEMENTS.clear();
+                query.run();
+                status.setRollbackOnly();
+                return List.copyOf(STATEMENTS);
+            });
+            for (String sql : statements) {
+                String plan = explain(sql);
+                assertFalse(plan.contains(".tableScan"), name + " читает таблицу целиком:\n" + plan);
+            }
+        });
+    }
+
+    /**
+     * Возвращает план запроса H2. Параметры не влияют на выбор индекса и передаются как NULL.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    /**
+     * Создаёт индексы bookings и items из schema.sql и schema-h2.sql, если их ещё нет.
+     */
+    private void createIndexes() {
+        Stream.of("schema.sql", "schema-h2.sql")
+                .flatMap(this::indexStatements)
+                .filter(line -> line.contains(" ON bookings ") || line.contains(" ON items "))
+                .map(line -> line.replace("CREATE INDEX ", "CREATE INDEX IF NOT EXISTS ").replace(";", ""))
+                .forEach(jdbcTemplate.getJdbcTemplate()::execute);
+    }
+
+    private Stream<String> indexStatements(String resource) {
+        try {
+            return new ClassPathResource(resource).getContentAsString(StandardCharsets.UTF_8).lines()
+                    .filter(line -> line.startsWith("CREATE INDEX"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Integer> insertUsers(String role, int count) {
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[count];
+        for (int i = 0; i < count; i++) {
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("name", role + i)
+                    .addValue("email", "plan-" + role + "-" + i + "@example.com");
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (:name, :email)", batch);
+        return jdbcTemplate.queryForList("SELECT user_id FROM users WHERE email LIKE :pattern ORDER BY user_id",
+                Map.of("pattern", "plan-" + role + "-%"), Integer.class);
+    }
+
+    private List<Integer> insertItems(List<Integer> owners) {
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("name", "plan-item-" + i)
+                    .addValue("ownerId", owners.get(i % owners.size()));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES (:name, 'plan', TRUE, :ownerId)", batch);
+        return jdbcTemplate.queryForList("SELECT item_id FROM items WHERE name LIKE 'plan-item-%' " +
+                "ORDER BY item_id", Map.of(), Integer.class);
+    }
+
+    /**
+     * Запоминает SQL, который Hibernate отправляет в базу данных.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package ru.practicum.shareit.booking;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingTimelineDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.BookingHoldIndex;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.mapper.BookingMapper;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +54,16 @@ class BookingServiceTest {
     private UserRepository userRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingConflictIndex conflictIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private RecurringBookingRepository recurringBookingRepository;
+    @Mock
+    private CurrentBookingIndex currentBookings;
+    @Mock
+    private BookingHoldIndex holdIndex;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -50,12 +80,20 @@ class BookingServiceTest {
             LocalDateTime.now().plusHours(1),
             LocalDateTime.now().plusDays(1));
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingService, "pageDefaultLimit", 100);
+        ReflectionTestUtils.setField(bookingService, "pageMaxLimit", 1000);
+        ReflectionTestUtils.setField(bookingService, "timelineMaxWindow", Duration.ofDays(366));
+    }
+
     @Test
     void add_shouldCreateBooking() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
         when(bookingMapper.mapToModelFromRequest(any())).thenReturn(booking);
         when(bookingRepository.save(booking)).thenReturn(booking);
+        when(conflictIndex.tryAdd(eq(itemId), any(), any(), any())).thenReturn(true);
         when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
 
         BookingDto result = bookingService.add(bookingRequestDto, userId);
@@ -64,11 +102,52 @@ class BookingServiceTest {
         verify(bookingRepository).save(booking);
     }
 
+    @Test
+    void add_shouldRefreshIndexUnderItemRowLock() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
+        when(bookingMapper.mapToModelFromRequest(any())).thenReturn(booking);
+        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(conflictIndex.tryAdd(eq(itemId), any(), any(), any())).thenReturn(true);
+        when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
+
+        bookingService.add(bookingRequestDto, userId);
+
+        InOrder inOrder = inOrder(itemRepository, conflictIndex);
+        inOrder.verify(itemRepository).findByIdForUpdate(itemId);
+        inOrder.verify(conflictIndex).refresh(itemId);
+        inOrder.verify(conflictIndex).tryAdd(eq(itemId), any(), any(), any());
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void add_shouldThrowConflictWhenPeriodOverlaps() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
+        when(bookingMapper.mapToModelFromRequest(any())).thenReturn(booking);
+        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(conflictIndex.tryAdd(eq(itemId), any(), any(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.add(bookingRequestDto, userId));
+    }
+
+    @Test
+    void add_shouldThrowConflictWhenPeriodHeldByOtherUser() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
+        when(holdIndex.isHeldByOther(eq(itemId), eq(userId), any(), any(), any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.add(bookingRequestDto, userId));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void add_shouldThrowWhenBookingOwnItem() {
         item.setOwner(user);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.add(bookingRequestDto, userId));
@@ -78,7 +157,7 @@ class BookingServiceTest {
     void add_shouldThrowWhenItemNotAvailable() {
         item.setAvailable(false);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.add(bookingRequestDto, userId));
@@ -91,69 +170,372 @@ class BookingServiceTest {
                 LocalDateTime.now());
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(itemId)).thenReturn(Optional.of(item));
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.add(invalidRequest, userId));
     }
 
+    @Test
+    void addBatch_shouldReturnPerEntryResults() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item ownItem = new Item(2, "Дрель", "Ударная", true, user, null);
+        List<BookingRequestDto> requests = List.of(
+                new BookingRequestDto(itemId, start, start.plusDays(1)),
+                new BookingRequestDto(99, start, start.plusDays(1)),
+                new BookingRequestDto(2, start, start.plusDays(1)),
+                new BookingRequestDto(itemId, start.plusHours(12), start.plusDays(2)),
+                new BookingRequestDto(itemId, null, start));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdForUpdate(anySet())).thenReturn(List.of(item, ownItem));
+        when(bookingMapper.mapToModelFromRequest(any())).thenAnswer(invocation -> {
+            BookingRequestDto request = invocation.getArgument(0);
+            Booking created = new Booking();
+            created.setStart(request.getStart());
+            created.setEnd(request.getEnd());
+            return created;
+        });
+        when(bookingRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(created -> created.setId(10));
+            return bookings;
+        });
+        when(conflictIndex.tryAdd(eq(itemId), eq(10), any(), any())).thenReturn(true);
+        when(bookingMapper.mapToDto(any())).thenReturn(bookingDto);
+
+        List<BookingBatchResultDto> results = bookingService.addBatch(requests, userId);
+
+        assertEquals(List.of(201, 404, 400, 409, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).toList());
+        assertEquals(bookingDto, results.get(0).getBooking());
+        assertNotNull(results.get(3).getError());
+        verify(bookingRepository).insertAll(argThat(bookings -> bookings.size() == 1));
+        verify(bookingRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void addBatch_shouldDeleteBookingsThatLostRace() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdForUpdate(anySet())).thenReturn(List.of(item));
+        when(bookingMapper.mapToModelFromRequest(any())).thenReturn(booking);
+        when(bookingRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            booking.setId(bookingId);
+            return invocation.getArgument(0);
+        });
+        when(conflictIndex.tryAdd(eq(itemId), eq(bookingId), any(), any())).thenReturn(false);
+
+        List<BookingBatchResultDto> results = bookingService.addBatch(List.of(bookingRequestDto), userId);
+
+        assertEquals(409, results.get(0).getStatus());
+        verify(bookingRepository).deleteAllByIdInBatch(List.of(bookingId));
+    }
+
+    @Test
+    void addBatch_shouldLockItemRowsAndRefreshIndex() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdForUpdate(Set.of(itemId))).thenReturn(List.of(item));
+        when(bookingMapper.mapToModelFromRequest(any())).thenReturn(booking);
+        when(bookingRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(conflictIndex.tryAdd(eq(itemId), any(), any(), any())).thenReturn(true);
+
+        bookingService.addBatch(List.of(bookingRequestDto), userId);
+
+        InOrder inOrder = inOrder(itemRepository, conflictIndex);
+        inOrder.verify(itemRepository).findAllByIdForUpdate(Set.of(itemId));
+        inOrder.verify(conflictIndex).refresh(itemId);
+        inOrder.verify(conflictIndex).overlaps(eq(itemId), any(), any());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void addBatch_shouldThrowWhenBatchTooLarge() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 1);
+
+        assertThrows(BadRequestException.class, () ->
+                bookingService.addBatch(List.of(bookingRequestDto, bookingRequestDto), userId));
+        verifyNoInteractions(userRepository, bookingRepository);
+    }
+
+    @Test
+    void addBatch_shouldThrowWhenBatchEmpty() {
+        assertThrows(BadRequestException.class, () ->
+                bookingService.addBatch(List.of(), userId));
+    }
+
     @Test
     void approve_shouldApproveBooking() {
-        booking.setStatus(Status.WAITING);
+        booking.setId(bookingId);
+        booking.setStatus(Status.APPROVED);
         booking.setItem(item);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.APPROVED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
 
         BookingDto result = bookingService.approve(bookingId, owner.getId(), true);
 
         assertNotNull(result);
-        assertEquals(Status.APPROVED, booking.getStatus());
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(conflictIndex, never()).remove(any(), any());
+    }
+
+    @Test
+    void approve_shouldRejectOverlappingWaitingBookingsWhenRequested() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking.setId(bookingId);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.APPROVED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.rejectOverlappingWaiting(itemId, bookingId, start, start.plusDays(1))).thenReturn(3);
+        when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
+
+        BookingApprovalDto result = bookingService.approve(bookingId, owner.getId(), true, true);
+
+        assertEquals(bookingDto, result.getBooking());
+        assertEquals(3, result.getRejectedOverlapping());
+        verify(conflictIndex).invalidateOnCompletion(itemId);
+    }
+
+    @Test
+    void approve_shouldNotRejectOverlappingWaitingBookingsWhenRejecting() {
+        booking.setId(bookingId);
+        booking.setItem(item);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        BookingApprovalDto result = bookingService.approve(bookingId, owner.getId(), false, true);
+
+        assertEquals(0, result.getRejectedOverlapping());
+        verify(bookingRepository, never()).rejectOverlappingWaiting(any(), any(), any(), any());
+    }
+
+    @Test
+    void approve_shouldMapExclusionViolationToConflict() {
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("overlap",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.approve(bookingId, owner.getId(), true));
+    }
+
+    @Test
+    void approve_shouldRethrowOtherIntegrityViolations() {
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.REJECTED))
+                .thenThrow(new DataIntegrityViolationException("fk",
+                        new SQLException("foreign key violation", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                bookingService.approve(bookingId, owner.getId(), false));
+    }
+
+    @Test
+    void approve_shouldThrowConflictWhenAlreadyProcessed() {
+        booking.setStatus(Status.APPROVED);
+        booking.setItem(item);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.REJECTED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.approve(bookingId, owner.getId(), false));
+        verify(conflictIndex, never()).remove(any(), any());
+    }
+
+    @Test
+    void approve_shouldThrowNotFoundWhenBookingMissing() {
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.APPROVED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () ->
+                bookingService.approve(bookingId, owner.getId(), true));
     }
 
     @Test
     void approve_shouldRejectBooking() {
-        booking.setStatus(Status.WAITING);
+        booking.setId(bookingId);
+        booking.setStatus(Status.REJECTED);
         booking.setItem(item);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, owner.getId(), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
 
         BookingDto result = bookingService.approve(bookingId, owner.getId(), false);
 
         assertNotNull(result);
-        assertEquals(Status.REJECTED, booking.getStatus());
+        verify(conflictIndex).remove(itemId, bookingId);
     }
 
     @Test
     void approve_shouldThrowWhenNotOwner() {
+        booking.setStatus(Status.WAITING);
         booking.setItem(item);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, userId, Status.APPROVED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.approve(bookingId, userId, true));
     }
 
     @Test
-    void getById_shouldReturnBookingForOwner() {
+    void cancel_shouldCancelBookingAndReleasePeriod() {
+        booking.setId(bookingId);
+        booking.setStatus(Status.CANCELLED);
         booking.setItem(item);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(bookingRepository.cancelIfActive(eq(bookingId), eq(userId), any())).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
 
-        BookingDto result = bookingService.getById(bookingId, owner.getId());
+        BookingDto result = bookingService.cancel(bookingId, userId);
 
         assertNotNull(result);
+        verify(conflictIndex).remove(itemId, bookingId);
+        verify(eventPublisher).publishEvent(new BookingReleasedEvent(itemId));
+        verify(bookingRepository, never()).findById(any());
     }
 
     @Test
-    void getById_shouldReturnBookingForBooker() {
-        booking.setItem(item);
+    void cancel_shouldThrowNotFoundWhenBookingMissing() {
+        when(bookingRepository.cancelIfActive(eq(bookingId), eq(userId), any())).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.cancel(bookingId, userId));
+    }
+
+    @Test
+    void cancel_shouldThrowWhenNotBooker() {
+        booking.setStatus(Status.WAITING);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.cancelIfActive(eq(bookingId), eq(owner.getId()), any())).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(BadRequestException.class, () -> bookingService.cancel(bookingId, owner.getId()));
+        verify(conflictIndex, never()).remove(any(), any());
+    }
+
+    @Test
+    void cancel_shouldThrowConflictWhenAlreadyStartedOrFinal() {
+        booking.setStatus(Status.APPROVED);
+        booking.setBooker(user);
+        when(bookingRepository.cancelIfActive(eq(bookingId), eq(userId), any())).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class, () -> bookingService.cancel(bookingId, userId));
+
+        booking.setStatus(Status.REJECTED);
+        assertThrows(ConflictException.class, () -> bookingService.cancel(bookingId, userId));
+        verify(conflictIndex, never()).remove(any(), any());
+    }
+
+    @Test
+    void approveAll_shouldUpdateAllBookingsWithConstantQueries() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        List<Integer> ids = List.of(1, 2);
+        booking.setId(1);
+        booking.setItem(item);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1, 2))).thenReturn(List.of(
+                new BookingOwnership(1, owner.getId(), Status.WAITING),
+                new BookingOwnership(2, owner.getId(), Status.WAITING)));
+        when(bookingRepository.updateStatusIfWaiting(Set.of(1, 2), owner.getId(), Status.APPROVED)).thenReturn(2);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(Set.of(1, 2))).thenReturn(List.of(booking, booking));
         when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
 
+        List<BookingDto> result = bookingService.approveAll(ids, owner.getId(), true);
+
+        assertEquals(2, result.size());
+        verify(bookingRepository, never()).findById(any());
+        verify(conflictIndex, never()).remove(any(), any());
+    }
+
+    @Test
+    void approveAll_shouldRemoveRejectedBookingsFromIndex() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        booking.setId(bookingId);
+        booking.setItem(item);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(bookingId)))
+                .thenReturn(List.of(new BookingOwnership(bookingId, owner.getId(), Status.WAITING)));
+        when(bookingRepository.updateStatusIfWaiting(Set.of(bookingId), owner.getId(), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(Set.of(bookingId))).thenReturn(List.of(booking));
+
+        bookingService.approveAll(List.of(bookingId, bookingId), owner.getId(), false);
+
+        verify(conflictIndex).remove(itemId, bookingId);
+    }
+
+    @Test
+    void approveAll_shouldThrowWhenBookingMissing() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1, 2)))
+                .thenReturn(List.of(new BookingOwnership(1, owner.getId(), Status.WAITING)));
+
+        assertThrows(NotFoundException.class, () ->
+                bookingService.approveAll(List.of(1, 2), owner.getId(), true));
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyCollection(), any(), any());
+    }
+
+    @Test
+    void approveAll_shouldThrowWhenNotOwnerOfEveryItem() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1, 2))).thenReturn(List.of(
+                new BookingOwnership(1, owner.getId(), Status.WAITING),
+                new BookingOwnership(2, userId, Status.WAITING)));
+
+        assertThrows(BadRequestException.class, () ->
+                bookingService.approveAll(List.of(1, 2), owner.getId(), true));
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyCollection(), any(), any());
+    }
+
+    @Test
+    void approveAll_shouldThrowConflictWhenAlreadyProcessed() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1)))
+                .thenReturn(List.of(new BookingOwnership(1, owner.getId(), Status.APPROVED)));
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.approveAll(List.of(1), owner.getId(), false));
+    }
+
+    @Test
+    void approveAll_shouldThrowConflictWhenLostRace() {
+        ReflectionTestUtils.setField(bookingService, "batchMaxSize", 10);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1, 2))).thenReturn(List.of(
+                new BookingOwnership(1, owner.getId(), Status.WAITING),
+                new BookingOwnership(2, owner.getId(), Status.WAITING)));
+        when(bookingRepository.updateStatusIfWaiting(Set.of(1, 2), owner.getId(), Status.APPROVED)).thenReturn(1);
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.approveAll(List.of(1, 2), owner.getId(), true));
+        verify(bookingRepository, never()).findAllWithItemAndBookerByIdIn(anyCollection());
+    }
+
+    @Test
+    void approveAll_shouldThrowWhenListEmpty() {
+        assertThrows(BadRequestException.class, () ->
+                bookingService.approveAll(List.of(), owner.getId(), true));
+    }
+
+    @Test
+    void getById_shouldReturnBookingForOwner() {
+        BookingView view = view(bookingId, LocalDateTime.now());
+        when(bookingRepository.findViewByIdAndParticipant(bookingId, owner.getId())).thenReturn(Optional.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
+
+        BookingDto result = bookingService.getById(bookingId, owner.getId());
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void getById_shouldReturnBookingForBooker() {
+        BookingView view = view(bookingId, LocalDateTime.now());
+        when(bookingRepository.findViewByIdAndParticipant(bookingId, userId)).thenReturn(Optional.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
+
         BookingDto result = bookingService.getById(bookingId, userId);
 
         assertNotNull(result);
@@ -161,36 +543,184 @@ class BookingServiceTest {
 
     @Test
     void getById_shouldThrowWhenNotOwnerOrBooker() {
-        booking.setItem(item);
-        booking.setBooker(new User(3, "Other", "other@example.com"));
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.findViewByIdAndParticipant(bookingId, userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.existsById(bookingId)).thenReturn(true);
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.getById(bookingId, userId));
     }
 
+    @Test
+    void getById_shouldThrowNotFoundWhenBookingMissing() {
+        when(bookingRepository.findViewByIdAndParticipant(bookingId, userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.existsById(bookingId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () ->
+                bookingService.getById(bookingId, userId));
+    }
+
     @Test
     void getAllBookingsCurrentUser_shouldReturnBookings() {
+        BookingView view = view(bookingId, LocalDateTime.now());
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.getAllBookingsByUserId(userId, "ALL")).thenReturn(List.of(booking));
-        when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findAllByBookerId(eq(userId), any(), anyInt(), any())).thenReturn(List.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
 
-        List<BookingDto> result = bookingService.getAllBookingsCurrentUser(userId, "ALL");
+        BookingPageDto result = bookingService.getAllBookingsCurrentUser(userId, "ALL", 10, null);
 
         assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertFalse(result.getBookings().isEmpty());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void getAllBookingsItemsUser_shouldReturnBookings() {
+        BookingView view = view(bookingId, LocalDateTime.now());
         when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.getAllBookingsItemsUser(owner.getId(), "ALL")).thenReturn(List.of(booking));
-        when(bookingMapper.mapToDto(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findAllByOwnerId(eq(owner.getId()), any(), anyInt(), any())).thenReturn(List.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
 
-        List<BookingDto> result = bookingService.getAllBookingsItemsUser(owner.getId(), "ALL");
+        BookingPageDto result = bookingService.getAllBookingsItemsUser(owner.getId(), "ALL", 10, null);
 
         assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertFalse(result.getBookings().isEmpty());
+    }
+
+    @Test
+    void getAllBookingsCurrentUser_shouldUseStatusQueryForWaitingState() {
+        BookingView view = view(bookingId, LocalDateTime.now());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByBookerIdAndStatus(eq(userId), eq(Status.WAITING), any(), anyInt(), any()))
+                .thenReturn(List.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
+
+        BookingPageDto result = bookingService.getAllBookingsCurrentUser(userId, "WAITING", 10, null);
+
+        assertEquals(List.of(bookingDto), result.getBookings());
+        verify(bookingRepository, never()).findAllByBookerId(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void getAllBookingsItemsUser_shouldUseTimeQueryForPastState() {
+        BookingView view = view(bookingId, LocalDateTime.now());
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findPastByOwnerId(eq(owner.getId()), any(LocalDateTime.class), any(), anyInt(), any()))
+                .thenReturn(List.of(view));
+        when(bookingMapper.mapToDtoFromView(view)).thenReturn(bookingDto);
+
+        BookingPageDto result = bookingService.getAllBookingsItemsUser(owner.getId(), "PAST", 10, null);
+
+        assertEquals(List.of(bookingDto), result.getBookings());
+        verify(bookingRepository, never()).findAllByOwnerId(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void getAllBookingsItemsUser_shouldReturnNextCursorWhenMoreBookingsExist() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingView first = view(3, start.plusDays(1));
+        BookingView second = view(2, start);
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findAllByOwnerId(owner.getId(), BookingCursor.FIRST.start(), BookingCursor.FIRST.key(),
+                Limit.of(2))).thenReturn(List.of(first, second));
+        when(bookingMapper.mapToDtoFromView(first)).thenReturn(bookingDto);
+
+        BookingPageDto result = bookingService.getAllBookingsItemsUser(owner.getId(), "ALL", 1, null);
+
+        assertEquals(List.of(bookingDto), result.getBookings());
+        assertEquals(new BookingCursor(first.start(), 3), BookingCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getAllBookingsCurrentUser_shouldRejectInvalidPageSizeAndCursor() {
+        ReflectionTestUtils.setField(bookingService, "pageMaxLimit", 100);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(BadRequestException.class, () ->
+                bookingService.getAllBookingsCurrentUser(userId, "ALL", 101, null));
+        assertThrows(BadRequestException.class, () ->
+                bookingService.getAllBookingsCurrentUser(userId, "ALL", 10, "не позиция"));
+    }
+
+    @Test
+    void getBookerSummary_shouldAddPendingOccurrencesToWaitingStates() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.countStatesByBookerId(eq(userId), any(LocalDateTime.class)))
+                .thenReturn(new BookingStateCounts(5L, 1L, 2L, 2L, 1L, 1L));
+        when(recurringBookingRepository.countPendingOccurrencesByBookerId(userId)).thenReturn(3L);
+
+        BookingSummaryDto result = bookingService.getBookerSummary(userId);
+
+        assertEquals(new BookingSummaryDto(8, 1, 2, 5, 4, 1), result);
+    }
+
+    @Test
+    void getOwnerSummary_shouldThrowExceptionWhenUserNotFound() {
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerSummary(owner.getId()));
+        verify(bookingRepository, never()).countStatesByOwnerId(any(), any());
+    }
+
+    @Test
+    void getOwnerTimeline_shouldSplitRowsIntoColumns() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findTimelineByOwnerId(owner.getId(), from, to)).thenReturn(List.of(
+                new BookingTimelineRow(3, from.plusDays(1), from.plusDays(2), Status.APPROVED, 12),
+                new BookingTimelineRow(8, from.minusDays(1), from.plusDays(1), Status.WAITING, 40)));
+
+        BookingTimelineDto result = bookingService.getOwnerTimeline(owner.getId(), from, to);
+
+        assertEquals(List.of(3, 8), result.getItemIds());
+        assertEquals(List.of(from.plusDays(1), from.minusDays(1)), result.getStarts());
+        assertEquals(List.of(from.plusDays(2), from.plusDays(1)), result.getEnds());
+        assertEquals(List.of(Status.APPROVED, Status.WAITING), result.getStatuses());
+        assertEquals(List.of(12, 40), result.getBookerIds());
+    }
+
+    @Test
+    void getOwnerTimeline_shouldRejectEmptyOrTooWideWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(BadRequestException.class, () -> bookingService.getOwnerTimeline(owner.getId(), from, from));
+        assertThrows(BadRequestException.class, () -> bookingService.getOwnerTimeline(owner.getId(), from,
+                from.plusDays(367)));
+        verifyNoInteractions(userRepository, bookingRepository);
+    }
+
+    @Test
+    void exportOwnerBookings_shouldPassEveryBookingToConsumerAndCloseStream() {
+        BookingView first = view(2, LocalDateTime.now().plusDays(2));
+        BookingView second = view(1, LocalDateTime.now().plusDays(1));
+        BookingDto firstDto = BookingDto.builder().id(2).build();
+        BookingDto secondDto = BookingDto.builder().id(1).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(bookingRepository.streamAllByOwnerId(owner.getId()))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        when(bookingMapper.mapToDtoFromView(first)).thenReturn(firstDto);
+        when(bookingMapper.mapToDtoFromView(second)).thenReturn(secondDto);
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportOwnerBookings(owner.getId(), exported::add);
+
+        assertEquals(List.of(firstDto, secondDto), exported);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportOwnerBookings_shouldThrowExceptionWhenUserNotFound() {
+        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.exportOwnerBookings(owner.getId(), dto -> { }));
+        verify(bookingRepository, never()).streamAllByOwnerId(any());
+    }
+
+    private BookingView view(Integer id, LocalDateTime start) {
+        return new BookingView(id, start, start.plusDays(1), Status.WAITING, item.getId(), item.getName(),
+                item.getDescription(), item.isAvailable(), user.getId(), user.getName(), user.getEmail());
     }
 }
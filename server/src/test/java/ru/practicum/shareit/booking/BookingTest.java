@@ -30,7 +30,7 @@ class BookingTest {
         Item item = new Item();
         User booker = new User();
 
-        Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
+        Booking booking = new Booking(1, start, end, item, booker, Status.WAITING, 0);
 
         assertEquals(1, booking.getId());
         assertEquals(start, booking.getStart());
@@ -38,6 +38,7 @@ class BookingTest {
         assertSame(item, booking.getItem());
         assertSame(booker, booking.getBooker());
         assertEquals(Status.WAITING, booking.getStatus());
+        assertEquals(0, booking.getVersion());
     }
 
     @Test
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentBookingIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private CurrentBookingIndex currentBookings;
+
+    private final Integer bookerId = 5;
+    private final Integer ownerId = 7;
+    private final LocalDateTime base = LocalDateTime.now().withNano(0).plusMinutes(1);
+
+    @BeforeEach
+    void setUp() {
+        currentBookings = new CurrentBookingIndex(bookingRepository, Duration.ofSeconds(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void findByBooker_shouldFollowStartAndEndOfBooking() {
+        when(bookingRepository.findCurrentKeys(base, base.plusMinutes(5)))
+                .thenReturn(List.of(key(1, base.plusSeconds(10), base.plusSeconds(70))));
+        when(bookingRepository.findViewsByIdIn(List.of(1))).thenReturn(List.of(view(1, base.plusSeconds(10))));
+        currentBookings.reconcile(base);
+
+        assertTrue(currentBookings.findByBooker(bookerId, base, BookingCursor.FIRST, 10).isEmpty());
+        assertEquals(1, currentBookings.findByBooker(bookerId, base.plusSeconds(30), BookingCursor.FIRST, 10).size());
+        assertEquals(1, currentBookings.findByOwner(ownerId, base.plusSeconds(70), BookingCursor.FIRST, 10).size());
+        assertTrue(currentBookings.findByOwner(ownerId, base.plusMinutes(2), BookingCursor.FIRST, 10).isEmpty());
+        assertEquals(0, currentBookings.size());
+        verify(bookingRepository, times(2)).findViewsByIdIn(any());
+    }
+
+    @Test
+    void findByBooker_shouldPageAfterCursor() {
+        when(bookingRepository.findCurrentKeys(base, base.plusMinutes(5))).thenReturn(List.of(
+                key(1, base.minusHours(3), base.plusHours(1)),
+                key(2, base.minusHours(2), base.plusHours(1)),
+                key(3, base.minusHours(1), base.plusHours(1))));
+        when(bookingRepository.findViewsByIdIn(List.of(3, 2)))
+                .thenReturn(List.of(view(3, base.minusHours(1)), view(2, base.minusHours(2))));
+        when(bookingRepository.findViewsByIdIn(List.of(1))).thenReturn(List.of(view(1, base.minusHours(3))));
+        currentBookings.reconcile(base);
+
+        List<BookingView> first = currentBookings.findByBooker(bookerId, base, BookingCursor.FIRST, 2);
+        BookingView last = first.getLast();
+        List<BookingView> second = currentBookings.findByBooker(bookerId, base,
+                new BookingCursor(last.start(), last.id()), 2);
+
+        assertEquals(List.of(3, 2), first.stream().map(BookingView::id).toList());
+        assertEquals(List.of(1), second.stream().map(BookingView::id).toList());
+    }
+
+    @Test
+    void findByBooker_shouldForgetBookingsMissingInDatabase() {
+        when(bookingRepository.findCurrentKeys(base, base.plusMinutes(5))).thenReturn(List.of(
+                key(1, base.minusHours(3), base.plusHours(1)),
+                key(2, base.minusHours(2), base.plusHours(1)),
+                key(3, base.minusHours(1), base.plusHours(1))));
+        when(bookingRepository.findViewsByIdIn(List.of(3, 2))).thenReturn(List.of(view(3, base.minusHours(1))));
+        when(bookingRepository.findViewsByIdIn(List.of(3, 1)))
+                .thenReturn(List.of(view(3, base.minusHours(1)), view(1, base.minusHours(3))));
+        currentBookings.reconcile(base);
+
+        List<BookingView> bookings = currentBookings.findByBooker(bookerId, base, BookingCursor.FIRST, 2);
+
+        assertEquals(List.of(3, 1), bookings.stream().map(BookingView::id).toList());
+        assertEquals(2, currentBookings.size());
+    }
+
+    @Test
+    void reconcile_shouldKeepBookingsTrackedDuringRead() {
+        when(bookingRepository.findCurrentKeys(base, base.plusMinutes(5)))
+                .thenReturn(List.of(key(1, base.minusHours(1), base.plusHours(1))));
+        currentBookings.reconcile(base);
+        when(bookingRepository.findCurrentKeys(base.plusSeconds(1), base.plusSeconds(1).plusMinutes(5)))
+                .thenAnswer(invocation -> {
+                    currentBookings.track(booking(2, base.minusMinutes(1), base.plusHours(1)));
+                    return List.of();
+                });
+
+        currentBookings.reconcile(base.plusSeconds(1));
+
+        when(bookingRepository.findViewsByIdIn(List.of(2))).thenReturn(List.of(view(2, base.minusMinutes(1))));
+        assertEquals(1, currentBookings.size());
+        assertEquals(List.of(2), currentBookings.findByOwner(ownerId, base.plusSeconds(1), BookingCursor.FIRST, 10)
+                .stream().map(BookingView::id).toList());
+    }
+
+    private CurrentBookingKey key(Integer id, LocalDateTime start, LocalDateTime end) {
+        return new CurrentBookingKey(id, start, end, bookerId, ownerId);
+    }
+
+    private BookingView view(Integer id, LocalDateTime start) {
+        return new BookingView(id, start, start.plusHours(1), Status.APPROVED, 1, "Триммер", "Бензиновый", true,
+                bookerId, "Артем", "tema123@example.com");
+    }
+
+    private Booking booking(Integer id, LocalDateTime start, LocalDateTime end) {
+        User owner = new User(ownerId, "Виталий", "vintik@example.com");
+        User booker = new User(bookerId, "Артем", "tema123@example.com");
+        Item item = new Item(1, "Триммер", "Бензиновый", true, owner, null);
+        return new Booking(id, start, end, item, booker, Status.WAITING, null);
+    }
+}
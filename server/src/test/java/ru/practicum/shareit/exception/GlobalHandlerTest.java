@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -55,6 +56,29 @@ class GlobalHandlerTest {
         assertEquals(errorMessage, response.getDetails());
     }
 
+    @Test
+    void handleConflict_shouldReturnConflictResponse() {
+        String errorMessage = "Вещь уже забронирована";
+        ConflictException exception = new ConflictException(errorMessage);
+
+        ErrorResponse response = globalHandler.handleConflict(exception);
+
+        assertNotNull(response);
+        assertEquals("Конфликт данных", response.getError());
+        assertEquals(errorMessage, response.getDetails());
+    }
+
+    @Test
+    void handleOptimisticLock_shouldReturnConflictResponse() {
+        OptimisticLockingFailureException exception = new OptimisticLockingFailureException("Row was updated");
+
+        ErrorResponse response = globalHandler.handleOptimisticLock(exception);
+
+        assertNotNull(response);
+        assertEquals("Конфликт данных", response.getError());
+        assertNotNull(response.getDetails());
+    }
+
     @Test
     void handleUnknown_shouldReturnInternalServerErrorResponse() {
         String errorMessage = "Неизвестная ошибка";
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.hold.BookingHoldIndex.AddResult.*;
+
+class BookingHoldIndexTest {
+
+    private static final int MAX = 2;
+    private static final Duration LIFETIME = Duration.ofMinutes(30);
+    private final BookingHoldIndex holdIndex = new BookingHoldIndex(LIFETIME);
+
+    private final Integer itemId = 1;
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+    private final LocalDateTime start = now.plusDays(1);
+
+    @Test
+    void tryAdd_shouldRejectOverlappingHoldOfOtherUserUntilExpiry() {
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("a", 1, start, start.plusDays(2), now.plusMinutes(2)), now, MAX));
+
+        assertEquals(HELD_BY_OTHER,
+                holdIndex.tryAdd(hold("b", 2, start.plusDays(1), start.plusDays(3), now.plusMinutes(2)), now, MAX));
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("c", 2, start.plusDays(2), start.plusDays(3), now.plusMinutes(2)), now, MAX));
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("d", 3, start, start.plusDays(1), now.plusMinutes(5)), now.plusMinutes(2), MAX));
+    }
+
+    @Test
+    void tryAdd_shouldReplaceOverlappingHoldOfSameUser() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(2), now.plusMinutes(2)), now, MAX);
+
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("b", 1, start.plusDays(1), start.plusDays(3), now.plusMinutes(2)), now, MAX));
+
+        assertTrue(holdIndex.find(itemId, "a", now).isEmpty());
+        assertTrue(holdIndex.find(itemId, "b", now).isPresent());
+    }
+
+    @Test
+    void tryAdd_shouldLimitHoldsOfUserPerItem() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(1), now.plusMinutes(2)), now, MAX);
+        holdIndex.tryAdd(hold("b", 1, start.plusDays(2), start.plusDays(3), now.plusMinutes(2)), now, MAX);
+
+        assertEquals(LIMIT_EXCEEDED,
+                holdIndex.tryAdd(hold("c", 1, start.plusDays(4), start.plusDays(5), now.plusMinutes(2)), now, MAX));
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("d", 1, start.plusDays(2), start.plusDays(3), now.plusMinutes(4)), now, MAX));
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("e", 2, start.plusDays(4), start.plusDays(5), now.plusMinutes(2)), now, MAX));
+        assertEquals(ADDED,
+                holdIndex.tryAdd(hold("f", 1, start.plusDays(6), start.plusDays(7), now.plusMinutes(4)),
+                        now.plusMinutes(2), MAX));
+    }
+
+    @Test
+    void tryAdd_shouldCapRenewalsByLifetime() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(1), now.plusMinutes(15)), now, MAX);
+        LocalDateTime renewal = now.plusMinutes(20);
+
+        assertEquals(ADDED, holdIndex.tryAdd(new BookingHold("b", itemId, 1, start, start.plusDays(1), renewal,
+                renewal.plusMinutes(15)), now.plusMinutes(14), MAX));
+        BookingHold renewed = holdIndex.find(itemId, "b", now.plusMinutes(14)).orElseThrow();
+        assertEquals(now, renewed.heldSince());
+        assertEquals(now.plus(LIFETIME), renewed.expiresAt());
+
+        LocalDateTime expired = now.plus(LIFETIME);
+        assertEquals(LIFETIME_EXCEEDED, holdIndex.tryAdd(new BookingHold("c", itemId, 1, start, start.plusDays(1),
+                expired, expired.plusMinutes(15)), expired, MAX));
+        assertEquals(ADDED, holdIndex.tryAdd(new BookingHold("d", itemId, 2, start, start.plusDays(1),
+                expired, expired.plusMinutes(15)), expired, MAX));
+        assertTrue(holdIndex.isHeldByOther(itemId, 1, start, start.plusDays(1), expired));
+    }
+
+    @Test
+    void tryAdd_shouldAllowNewHoldAfterCooldown() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(1), now.plus(LIFETIME).plusMinutes(1)), now, MAX);
+        LocalDateTime cooledDown = now.plus(LIFETIME).plus(LIFETIME);
+
+        assertEquals(ADDED, holdIndex.tryAdd(new BookingHold("b", itemId, 1, start, start.plusDays(1),
+                cooledDown, cooledDown.plusMinutes(2)), cooledDown, MAX));
+    }
+
+    @Test
+    void isHeldByOther_shouldIgnoreOwnAndExpiredHolds() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(2), now.plusMinutes(2)), now, MAX);
+
+        assertTrue(holdIndex.isHeldByOther(itemId, 2, start, start.plusDays(1), now));
+        assertFalse(holdIndex.isHeldByOther(itemId, 1, start, start.plusDays(1), now));
+        assertFalse(holdIndex.isHeldByOther(itemId, 2, start.plusDays(2), start.plusDays(3), now));
+        assertFalse(holdIndex.isHeldByOther(itemId, 2, start, start.plusDays(1), now.plusMinutes(2)));
+    }
+
+    @Test
+    void releaseBooked_shouldRemoveOnlyOwnOverlappingHolds() {
+        holdIndex.tryAdd(hold("a", 1, start, start.plusDays(1), now.plusMinutes(2)), now, MAX);
+        holdIndex.tryAdd(hold("b", 1, start.plusDays(5), start.plusDays(6), now.plusMinutes(2)), now, MAX);
+
+        holdIndex.releaseBooked(itemId, 1, start, start.plusDays(1));
+
+        assertTrue(holdIndex.find(itemId, "a", now).isEmpty());
+        assertTrue(holdIndex.find(itemId, "b", now).isPresent());
+    }
+
+    private BookingHold hold(String id, Integer userId, LocalDateTime start, LocalDateTime end,
+                             LocalDateTime expiresAt) {
+        return new BookingHold(id, itemId, userId, start, end, now, expiresAt);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.hold;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.RecurringBookingRepository;
+import ru.practicum.shareit.booking.RecurringBookingService;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.RecurringBookingRequestDto;
+import ru.practicum.shareit.hold.dto.BookingHoldRequestDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingHoldIntegrationTest {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RecurringBookingRepository recurringBookingRepository;
+    private final RecurringBookingService recurringBookingService;
+
+    @Test
+    void add_shouldRejectOtherUsersAndConvertOwnHold() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "hold-owner@example.com"));
+        User holder = userRepository.save(new User(null, "Первый", "hold-first@example.com"));
+        User other = userRepository.save(new User(null, "Второй", "hold-second@example.com"));
+        Item item = itemRepository.save(new Item("Генератор", "Бензиновый", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        String holdId = objectMapper.readTree(hold(holder, item, start, start.plusDays(2), 60)
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.itemId").value(item.getId()))
+                        .andExpect(jsonPath("$.expiresAt").isNotEmpty())
+                        .andReturn().getResponse().getContentAsString())
+                .get("id").asText();
+        hold(other, item, start.plusDays(1), start.plusDays(3), null)
+                .andExpect(status().isConflict());
+        book(other, item, start.plusDays(1), start.plusDays(3))
+                .andExpect(status().isConflict());
+
+        book(holder, item, start, start.plusDays(2))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/items/{itemId}/holds/{holdId}", item.getId(), holdId)
+                        .header("X-Sharer-User-Id", holder.getId()))
+                .andExpect(status().isNotFound());
+        hold(other, item, start.plusDays(1), start.plusDays(3), null)
+                .andExpect(status().isConflict());
+        book(other, item, start.plusDays(2), start.plusDays(3))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void release_shouldFreePeriodForOtherUsers() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "release-owner@example.com"));
+        User holder = userRepository.save(new User(null, "Первый", "release-first@example.com"));
+        User other = userRepository.save(new User(null, "Второй", "release-second@example.com"));
+        Item item = itemRepository.save(new Item("Компрессор", "Поршневой", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String holdId = objectMapper.readTree(hold(holder, item, start, start.plusDays(1), null)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString())
+                .get("id").asText();
+
+        mockMvc.perform(delete("/items/{itemId}/holds/{holdId}", item.getId(), holdId)
+                        .header("X-Sharer-User-Id", other.getId()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/items/{itemId}/holds/{holdId}", item.getId(), holdId)
+                        .header("X-Sharer-User-Id", holder.getId()))
+                .andExpect(status().isOk());
+
+        book(other, item, start, start.plusDays(1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void recurring_shouldNotTakePeriodsHeldByOtherUser() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "hold-recurring-owner@example.com"));
+        User holder = userRepository.save(new User(null, "Первый", "hold-recurring-first@example.com"));
+        User other = userRepository.save(new User(null, "Второй", "hold-recurring-second@example.com"));
+        Item item = itemRepository.save(new Item("Шуруповёрт", "Аккумуляторный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        hold(holder, item, start.plusDays(7), start.plusDays(7).plusHours(2), null)
+                .andExpect(status().isOk());
+
+        recurring(other, item, start, 7, 2)
+                .andExpect(status().isConflict());
+
+        recurring(other, item, start.plusDays(1), 28, 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.materializedCount").value(1));
+        hold(holder, item, start.plusDays(29), start.plusDays(29).plusHours(2), null)
+                .andExpect(status().isOk());
+        Integer ruleId = recurringBookingRepository.findPendingByBookerId(other.getId()).getFirst().getId();
+
+        assertEquals(0, recurringBookingService.materialize(ruleId, start.plusDays(40)));
+    }
+
+    @Test
+    void hold_shouldRejectPastStartAndTooLongPeriod() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "hold-limits-owner@example.com"));
+        User holder = userRepository.save(new User(null, "Первый", "hold-limits-first@example.com"));
+        Item item = itemRepository.save(new Item("Бетономешалка", "Электрическая", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        hold(holder, item, start.minusDays(2), start, null)
+                .andExpect(status().isBadRequest());
+        hold(holder, item, start, start.plusDays(400), null)
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions recurring(User user, Item item, LocalDateTime start, int periodDays, int occurrences)
+            throws Exception {
+        return mockMvc.perform(post("/bookings/recurring")
+                .header("X-Sharer-User-Id", user.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RecurringBookingRequestDto(item.getId(), start,
+                        start.plusHours(2), periodDays, occurrences))));
+    }
+
+    private ResultActions hold(User user, Item item, LocalDateTime start, LocalDateTime end, Integer seconds)
+            throws Exception {
+        return mockMvc.perform(post("/items/{itemId}/holds", item.getId())
+                .header("X-Sharer-User-Id", user.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingHoldRequestDto(start, end, seconds))));
+    }
+
+    private ResultActions book(User user, Item item, LocalDateTime start, LocalDateTime end) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .header("X-Sharer-User-Id", user.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingRequestDto(item.getId(), start, end))));
+    }
+}
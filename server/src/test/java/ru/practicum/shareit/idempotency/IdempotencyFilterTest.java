@@ -0,0 +1,108 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyFilter filter;
+
+    private static final String BODY = "{\"name\":\"Лестница\"}";
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyStore store = new IdempotencyStore(repository, Duration.ofHours(1), Duration.ofMillis(50),
+                Duration.ofMinutes(5), 10);
+        filter = new IdempotencyFilter(store);
+    }
+
+    @Test
+    void doFilter_shouldAnswerConflictWhenKeyClaimedByAnotherNode() throws Exception {
+        when(repository.findById(anyString())).thenReturn(Optional.empty(), Optional.of(new IdempotencyRecord(
+                "1:/items:create", IdempotencyRecord.PENDING, null, "", LocalDateTime.now(), "hash")));
+        when(repository.insertPending(anyString(), anyString(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void doFilter_shouldAnswerConflictWhenDuplicateWaitTimesOut() throws Exception {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.insertPending(anyString(), anyString(), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(request(), response, (req, res) -> {
+                    started.countDown();
+                    awaitRelease(release);
+                    res.getWriter().write("{\"id\":1}");
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse duplicate = new MockHttpServletResponse();
+
+        filter.doFilter(request(), duplicate, chain);
+        release.countDown();
+
+        assertEquals(HttpStatus.CONFLICT.value(), duplicate.getStatus());
+        verifyNoInteractions(chain);
+        assertEquals(HttpStatus.OK.value(), first.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.addHeader("X-Sharer-User-Id", "1");
+        request.addHeader("Idempotency-Key", "create");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
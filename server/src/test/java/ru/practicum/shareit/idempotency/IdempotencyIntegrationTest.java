@@ -0,0 +1,90 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class IdempotencyIntegrationTest {
+
+    private final MockMvc mockMvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private static final String ITEM_JSON = "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":true}";
+
+    @Test
+    void create_shouldReplayStoredResponseForSameKey() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "idempotency-owner@example.com"));
+        long itemsBefore = itemRepository.count();
+
+        MvcResult first = mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("Idempotency-Key", "create-ladder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("Idempotency-Key", "create-ladder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first.getResponse().getContentAsString()));
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("Idempotency-Key", "create-second-ladder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        assertEquals(itemsBefore + 2, itemRepository.count());
+        assertEquals(1, idempotencyRecordRepository.findAll().stream()
+                .filter(record -> record.getRequestKey().endsWith(":create-ladder"))
+                .count());
+    }
+
+    @Test
+    void create_shouldRejectSameKeyWithDifferentBody() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "idempotency-body-owner@example.com"));
+        long itemsBefore = itemRepository.count();
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("Idempotency-Key", "create-tool")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("Idempotency-Key", "create-tool")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITEM_JSON.replace("Лестница", "Тачка")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        assertEquals(itemsBefore + 1, itemRepository.count());
+    }
+}
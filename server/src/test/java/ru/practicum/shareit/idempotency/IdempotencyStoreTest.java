@@ -0,0 +1,200 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyStore store;
+
+    private static final String HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private final String key = "1:/items:abc";
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofMinutes(5), 2);
+    }
+
+    @Test
+    void execute_shouldRunActionOnceAndReplayFromMemory() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.empty());
+        when(repository.insertPending(eq(key), eq(HASH), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyStore.Execution first = store.execute(key, HASH, () -> ok("{\"id\":" + calls.incrementAndGet() + "}"));
+        IdempotencyStore.Execution second = store.execute(key, HASH, () -> ok("{\"id\":" + calls.incrementAndGet() + "}"));
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals("{\"id\":1}", second.response().body());
+        assertEquals(1, calls.get());
+        verify(repository).complete(eq(key), eq(HASH), eq(200), eq("application/json"), eq("{\"id\":1}"), any());
+        verify(repository, times(1)).findById(key);
+    }
+
+    @Test
+    void execute_shouldReplayResponseFromTable() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.of(new IdempotencyRecord(key, 200,
+                "application/json", "{\"id\":7}", LocalDateTime.now().minusMinutes(5), HASH)));
+
+        IdempotencyStore.Execution execution = store.execute(key, HASH, () -> fail("Действие не должно выполняться"));
+
+        assertTrue(execution.replayed());
+        assertEquals("{\"id\":7}", execution.response().body());
+    }
+
+    @Test
+    void execute_shouldIgnoreExpiredResponse() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.of(new IdempotencyRecord(key, 200,
+                "application/json", "{\"id\":7}", LocalDateTime.now().minusHours(2), HASH)));
+        when(repository.insertPending(eq(key), eq(HASH), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.reclaim(eq(key), eq(HASH), any(), any(), any())).thenReturn(1);
+
+        IdempotencyStore.Execution execution = store.execute(key, HASH, () -> ok("{\"id\":8}"));
+
+        assertFalse(execution.replayed());
+        assertEquals("{\"id\":8}", execution.response().body());
+    }
+
+    @Test
+    void execute_shouldNotStoreErrorResponse() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.empty());
+        when(repository.insertPending(eq(key), eq(HASH), any())).thenReturn(1);
+
+        store.execute(key, HASH, () -> new StoredResponse(404, "application/json", "{}", LocalDateTime.now(), HASH));
+        IdempotencyStore.Execution retry = store.execute(key, HASH, () -> ok("{\"id\":1}"));
+
+        assertFalse(retry.replayed());
+        verify(repository, times(1)).deletePending(key, HASH);
+        verify(repository, times(1)).complete(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldReleaseClaimWhenActionFails() {
+        when(repository.findById(key)).thenReturn(Optional.empty());
+        when(repository.insertPending(eq(key), eq(HASH), any())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> store.execute(key, HASH, () -> {
+            throw new IllegalStateException("Ошибка обработки");
+        }));
+
+        verify(repository).deletePending(key, HASH);
+        verify(repository, never()).complete(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldReportInFlightWhenKeyClaimedByAnotherNode() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.empty(), Optional.of(new IdempotencyRecord(key,
+                IdempotencyRecord.PENDING, null, "", LocalDateTime.now(), HASH)));
+        when(repository.insertPending(eq(key), eq(HASH), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.reclaim(eq(key), eq(HASH), any(), any(), any())).thenReturn(0);
+
+        IdempotencyStore.Execution execution = store.execute(key, HASH, () -> fail("Действие не должно выполняться"));
+
+        assertEquals(IdempotencyStore.Outcome.IN_FLIGHT, execution.outcome());
+        assertNull(execution.response());
+    }
+
+    @Test
+    void execute_shouldMakeConcurrentDuplicateWaitForRunningRequest() throws Exception {
+        when(repository.findById(key)).thenReturn(Optional.empty());
+        when(repository.insertPending(eq(key), eq(HASH), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<IdempotencyStore.Execution> first = executeAsync(() -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    awaitRelease(release);
+                    return ok("{\"id\":1}");
+                });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotencyStore.Execution> duplicate = executeAsync(() ->
+                ok("{\"id\":" + (calls.incrementAndGet() + 100) + "}"));
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        IdempotencyStore.Execution replay = duplicate.get(5, TimeUnit.SECONDS);
+        assertTrue(replay.replayed());
+        assertEquals("{\"id\":1}", replay.response().body());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldReportInFlightWhenRunningRequestTakesTooLong() throws Exception {
+        store = new IdempotencyStore(repository, Duration.ofHours(1), Duration.ofMillis(50), Duration.ofMinutes(5), 2);
+        when(repository.findById(key)).thenReturn(Optional.empty());
+        when(repository.insertPending(eq(key), eq(HASH), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<IdempotencyStore.Execution> first = executeAsync(() -> {
+                    started.countDown();
+                    awaitRelease(release);
+                    return ok("{}");
+                });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        IdempotencyStore.Execution duplicate = store.execute(key, HASH, () -> fail("Действие не должно выполняться"));
+
+        assertEquals(IdempotencyStore.Outcome.IN_FLIGHT, duplicate.outcome());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteRowsOlderThanTtl() {
+        store.purgeExpired();
+
+        verify(repository).deleteCreatedBefore(argThat(threshold ->
+                threshold.isBefore(LocalDateTime.now().minusMinutes(59))));
+    }
+
+    private CompletableFuture<IdempotencyStore.Execution> executeAsync(IdempotencyStore.ResponseAction action) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.execute(key, HASH, action);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static StoredResponse ok(String body) {
+        return new StoredResponse(200, "application/json", body, LocalDateTime.now(), HASH);
+    }
+}
@@ -9,8 +9,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.FreeInterval;
 import ru.practicum.shareit.comment.CommentRequestDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.ResponseItemConciseDto;
@@ -112,7 +114,7 @@ class ItemControllerTest {
 
     @Test
     void searchItems_shouldReturnMatchingItems() throws Exception {
-        when(itemService.searchItems(anyString()))
+        when(itemService.searchItems(anyString(), isNull(), isNull()))
                 .thenReturn(List.of(responseItemConciseDto));
 
         mockMvc.perform(get("/items/search")
@@ -121,6 +123,36 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name").value(responseItemConciseDto.getName()));
     }
 
+    @Test
+    void searchItems_shouldPassIsoWindow() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 6, 8, 0, 0);
+        when(itemService.searchItems("drill", from, from.plusDays(2)))
+                .thenReturn(List.of(responseItemConciseDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "2030-06-08T00:00:00")
+                        .param("to", "2030-06-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(responseItemConciseDto.getName()));
+    }
+
+    @Test
+    void getAvailability_shouldParseIsoWindow() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(7);
+        when(itemService.getAvailability(1, from, to)).thenReturn(new ItemAvailabilityDto(1, from, to,
+                List.of(new FreeInterval(from.plusDays(2), to))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.freeIntervals[0].start").value("2030-01-03T00:00:00"))
+                .andExpect(jsonPath("$.freeIntervals[0].end").value("2030-01-08T00:00:00"));
+    }
+
     @Test
     void createComment_shouldReturnCreatedComment() throws Exception {
         CommentRequestDto commentRequestDto = new CommentRequestDto();
@@ -29,7 +29,7 @@ class ItemMapperTest {
         assertEquals(item.getName(), result.getName());
         assertEquals(item.getDescription(), result.getDescription());
         assertEquals(item.isAvailable(), result.getAvailable());
-        assertEquals(item.getOwner(), result.getOwner());
+        assertEquals(owner.getId(), result.getOwnerId());
         assertEquals(request.getId(), result.getRequestId());
     }
 
@@ -45,14 +45,13 @@ class ItemMapperTest {
         assertEquals(item.getName(), result.getName());
         assertEquals(item.getDescription(), result.getDescription());
         assertEquals(item.isAvailable(), result.getAvailable());
-        assertEquals(item.getOwner(), result.getOwner());
+        assertEquals(owner.getId(), result.getOwnerId());
         assertNull(result.getRequestId());
     }
 
     @Test
     void mapToModel_shouldMapCorrectly() {
-        User owner = new User(1, "Owner", "owner@example.com");
-        ItemDto itemDto = new ItemDto(1, "Item", "Description", true, owner, 10);
+        ItemDto itemDto = new ItemDto(1, "Item", "Description", true, 1, 10);
 
         Item result = ItemMapper.mapToModel(itemDto);
 
@@ -60,7 +59,7 @@ class ItemMapperTest {
         assertEquals(itemDto.getName(), result.getName());
         assertEquals(itemDto.getDescription(), result.getDescription());
         assertEquals(itemDto.getAvailable(), result.isAvailable());
-        assertEquals(itemDto.getOwner(), result.getOwner());
+        assertNull(result.getOwner());
         assertNull(result.getId());
         assertNull(result.getRequest());
     }
@@ -76,32 +75,6 @@ class ItemMapperTest {
         assertEquals(item.getDescription(), result.getDescription());
     }
 
-    @Test
-    void mapToModelFromUpdatedItem_shouldUpdateFields() {
-        Item originalItem = new Item(1, "Original", "Original description", false, null, null);
-        UpdateItemDto updateDto = new UpdateItemDto("Updated", "Updated description", true);
-
-        Item result = ItemMapper.mapToModelFromUpdatedItem(updateDto, originalItem);
-
-        assertSame(originalItem, result);
-        assertEquals(updateDto.getName(), result.getName());
-        assertEquals(updateDto.getDescription(), result.getDescription());
-        assertEquals(updateDto.getAvailable(), result.isAvailable());
-    }
-
-    @Test
-    void mapToModelFromUpdatedItem_withNullFields_shouldNotUpdate() {
-        Item originalItem = new Item(1, "Original", "Original description", false, null, null);
-        UpdateItemDto updateDto = new UpdateItemDto(null, null, null);
-
-        Item result = ItemMapper.mapToModelFromUpdatedItem(updateDto, originalItem);
-
-        assertSame(originalItem, result);
-        assertEquals("Original", result.getName());
-        assertEquals("Original description", result.getDescription());
-        assertFalse(result.isAvailable());
-    }
-
     @Test
     void mapToItemWithBooking_shouldMapCorrectly() {
         Item item = new Item(1, "Item", "Description", true, null, null);
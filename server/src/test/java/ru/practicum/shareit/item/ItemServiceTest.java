@@ -9,7 +9,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.BookingConflictIndex;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.FreeInterval;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentRepository;
@@ -17,6 +20,9 @@ import ru.practicum.shareit.comment.CommentRequestDto;
 import ru.practicum.shareit.comment.CommentResponseDto;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.hold.BookingHold;
+import ru.practicum.shareit.hold.BookingHoldIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.ResponseItemConciseDto;
@@ -29,6 +35,7 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -54,6 +61,10 @@ class ItemServiceTest {
     private BookingMapper bookingMapper;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private BookingConflictIndex conflictIndex;
+    @Mock
+    private BookingHoldIndex holdIndex;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -65,7 +76,7 @@ class ItemServiceTest {
     private final Item item = new Item(itemId, "Сабельная пила", "500 рублей/сутки",
             true, user, null);
     private final ItemDto itemDto = new ItemDto(itemId, "Сабельная пила", "500 рублей/сутки",
-            true, user, null);
+            true, userId, null);
     private final UpdateItemDto updateItemDto = new UpdateItemDto();
     private final ItemWithBookingDto itemWithBookingDto = new ItemWithBookingDto();
     private final ResponseItemConciseDto conciseDto = new ResponseItemConciseDto("Сабельная пила",
@@ -110,22 +121,21 @@ class ItemServiceTest {
 
     @Test
     void update_shouldUpdateItem() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        updateItemDto.setName("Updated Drill");
+        when(itemRepository.updateIfOwner(itemId, userId, "Updated Drill", null, null)).thenReturn(1);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
 
-        updateItemDto.setName("Updated Drill");
         ItemDto result = itemService.update(userId, itemId, updateItemDto);
 
         assertNotNull(result);
-        verify(itemRepository).save(any(Item.class));
+        verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
     void update_shouldThrowExceptionWhenNotOwner() {
-        User otherUser = new User(2, "Other", "other@example.com");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(otherUser));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.updateIfOwner(itemId, userId, null, null, null)).thenReturn(0);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
 
         assertThrows(BadRequestException.class, () -> itemService.update(userId, itemId, updateItemDto));
         verify(itemRepository, never()).save(any());
@@ -178,7 +188,7 @@ class ItemServiceTest {
 
     @Test
     void searchItems_shouldReturnEmptyListForBlankText() {
-        List<ResponseItemConciseDto> result = itemService.searchItems(" ");
+        List<ResponseItemConciseDto> result = itemService.searchItems(" ", null, null);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -189,13 +199,35 @@ class ItemServiceTest {
     void searchItems_shouldReturnMatchingItems() {
         when(itemRepository.searchItemsByNameAndDescription("пила")).thenReturn(List.of(item));
 
-        List<ResponseItemConciseDto> result = itemService.searchItems("пила");
+        List<ResponseItemConciseDto> result = itemService.searchItems("пила", null, null);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         verify(itemRepository).searchItemsByNameAndDescription("пила");
     }
 
+    @Test
+    void searchItems_shouldExcludeBookedItemsWhenWindowGiven() {
+        LocalDateTime from = LocalDateTime.of(2030, 6, 8, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemRepository.searchFreeItemsByNameAndDescription("пила", from, to)).thenReturn(List.of(item));
+
+        List<ResponseItemConciseDto> result = itemService.searchItems("пила", from, to);
+
+        assertEquals(1, result.size());
+        verify(itemRepository, never()).searchItemsByNameAndDescription(any());
+    }
+
+    @Test
+    void searchItems_shouldRejectIncompleteOrEmptyWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 6, 8, 0, 0);
+
+        assertThrows(BadRequestException.class, () -> itemService.searchItems("пила", from, null));
+        assertThrows(BadRequestException.class, () -> itemService.searchItems("пила", null, from));
+        assertThrows(BadRequestException.class, () -> itemService.searchItems("пила", from, from));
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void createComment_shouldSaveComment() {
         CommentRequestDto requestDto = new CommentRequestDto("Замечательный инструмент!");
@@ -211,6 +243,7 @@ class ItemServiceTest {
                 any(LocalDateTime.class)
         )).thenReturn(true);
 
+        when(commentMapper.toEntity(requestDto)).thenReturn(new Comment());
         Comment savedComment = new Comment(1, "Замечательный инструмент!", item, user, fixedTime);
         when(commentRepository.save(any(Comment.class))).thenReturn(savedComment);
 
@@ -239,4 +272,58 @@ class ItemServiceTest {
 
         verify(commentRepository, never()).save(any());
     }
+
+    @Test
+    void getAvailability_shouldReturnFreeIntervalsFromConflictIndex() {
+        ReflectionTestUtils.setField(itemService, "availabilityMaxWindow", Duration.ofDays(366));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<FreeInterval> free = List.of(new FreeInterval(from, from.plusDays(2)));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(conflictIndex.freeIntervals(itemId, from, to)).thenReturn(free);
+
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, from, to);
+
+        assertEquals(new ItemAvailabilityDto(itemId, from, to, free), result);
+    }
+
+    @Test
+    void getAvailability_shouldExcludeHeldPeriods() {
+        ReflectionTestUtils.setField(itemService, "availabilityMaxWindow", Duration.ofDays(366));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(conflictIndex.freeIntervals(itemId, from, to)).thenReturn(List.of(
+                new FreeInterval(from, from.plusDays(4)), new FreeInterval(from.plusDays(6), to)));
+        when(holdIndex.findActive(eq(itemId), any())).thenReturn(List.of(
+                new BookingHold("hold", itemId, 2, from.plusDays(1), from.plusDays(2), from, from.plusDays(1)),
+                new BookingHold("other", itemId, 3, from.plusDays(3), from.plusDays(7), from, from.plusDays(1))));
+
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, from, to);
+
+        assertEquals(List.of(new FreeInterval(from, from.plusDays(1)),
+                new FreeInterval(from.plusDays(2), from.plusDays(3)),
+                new FreeInterval(from.plusDays(7), to)), result.getFreeIntervals());
+    }
+
+    @Test
+    void getAvailability_shouldReturnNoIntervalsForUnavailableItem() {
+        ReflectionTestUtils.setField(itemService, "availabilityMaxWindow", Duration.ofDays(366));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        item.setAvailable(false);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertTrue(itemService.getAvailability(itemId, from, from.plusDays(1)).getFreeIntervals().isEmpty());
+        verify(conflictIndex, never()).freeIntervals(any(), any(), any());
+    }
+
+    @Test
+    void getAvailability_shouldRejectEmptyOrTooWideWindow() {
+        ReflectionTestUtils.setField(itemService, "availabilityMaxWindow", Duration.ofDays(366));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(itemId, from, from));
+        assertThrows(BadRequestException.class, () -> itemService.getAvailability(itemId, from, from.plusDays(367)));
+        verify(itemRepository, never()).findById(any());
+    }
 }
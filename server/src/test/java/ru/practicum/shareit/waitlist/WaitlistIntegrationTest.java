@@ -0,0 +1,133 @@
+package ru.practicum.shareit.waitlist;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class WaitlistIntegrationTest {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistIndex waitlistIndex;
+
+    @Test
+    void cancel_shouldPromoteFirstCompatibleWaiter() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "waitlist-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "waitlist-booker@example.com"));
+        User first = userRepository.save(new User(null, "Первый", "waitlist-first@example.com"));
+        User second = userRepository.save(new User(null, "Второй", "waitlist-second@example.com"));
+        Item item = itemRepository.save(new Item("Шуруповёрт", "С двумя аккумуляторами", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Integer bookingId = book(booker, item, start, start.plusDays(2));
+
+        mockMvc.perform(post("/items/{itemId}/waitlist", item.getId())
+                        .header("X-Sharer-User-Id", second.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new WaitlistRequestDto(start.plusDays(5), start.plusDays(6)))))
+                .andExpect(status().isBadRequest());
+
+        Integer firstEntry = join(first, item, start, start.plusDays(2));
+        Integer secondEntry = join(second, item, start.plusDays(1), start.plusDays(3));
+
+        mockMvc.perform(post("/items/{itemId}/waitlist", item.getId())
+                        .header("X-Sharer-User-Id", first.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new WaitlistRequestDto(start.plusHours(1), start.plusDays(1)))))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(patch("/bookings/{bookingId}/cancel", bookingId)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk());
+
+        List<Booking> promoted = bookingsOf(first);
+        assertEquals(1, promoted.size());
+        assertEquals(Status.WAITING, promoted.getFirst().getStatus());
+        assertEquals(start, promoted.getFirst().getStart());
+        assertTrue(bookingsOf(second).isEmpty());
+        assertFalse(waitlistRepository.existsById(firstEntry));
+        assertTrue(waitlistRepository.existsById(secondEntry));
+    }
+
+    @Test
+    void reject_shouldPromoteWaiterLoadedFromDatabase() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "waitlist-reload-owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "waitlist-reload-booker@example.com"));
+        User waiter = userRepository.save(new User(null, "Ожидающий", "waitlist-reload-waiter@example.com"));
+        Item item = itemRepository.save(new Item("Перфоратор", "Ударный", true, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Integer bookingId = book(booker, item, start, start.plusDays(2));
+        Integer entryId = join(waiter, item, start.plusDays(1), start.plusDays(2));
+        waitlistIndex.invalidate(item.getId());
+
+        mockMvc.perform(delete("/items/{itemId}/waitlist/{entryId}", item.getId(), entryId)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=false", bookingId)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(1, bookingsOf(waiter).size());
+        assertFalse(waitlistRepository.existsById(entryId));
+        assertTrue(waitlistIndex.snapshot(item.getId()).isEmpty());
+    }
+
+    private Integer book(User booker, Item item, LocalDateTime start, LocalDateTime end) throws Exception {
+        String created = mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingRequestDto(item.getId(), start, end))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asInt();
+    }
+
+    private Integer join(User user, Item item, LocalDateTime start, LocalDateTime end) throws Exception {
+        String created = mockMvc.perform(post("/items/{itemId}/waitlist", item.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new WaitlistRequestDto(start, end))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(item.getId()))
+                .andExpect(jsonPath("$.userId").value(user.getId()))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asInt();
+    }
+
+    private List<Booking> bookingsOf(User user) {
+        return bookingRepository.findAll().stream()
+                .filter(booking -> booking.getBooker().getId().equals(user.getId()))
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.waitlist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingConflictIndex;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.mapper.WaitlistMapper;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.waitlist.dto.WaitlistEntryDto;
+import ru.practicum.shareit.waitlist.dto.WaitlistRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+    @Mock
+    private WaitlistIndex waitlistIndex;
+    @Mock
+    private WaitlistMapper waitlistMapper;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private BookingConflictIndex conflictIndex;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final User user = new User(1, "Артем", "tema123@example.com");
+    private final User owner = new User(2, "Виталий", "vintik@example.com");
+    private final Item item = new Item(1, "Триммер", "Бензиновый, полный бак", true, owner, null);
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final LocalDateTime end = start.plusDays(1);
+
+    private WaitlistServiceImpl waitlistService() {
+        return new WaitlistServiceImpl(waitlistRepository, waitlistIndex, waitlistMapper, userRepository,
+                itemRepository, bookingService, conflictIndex, transactionManager);
+    }
+
+    @Test
+    void join_shouldSaveEntryAndAddItToQueue() {
+        WaitlistEntry saved = new WaitlistEntry(5, item, user, start, end, LocalDateTime.now());
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(conflictIndex.overlaps(1, start, end)).thenReturn(true);
+        when(waitlistIndex.snapshot(1)).thenReturn(List.of());
+        when(waitlistRepository.save(any())).thenReturn(saved);
+        when(waitlistMapper.mapToDto(saved)).thenReturn(new WaitlistEntryDto());
+
+        assertNotNull(waitlistService().join(1, 1, new WaitlistRequestDto(start, end)));
+        verify(waitlistIndex).add(1, new WaitlistSlot(5, 1, start, end));
+    }
+
+    @Test
+    void join_shouldRejectFreePeriod() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(conflictIndex.overlaps(1, start, end)).thenReturn(false);
+
+        assertThrows(BadRequestException.class, () ->
+                waitlistService().join(1, 1, new WaitlistRequestDto(start, end)));
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void join_shouldRejectOwnerAndInvalidPeriod() {
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+
+        assertThrows(BadRequestException.class, () ->
+                waitlistService().join(1, 2, new WaitlistRequestDto(start, end)));
+        assertThrows(BadRequestException.class, () ->
+                waitlistService().join(1, 1, new WaitlistRequestDto(end, start)));
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void join_shouldRejectDuplicateWaiting() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(conflictIndex.overlaps(1, start, end)).thenReturn(true);
+        when(waitlistIndex.snapshot(1)).thenReturn(List.of(new WaitlistSlot(3, 1, start.minusHours(1), start.plusHours(1))));
+
+        assertThrows(ConflictException.class, () ->
+                waitlistService().join(1, 1, new WaitlistRequestDto(start, end)));
+    }
+
+    @Test
+    void join_shouldThrowNotFoundWhenItemMissing() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () ->
+                waitlistService().join(1, 1, new WaitlistRequestDto(start, end)));
+    }
+}